@@ -0,0 +1,81 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * AttackBenchmark.java
+ *
+ * Created on October 17, 2026, 6:05 AM
+ *
+ */
+
+package desbench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the whole attack on 6 rounds, from the text input of
+ * the applets and from a PairStore, for several numbers of generated pairs per
+ * characteristic. The pairs are generated once for a fixed key, and the
+ * search for the remaining key bits runs on all available cores.
+ *
+ * @author Kelly McLaughlin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class AttackBenchmark {
+
+    @Param({ "2000", "20000", "200000" })
+    private long numberOfTuples;
+
+    private ArrayList input;
+    private PairStore pairs;
+
+    @Setup
+    public void setup()
+    {
+        DesCryptanalysis dca = new DesCryptanalysis();
+        dca.setKey(dca.addParityKeyBits(0x133457799bbcdff1L));
+        input = dca.generateInputPairs(numberOfTuples);
+
+        PairStore[] characteristicPairs = dca.createPairStores(input);
+        pairs = characteristicPairs[0];
+        pairs.addAll(characteristicPairs[1]);
+    }
+
+    @Benchmark
+    public long determineKeyFromInput()
+    {
+        return new DesCryptanalysis().determineKey(input);
+    }
+
+    @Benchmark
+    public long determineKeyFromPairStore()
+    {
+        return new DesCryptanalysis().determineKey(pairs);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * BatchCipherBenchmark.java
+ *
+ * Created on October 17, 2026, 1:10 AM
+ *
+ */
+
+package desbench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the encryption of a batch of blocks under one key, as
+ * done by the pair generators, and the decryption of one block under a batch
+ * of keys, as done by a key trial. Each is run one block at a time with DES
+ * and 64 blocks at a time with BitslicedDES. For the key trial DES is run
+ * both with every key expanded in the loop and with the keys expanded
+ * beforehand. The scores are per block.
+ *
+ * @author Kelly McLaughlin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class BatchCipherBenchmark {
+    private static final int BATCH_SIZE = 1024;
+
+    @Param({ "6", "16" })
+    private int rounds;
+
+    private DES des;
+    private BitslicedDES bitsliced;
+    private KeySchedule keySchedule;
+    private long key;
+    private ExpandedKey expandedKey;
+    private long[] plaintexts;
+    private long[] ciphertexts;
+    private long block;
+    private long[] keys;
+    private ExpandedKey[] expandedKeys;
+
+    @Setup
+    public void setup()
+    {
+        SplittableRandom rng = new SplittableRandom(1);
+
+        des = new DES();
+        bitsliced = new BitslicedDES();
+        keySchedule = new KeySchedule();
+        key = 0x133457799bbcdff1L;
+        expandedKey = keySchedule.expandKey(key);
+        plaintexts = new long[BATCH_SIZE];
+        ciphertexts = new long[BATCH_SIZE];
+        block = 0x0123456789abcdefL;
+        keys = new long[BATCH_SIZE];
+        expandedKeys = new ExpandedKey[BATCH_SIZE];
+        for (int i=0; i<BATCH_SIZE; i++)
+        {
+            plaintexts[i] = rng.nextLong();
+            keys[i] = rng.nextLong();
+            expandedKeys[i] = keySchedule.expandKey(keys[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] encryptBatch()
+    {
+        for (int i=0; i<BATCH_SIZE; i++)
+        {
+            ciphertexts[i] = des.encrypt(plaintexts[i], expandedKey, rounds, null);
+        }
+        return ciphertexts;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] encryptBatchBitsliced()
+    {
+        bitsliced.encrypt(plaintexts, ciphertexts, BATCH_SIZE, key, rounds);
+        return ciphertexts;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] decryptUnderKeys()
+    {
+        for (int i=0; i<BATCH_SIZE; i++)
+        {
+            plaintexts[i] = des.decrypt(block, keySchedule.expandKey(keys[i]), rounds);
+        }
+        return plaintexts;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] decryptUnderExpandedKeys()
+    {
+        for (int i=0; i<BATCH_SIZE; i++)
+        {
+            plaintexts[i] = des.decrypt(block, expandedKeys[i], rounds);
+        }
+        return plaintexts;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] decryptUnderKeysBitsliced()
+    {
+        bitsliced.decryptUnderKeys(block, keys, plaintexts, BATCH_SIZE, rounds);
+        return plaintexts;
+    }
+}
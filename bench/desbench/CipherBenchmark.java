@@ -0,0 +1,96 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * CipherBenchmark.java
+ *
+ * Created on October 17, 2026, 5:40 AM
+ *
+ */
+
+package desbench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the encryption and decryption of one block with DES,
+ * both with a key that is expanded on each call and with an ExpandedKey.
+ *
+ * @author Kelly McLaughlin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class CipherBenchmark {
+
+    @Param({ "6", "16" })
+    private int rounds;
+
+    private DES des;
+    private long key;
+    private ExpandedKey expandedKey;
+    private int[] fOutputs;
+    private long block;
+
+    @Setup
+    public void setup()
+    {
+        des = new DES();
+        key = 0x133457799bbcdff1L;
+        expandedKey = new KeySchedule().expandKey(key);
+        fOutputs = new int[16];
+        block = 0x0123456789abcdefL;
+    }
+
+    @Benchmark
+    public long encrypt()
+    {
+        //Feed each ciphertext back in so the calls cannot be folded
+        block = des.encrypt(block, key, rounds);
+        return block;
+    }
+
+    @Benchmark
+    public long encryptExpandedKey()
+    {
+        block = des.encrypt(block, expandedKey, rounds, fOutputs);
+        return block;
+    }
+
+    @Benchmark
+    public long decrypt()
+    {
+        block = des.decrypt(block, key, rounds);
+        return block;
+    }
+
+    @Benchmark
+    public long decryptExpandedKey()
+    {
+        block = des.decrypt(block, expandedKey, rounds);
+        return block;
+    }
+}
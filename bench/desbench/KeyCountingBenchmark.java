@@ -0,0 +1,89 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * KeyCountingBenchmark.java
+ *
+ * Created on October 17, 2026, 5:55 AM
+ *
+ */
+
+package desbench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the counting of the subkeys suggested by a pair for
+ * the first characteristic, one pair at a time and in batches from a
+ * PairStore. The pairs are right pairs generated under a fixed key, so the
+ * times are per pair.
+ *
+ * @author Kelly McLaughlin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class KeyCountingBenchmark {
+    private static final int NUMBER_OF_PAIRS = 4096;
+
+    private PairStore pairs;
+    private KeyCounter counter;
+    private int next;
+
+    @Setup
+    public void setup()
+    {
+        ParallelPairGenerator generator = new ParallelPairGenerator(0x133457799bbcdff1L, 6, DesCryptanalysis.CHAR_ONE);
+        PairStore rightPairs = generator.generate(NUMBER_OF_PAIRS * 32L, 1L);
+
+        //Repeat the right pairs if the characteristic gave too few
+        pairs = new PairStore();
+        for (int i=0; i<NUMBER_OF_PAIRS; i++)
+        {
+            int j = i % rightPairs.size();
+            pairs.add(rightPairs.getX1(j), rightPairs.getX2(j), rightPairs.getY1(j), rightPairs.getY2(j));
+        }
+
+        counter = DesCryptanalysis.CHAR_ONE.createKeyCounter();
+        next = 0;
+    }
+
+    @Benchmark
+    public KeyCounter add()
+    {
+        counter.add(pairs.getY1(next), pairs.getY2(next));
+        next = (next + 1) % NUMBER_OF_PAIRS;
+        return counter;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_PAIRS)
+    public KeyCounter addAll()
+    {
+        counter.addAll(pairs);
+        return counter;
+    }
+}
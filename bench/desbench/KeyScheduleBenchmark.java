@@ -0,0 +1,77 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * KeyScheduleBenchmark.java
+ *
+ * Created on October 17, 2026, 5:45 AM
+ *
+ */
+
+package desbench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the computation of the 16 round keys of a key.
+ *
+ * @author Kelly McLaughlin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class KeyScheduleBenchmark {
+
+    private KeySchedule keySchedule;
+    private long[] roundKeys;
+    private long key;
+
+    @Setup
+    public void setup()
+    {
+        keySchedule = new KeySchedule();
+        roundKeys = new long[16];
+        key = 0x133457799bbcdff1L;
+    }
+
+    @Benchmark
+    public long[] getEncryptionRoundKeys()
+    {
+        return keySchedule.getEncryptionRoundKeys(key++, 16);
+    }
+
+    @Benchmark
+    public long[] fillEncryptionRoundKeys()
+    {
+        keySchedule.fillEncryptionRoundKeys(key++, roundKeys, 16);
+        return roundKeys;
+    }
+
+    @Benchmark
+    public ExpandedKey expandKey()
+    {
+        return keySchedule.expandKey(key++);
+    }
+}
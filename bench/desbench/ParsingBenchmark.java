@@ -0,0 +1,75 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * ParsingBenchmark.java
+ *
+ * Created on October 17, 2026, 6:00 AM
+ *
+ */
+
+package desbench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the parsing of the text input of the applets into
+ * Tuples and PairStores. The input is generated once for a fixed key.
+ *
+ * @author Kelly McLaughlin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class ParsingBenchmark {
+
+    @Param({ "20000", "200000" })
+    private long numberOfTuples;
+
+    private DesCryptanalysis dca;
+    private ArrayList input;
+
+    @Setup
+    public void setup()
+    {
+        dca = new DesCryptanalysis();
+        dca.setKey(0x133457799bbcdff1L);
+        input = dca.generateInputPairs(numberOfTuples);
+    }
+
+    @Benchmark
+    public ArrayList[] createTuples()
+    {
+        return dca.createTuples(input);
+    }
+
+    @Benchmark
+    public PairStore[] createPairStores()
+    {
+        return dca.createPairStores(input);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * PermutationBenchmark.java
+ *
+ * Created on October 17, 2026, 5:50 AM
+ *
+ */
+
+package desbench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the expansion E, the permutation P and the initial
+ * permutation IP of ExpansionPermutation, and the SBox lookup.
+ *
+ * @author Kelly McLaughlin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class PermutationBenchmark {
+
+    private ExpansionPermutation ep;
+    private long block;
+    private int half;
+    private int sboxInput;
+
+    @Setup
+    public void setup()
+    {
+        ep = new ExpansionPermutation();
+        block = 0x0123456789abcdefL;
+        half = 0x89abcdef;
+        sboxInput = 0;
+    }
+
+    @Benchmark
+    public long E()
+    {
+        return ep.E(half++);
+    }
+
+    @Benchmark
+    public int P()
+    {
+        return ep.P(half++);
+    }
+
+    @Benchmark
+    public long IP()
+    {
+        return ep.IP(block++);
+    }
+
+    @Benchmark
+    public int getSboxValue()
+    {
+        //Step through all 8 SBoxes and 64 inputs
+        sboxInput = (sboxInput + 1) & 0x1ff;
+        return SBox.getSboxValue(sboxInput & 0x3f, (sboxInput >>> 6) + 1);
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * AttackMetrics.java
+ *
+ * Created on October 17, 2026, 7:05 AM
+ *
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This class collects live metrics of a running attack and exposes them as a
+ * platform MBean named DesCryptanalysis:type=AttackMetrics. It counts the
+ * pairs generated and kept for each characteristic, the pairs whose subkeys
+ * are counted and the candidate keys tested, and reports the best subkey of
+ * each SBox and its margin from the CharacteristicCounter of the running
+ * attack.
+ *
+ * Metrics are off unless enabled with enable or by setting the system
+ * property des.metrics to true. While they are off, getInstance returns null
+ * and the generators and counters skip them. While they are on, the counters
+ * are LongAdders, which are striped across threads, and they are updated once
+ * per batch of pairs or range of candidates rather than once per pair or
+ * candidate. The rates are sampled once a second by a background timer, so
+ * reading them has no side effects and every client sees the same values.
+ *
+ * @author Kelly McLaughlin
+ */
+public class AttackMetrics implements AttackMetricsMBean {
+    public static final String OBJECT_NAME = "DesCryptanalysis:type=AttackMetrics";
+
+    //Time between two samples of the rates
+    private static final long RATE_INTERVAL_MILLIS = 1000L;
+
+    private static volatile AttackMetrics instance = null;
+
+    static
+    {
+        if (Boolean.getBoolean("des.metrics"))
+        {
+            enable();
+        }
+    }
+
+    /**
+     * This class holds the pair counts of one characteristic.
+     */
+    private static class CharacteristicStats {
+        String name;
+        LongAdder candidates = new LongAdder();
+        LongAdder accepted = new LongAdder();
+
+        CharacteristicStats(String name)
+        {
+            this.name = name;
+        }
+    }
+
+    /**
+     * This class measures the rate of a counter between two samples taken by
+     * the sampler. Readers only see the rate of the last completed interval.
+     */
+    private static class Rate {
+        long lastTime = System.nanoTime();
+        long lastValue = 0;
+        volatile double rate = 0.0;
+
+        synchronized void reset()
+        {
+            lastTime = System.nanoTime();
+            lastValue = 0;
+            rate = 0.0;
+        }
+
+        synchronized void sample(long value, long now)
+        {
+            if (now > lastTime)
+            {
+                rate = (value - lastValue) * 1e9 / (now - lastTime);
+                lastTime = now;
+                lastValue = value;
+            }
+        }
+
+        double get()
+        {
+            return rate;
+        }
+    }
+
+    private LongAdder pairsGenerated;
+    private LongAdder pairsCounted;
+    private LongAdder candidatesTested;
+    private ConcurrentHashMap<Long, CharacteristicStats> statsByInputXor;
+    private CopyOnWriteArrayList<CharacteristicStats> stats;
+    private volatile CharacteristicCounter counter;
+    private final Rate generatedRate;
+    private final Rate countedRate;
+    private final Rate testedRate;
+    private Timer sampler;
+
+    /** Creates a new instance of AttackMetrics */
+    public AttackMetrics() {
+        pairsGenerated = new LongAdder();
+        pairsCounted = new LongAdder();
+        candidatesTested = new LongAdder();
+        statsByInputXor = new ConcurrentHashMap<Long, CharacteristicStats>();
+        stats = new CopyOnWriteArrayList<CharacteristicStats>();
+        generatedRate = new Rate();
+        countedRate = new Rate();
+        testedRate = new Rate();
+    }
+
+    /**
+     * This method returns the metrics being collected, or null if metrics are
+     * off.
+     */
+    public static AttackMetrics getInstance()
+    {
+        return instance;
+    }
+
+    /**
+     * This method turns metrics on and registers them as a platform MBean. If
+     * they are already on, the existing metrics are returned.
+     */
+    public static synchronized AttackMetrics enable()
+    {
+        if (instance == null)
+        {
+            AttackMetrics metrics = new AttackMetrics();
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+            try
+            {
+                ObjectName name = new ObjectName(OBJECT_NAME);
+
+                if (server.isRegistered(name))
+                {
+                    server.unregisterMBean(name);
+                }
+                server.registerMBean(metrics, name);
+            }
+            catch (JMException e)
+            {
+                throw new IllegalStateException("Cannot register " + OBJECT_NAME, e);
+            }
+
+            metrics.startSampler();
+            instance = metrics;
+        }
+
+        return instance;
+    }
+
+    /**
+     * This method turns metrics off and unregisters the MBean.
+     */
+    public static synchronized void disable()
+    {
+        if (instance != null)
+        {
+            try
+            {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+            }
+            catch (JMException e)
+            {
+                //Already unregistered
+            }
+
+            instance.sampler.cancel();
+            instance = null;
+        }
+    }
+
+    /**
+     * This method starts the timer that samples the rates.
+     */
+    private void startSampler()
+    {
+        sampler = new Timer("AttackMetrics sampler", true);
+        sampler.scheduleAtFixedRate(new TimerTask() {
+            public void run()
+            {
+                long now = System.nanoTime();
+
+                generatedRate.sample(pairsGenerated.sum(), now);
+                countedRate.sample(pairsCounted.sum(), now);
+                testedRate.sample(candidatesTested.sum(), now);
+            }
+        }, RATE_INTERVAL_MILLIS, RATE_INTERVAL_MILLIS);
+    }
+
+    /**
+     * This method records a batch of generated pairs for a characteristic.
+     *
+     * @param characteristic Characteristic the pairs were generated for
+     * @param candidates long value specifying the number of candidate pairs
+     * @param accepted long value specifying the number of pairs kept
+     */
+    public void addGeneratedPairs(Characteristic characteristic, long candidates, long accepted)
+    {
+        CharacteristicStats characteristicStats = statsByInputXor.get(characteristic.getInputXor());
+
+        if (characteristicStats == null)
+        {
+            characteristicStats = getStats(characteristic);
+        }
+
+        pairsGenerated.add(candidates);
+        characteristicStats.candidates.add(candidates);
+        characteristicStats.accepted.add(accepted);
+    }
+
+    private synchronized CharacteristicStats getStats(Characteristic characteristic)
+    {
+        CharacteristicStats characteristicStats = statsByInputXor.get(characteristic.getInputXor());
+
+        if (characteristicStats == null)
+        {
+            characteristicStats = new CharacteristicStats(characteristic.getName());
+            statsByInputXor.put(characteristic.getInputXor(), characteristicStats);
+            stats.add(characteristicStats);
+        }
+
+        return characteristicStats;
+    }
+
+    /**
+     * This method records a batch of pairs whose subkeys were counted.
+     *
+     * @param pairs long value specifying the number of pairs
+     */
+    public void addCountedPairs(long pairs)
+    {
+        pairsCounted.add(pairs);
+    }
+
+    /**
+     * This method records a range of candidate keys that were tested.
+     *
+     * @param candidates long value specifying the number of candidates
+     */
+    public void addCandidatesTested(long candidates)
+    {
+        candidatesTested.add(candidates);
+    }
+
+    /**
+     * This method sets the CharacteristicCounter of the running attack, whose
+     * best subkeys are reported.
+     *
+     * @param counter CharacteristicCounter of the running attack
+     */
+    public void setCounter(CharacteristicCounter counter)
+    {
+        this.counter = counter;
+    }
+
+    public long getPairsGenerated()
+    {
+        return pairsGenerated.sum();
+    }
+
+    public double getPairsGeneratedPerSecond()
+    {
+        return generatedRate.get();
+    }
+
+    public String[] getCharacteristicNames()
+    {
+        CharacteristicStats[] current = stats.toArray(new CharacteristicStats[0]);
+        String[] retval = new String[current.length];
+
+        for (int c=0; c<current.length; c++)
+        {
+            retval[c] = current[c].name;
+        }
+
+        return retval;
+    }
+
+    public long[] getCandidatePairs()
+    {
+        CharacteristicStats[] current = stats.toArray(new CharacteristicStats[0]);
+        long[] retval = new long[current.length];
+
+        for (int c=0; c<current.length; c++)
+        {
+            retval[c] = current[c].candidates.sum();
+        }
+
+        return retval;
+    }
+
+    public long[] getAcceptedPairs()
+    {
+        CharacteristicStats[] current = stats.toArray(new CharacteristicStats[0]);
+        long[] retval = new long[current.length];
+
+        for (int c=0; c<current.length; c++)
+        {
+            retval[c] = current[c].accepted.sum();
+        }
+
+        return retval;
+    }
+
+    public double[] getAcceptanceRates()
+    {
+        CharacteristicStats[] current = stats.toArray(new CharacteristicStats[0]);
+        double[] retval = new double[current.length];
+
+        for (int c=0; c<current.length; c++)
+        {
+            long candidates = current[c].candidates.sum();
+
+            retval[c] = (candidates > 0) ? (double)current[c].accepted.sum() / candidates : 0.0;
+        }
+
+        return retval;
+    }
+
+    public long getPairsCounted()
+    {
+        return pairsCounted.sum();
+    }
+
+    public double getPairsCountedPerSecond()
+    {
+        return countedRate.get();
+    }
+
+    public int[] getTopSubkeys()
+    {
+        CharacteristicCounter current = counter;
+
+        return (current != null) ? current.getBestSubkeys() : new int[] { -1, -1, -1, -1, -1, -1, -1, -1 };
+    }
+
+    public long[] getTopSubkeyMargins()
+    {
+        CharacteristicCounter current = counter;
+
+        return (current != null) ? current.getBestSubkeyMargins() : new long[] { -1, -1, -1, -1, -1, -1, -1, -1 };
+    }
+
+    public long getCandidatesTested()
+    {
+        return candidatesTested.sum();
+    }
+
+    public double getCandidatesTestedPerSecond()
+    {
+        return testedRate.get();
+    }
+
+    public synchronized void reset()
+    {
+        pairsGenerated.reset();
+        pairsCounted.reset();
+        candidatesTested.reset();
+        statsByInputXor.clear();
+        stats.clear();
+        counter = null;
+        generatedRate.reset();
+        countedRate.reset();
+        testedRate.reset();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * AttackMetricsMBean.java
+ *
+ * Created on October 17, 2026, 7:00 AM
+ *
+ */
+
+/**
+ * This interface defines the attributes and operations AttackMetrics exposes
+ * over JMX. The rates are sampled once a second by a background timer while
+ * metrics are enabled, and each gives the rate over the last completed
+ * interval, so reading an attribute has no side effects.
+ *
+ * @author Kelly McLaughlin
+ */
+public interface AttackMetricsMBean {
+
+    /**
+     * This method returns the number of candidate pairs generated, summed over
+     * all characteristics.
+     */
+    long getPairsGenerated();
+
+    /**
+     * This method returns the number of candidate pairs generated per second over
+     * the last completed one second sampling interval.
+     */
+    double getPairsGeneratedPerSecond();
+
+    /**
+     * This method returns the names of the characteristics pairs have been
+     * generated for, in the order of the per characteristic attributes.
+     */
+    String[] getCharacteristicNames();
+
+    /**
+     * This method returns the number of candidate pairs generated for each
+     * characteristic.
+     */
+    long[] getCandidatePairs();
+
+    /**
+     * This method returns the number of pairs kept as right pairs for each
+     * characteristic.
+     */
+    long[] getAcceptedPairs();
+
+    /**
+     * This method returns the share of the candidate pairs kept as right pairs
+     * for each characteristic.
+     */
+    double[] getAcceptanceRates();
+
+    /**
+     * This method returns the number of pairs whose subkeys have been counted.
+     */
+    long getPairsCounted();
+
+    /**
+     * This method returns the number of pairs counted per second over
+     * the last completed one second sampling interval.
+     */
+    double getPairsCountedPerSecond();
+
+    /**
+     * This method returns the current best subkey of each of the eight SBoxes
+     * in the running attack, or -1 for an SBox that is not counted.
+     */
+    int[] getTopSubkeys();
+
+    /**
+     * This method returns how far the count of the best subkey of each SBox
+     * leads the runner-up, or -1 for an SBox that is not counted.
+     */
+    long[] getTopSubkeyMargins();
+
+    /**
+     * This method returns the number of candidate keys tested by the search
+     * for the remaining key bits.
+     */
+    long getCandidatesTested();
+
+    /**
+     * This method returns the number of candidate keys tested per second over
+     * the last completed one second sampling interval.
+     */
+    double getCandidatesTestedPerSecond();
+
+    /**
+     * This method sets all counters back to zero.
+     */
+    void reset();
+}
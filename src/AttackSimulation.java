@@ -0,0 +1,402 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * AttackSimulation.java
+ *
+ * Created on October 17, 2026, 6:30 AM
+ *
+ */
+
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class runs many independent attacks to measure how the success rate
+ * and the running time of the attack depend on the number of pairs. Each run
+ * generates a key with generateKey, generates pairs for it with setKey and
+ * generateInputPairs, and recovers the key with determineKey. Besides whether
+ * the key was found, each run records the rank of the correct last round
+ * subkey among the 64 counted for every SBox of every characteristic, with
+ * rank 1 meaning no other subkey was counted more often.
+ *
+ * The seed of each run is drawn in order from a generator started with the
+ * seed of the simulation, and each run seeds both its key and its pairs from
+ * it. The results therefore depend only on the seed and the parameters, not on
+ * the number of threads, and can be compared across versions of the code.
+ *
+ * The results are written as a JSON document holding the success rate, the
+ * mean rank and the share of rank 1 for each counted SBox, and percentiles of
+ * the times taken to generate the pairs and to determine the key. Run it as
+ *
+ *   java AttackSimulation [runs=1000] [pairs=20000] [rounds=6] [seed=1]
+ *       [threads=1] [details=false] [output=file]
+ *
+ * where pairs defaults to the default number of pairs for the rounds and
+ * details adds the results of each run to the document.
+ *
+ * @author Kelly McLaughlin
+ */
+public class AttackSimulation {
+    //Key bits that are not parity bits
+    private static final long KEY_MASK = 0xfefefefefefefefeL;
+
+    private int runs;
+    private long numberOfTuples;
+    private int rounds;
+    private long seed;
+    private int threads;
+
+    /**
+     * This class holds the results of one attack.
+     */
+    private static class RunResult {
+        long seed;
+        long key;
+        long foundKey;
+        boolean success;
+        int[] numberOfPairs;
+        int[][] ranks;
+        long generateNanos;
+        long attackNanos;
+    }
+
+    /**
+     * Creates a new instance of AttackSimulation
+     *
+     * @param runs int value specifying the number of attacks to run
+     * @param numberOfTuples long value specifying the number of plaintext
+     * pairs to generate for each characteristic in each run
+     * @param rounds int value specifying the number of rounds to attack
+     * @param seed long value specifying the seed of the simulation
+     * @param threads int value specifying the number of attacks to run at once
+     */
+    public AttackSimulation(int runs, long numberOfTuples, int rounds, long seed, int threads)
+    {
+        if (runs < 1 || threads < 1)
+        {
+            throw new IllegalArgumentException("The number of runs and threads must be positive");
+        }
+        DesCryptanalysis.getDefaultCharacteristics(rounds);
+
+        this.runs = runs;
+        this.numberOfTuples = numberOfTuples;
+        this.rounds = rounds;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    /**
+     * This method runs all attacks and writes the results as JSON.
+     *
+     * @param out PrintWriter to write the results to
+     * @param details boolean value specifying whether to include the results
+     * of each run
+     */
+    public void run(PrintWriter out, boolean details) throws Exception
+    {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        RunResult[] results = new RunResult[runs];
+        ArrayList<Future<RunResult>> futures = new ArrayList<Future<RunResult>>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+
+        try
+        {
+            for (int i=0; i<runs; i++)
+            {
+                final long runSeed = seeds.nextLong();
+
+                futures.add(executor.submit(new Callable<RunResult>() {
+                    public RunResult call()
+                    {
+                        return runAttack(runSeed);
+                    }
+                }));
+            }
+
+            for (int i=0; i<runs; i++)
+            {
+                results[i] = futures.get(i).get();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        long elapsed = System.nanoTime() - start;
+
+        writeResults(out, results, elapsed, details);
+        out.flush();
+    }
+
+    /**
+     * This method runs one attack.
+     */
+    private RunResult runAttack(long runSeed)
+    {
+        RunResult result = new RunResult();
+        DesCryptanalysis dca = new DesCryptanalysis(rounds);
+        Characteristic[] characteristics = dca.getCharacteristics();
+
+        result.seed = runSeed;
+        dca.setSeed(runSeed);
+        result.key = dca.generateKey(runSeed);
+        dca.setKey(result.key);
+
+        long start = System.nanoTime();
+        ArrayList input = dca.generateInputPairs(numberOfTuples);
+        long generated = System.nanoTime();
+        result.foundKey = dca.determineKey(input);
+        long finished = System.nanoTime();
+
+        result.generateNanos = generated - start;
+        result.attackNanos = finished - generated;
+        result.success = (result.foundKey & KEY_MASK) == (result.key & KEY_MASK);
+
+        //Rank the subkeys of the correct last round key
+        long roundKey = new KeySchedule().getEncryptionRoundKeys(result.key, rounds)[rounds-1];
+        CharacteristicCounter counter = dca.getCharacteristicCounter();
+
+        result.numberOfPairs = new int[characteristics.length];
+        result.ranks = new int[characteristics.length][];
+        for (int c=0; c<characteristics.length; c++)
+        {
+            int[] sboxes = characteristics[c].getCountedSboxes();
+
+            result.numberOfPairs[c] = dca.getNumberOfPairs(c);
+            result.ranks[c] = new int[sboxes.length];
+            for (int s=0; s<sboxes.length; s++)
+            {
+                long[] counts = counter.getCounter(c).getCounts(s);
+                int correct = (int)(roundKey >>> (6*(8-sboxes[s]))) & 0x3f;
+                int rank = 1;
+
+                for (int j=0; j<64; j++)
+                {
+                    if (counts[j] > counts[correct])
+                    {
+                        rank++;
+                    }
+                }
+                result.ranks[c][s] = rank;
+            }
+        }
+
+        return result;
+    }
+
+    private void writeResults(PrintWriter out, RunResult[] results, long elapsed, boolean details)
+    {
+        Characteristic[] characteristics = DesCryptanalysis.getDefaultCharacteristics(rounds);
+        int successes = 0;
+        long[] generateNanos = new long[runs];
+        long[] attackNanos = new long[runs];
+
+        for (int i=0; i<runs; i++)
+        {
+            if (results[i].success)
+            {
+                successes++;
+            }
+            generateNanos[i] = results[i].generateNanos;
+            attackNanos[i] = results[i].attackNanos;
+        }
+
+        out.println("{");
+        out.println("  \"rounds\": " + rounds + ",");
+        out.println("  \"pairsPerCharacteristic\": " + numberOfTuples + ",");
+        out.println("  \"runs\": " + runs + ",");
+        out.println("  \"seed\": " + seed + ",");
+        out.println("  \"threads\": " + threads + ",");
+        out.println("  \"successes\": " + successes + ",");
+        out.println("  \"successRate\": " + format((double)successes / runs) + ",");
+        out.println("  \"elapsedSeconds\": " + format(elapsed / 1e9) + ",");
+        out.println("  \"runsPerSecond\": " + format(runs / (elapsed / 1e9)) + ",");
+        out.println("  \"generateMillis\": " + percentiles(generateNanos) + ",");
+        out.println("  \"attackMillis\": " + percentiles(attackNanos) + ",");
+        out.println("  \"characteristics\": [");
+        for (int c=0; c<characteristics.length; c++)
+        {
+            int[] sboxes = characteristics[c].getCountedSboxes();
+            long rightPairs = 0;
+
+            for (int i=0; i<runs; i++)
+            {
+                rightPairs += results[i].numberOfPairs[c];
+            }
+
+            out.println("    {");
+            out.println("      \"name\": \"" + characteristics[c].getName() + "\",");
+            out.println("      \"inputXor\": \"" + String.format("%016x", characteristics[c].getInputXor()) + "\",");
+            out.println("      \"meanPairs\": " + format((double)rightPairs / runs) + ",");
+            out.println("      \"sboxes\": [");
+            for (int s=0; s<sboxes.length; s++)
+            {
+                long rankSum = 0;
+                int first = 0;
+                int worst = 0;
+
+                for (int i=0; i<runs; i++)
+                {
+                    int rank = results[i].ranks[c][s];
+
+                    rankSum += rank;
+                    first += (rank == 1) ? 1 : 0;
+                    worst = Math.max(worst, rank);
+                }
+
+                out.println("        { \"sbox\": " + sboxes[s] + ", \"meanRank\": " + format((double)rankSum / runs) +
+                        ", \"rankOneRate\": " + format((double)first / runs) + ", \"worstRank\": " + worst + " }" +
+                        ((s < sboxes.length-1) ? "," : ""));
+            }
+            out.println("      ]");
+            out.println("    }" + ((c < characteristics.length-1) ? "," : ""));
+        }
+        out.print("  ]");
+
+        if (details)
+        {
+            out.println(",");
+            out.println("  \"results\": [");
+            for (int i=0; i<runs; i++)
+            {
+                RunResult result = results[i];
+                StringBuilder line = new StringBuilder();
+
+                line.append("    { \"seed\": ").append(result.seed);
+                line.append(", \"key\": \"").append(String.format("%016x", result.key));
+                line.append("\", \"foundKey\": \"").append(String.format("%016x", result.foundKey));
+                line.append("\", \"success\": ").append(result.success);
+                line.append(", \"pairs\": ").append(Arrays.toString(result.numberOfPairs));
+                line.append(", \"ranks\": ").append(Arrays.deepToString(result.ranks));
+                line.append(", \"generateMillis\": ").append(format(result.generateNanos / 1e6));
+                line.append(", \"attackMillis\": ").append(format(result.attackNanos / 1e6));
+                line.append(" }").append((i < runs-1) ? "," : "");
+                out.println(line);
+            }
+            out.print("  ]");
+        }
+
+        out.println();
+        out.println("}");
+    }
+
+    /**
+     * This method returns the 50th, 90th and 99th percentiles and the
+     * maximum of a set of times in nanoseconds as a JSON object in
+     * milliseconds.
+     */
+    private static String percentiles(long[] nanos)
+    {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+
+        return "{ \"p50\": " + format(percentile(sorted, 0.50) / 1e6) + ", \"p90\": " + format(percentile(sorted, 0.90) / 1e6) +
+                ", \"p99\": " + format(percentile(sorted, 0.99) / 1e6) + ", \"max\": " + format(sorted[sorted.length-1] / 1e6) + " }";
+    }
+
+    private static long percentile(long[] sorted, double fraction)
+    {
+        int index = (int)Math.ceil(fraction * sorted.length) - 1;
+
+        return sorted[Math.max(0, Math.min(sorted.length-1, index))];
+    }
+
+    private static String format(double value)
+    {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        int runs = 1000;
+        long numberOfTuples = -1;
+        int rounds = DesCryptanalysis.DEFAULT_NUMBER_OF_ROUNDS;
+        long seed = 1L;
+        int threads = 1;
+        boolean details = false;
+        String output = null;
+
+        for (int i=0; i<args.length; i++)
+        {
+            int split = args[i].indexOf('=');
+            String name = (split >= 0) ? args[i].substring(0, split) : args[i];
+            String value = (split >= 0) ? args[i].substring(split + 1) : "";
+
+            if (name.equals("runs"))
+            {
+                runs = Integer.parseInt(value);
+            }
+            else if (name.equals("pairs"))
+            {
+                numberOfTuples = Long.parseLong(value);
+            }
+            else if (name.equals("rounds"))
+            {
+                rounds = Integer.parseInt(value);
+            }
+            else if (name.equals("seed"))
+            {
+                seed = Long.parseLong(value);
+            }
+            else if (name.equals("threads"))
+            {
+                threads = Integer.parseInt(value);
+            }
+            else if (name.equals("details"))
+            {
+                details = Boolean.parseBoolean(value);
+            }
+            else if (name.equals("output"))
+            {
+                output = value;
+            }
+            else
+            {
+                System.err.println("Usage: java AttackSimulation [runs=1000] [pairs=n] [rounds=6] [seed=1] [threads=1] " +
+                        "[details=false] [output=file]");
+                System.exit(2);
+            }
+        }
+
+        if (numberOfTuples < 0)
+        {
+            numberOfTuples = DesCryptanalysis.getDefaultNumberOfTuples(rounds);
+        }
+
+        AttackSimulation simulation = new AttackSimulation(runs, numberOfTuples, rounds, seed, threads);
+
+        if (output == null)
+        {
+            simulation.run(new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)), details);
+        }
+        else
+        {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8)))
+            {
+                simulation.run(out, details);
+            }
+        }
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * BitslicedDES.java
+ *
+ * Created on October 16, 2026, 9:12 PM
+ *
+ */
+
+/**
+ * This class implements a bitsliced version of the DES encryption and
+ * decryption performed by the DES class. Up to 64 blocks are processed at once.
+ * The blocks are transposed so that slice i holds bit i of every block, with
+ * block b in bit b of each slice, and every round is then evaluated with
+ * logical operations on whole slices. The SBoxes are evaluated as straight line
+ * AND/XOR circuits generated from the SBox tables (see BitslicedSboxes), and
+ * the expansion, permutation and key schedule reduce to picking the right
+ * slices.
+ *
+ * Two batch modes are supported: many blocks under one key (pair generation)
+ * and one block under many keys (key trial). As with the DES class, the final
+ * blocks are not exchanged after the last round and no initial permutation is
+ * applied, so the results match DES.encrypt and DES.decrypt exactly.
+ *
+ * Like DES, this class commits no JFR events; callers cover their batches with
+ * a DesBatchEvent. An instance keeps scratch buffers and must not be shared
+ * between threads.
+ *
+ * @author Kelly McLaughlin
+ */
+public class BitslicedDES {
+    public static final int LANES = 64;
+
+    //For each bit of the 48 bit expanded value, the bit of the 32 bit input it
+    //is copied from.
+    private static final int[] E_SOURCE = new int[48];
+
+    //For each bit of the 32 bit SBox output, the bit of the f function output
+    //it is moved to by the permutation P.
+    private static final int[] P_TARGET = new int[32];
+
+    //For each round and each bit of the 48 bit round key, the bit of the 64 bit
+    //key it is taken from.
+    private static final int[][] ROUND_KEY_SOURCE = new int[16][48];
+
+    static
+    {
+        ExpansionPermutation ep = new ExpansionPermutation();
+
+        for (int s=0; s<32; s++)
+        {
+            long expanded = ep.E(1L << s);
+            for (int t=0; t<48; t++)
+            {
+                if ((expanded & (1L << t)) != 0)
+                {
+                    E_SOURCE[t] = s;
+                }
+            }
+
+            P_TARGET[s] = Integer.numberOfTrailingZeros(ep.P(1 << s));
+        }
+
+        for (int r=0; r<16; r++)
+        {
+            for (int t=0; t<48; t++)
+            {
+                ROUND_KEY_SOURCE[r][t] = KeySchedule.getRoundKeyBitSource(r, t);
+            }
+        }
+    }
+
+    private long[] slices;
+    private long[] keySlices;
+    private long[] inputs;
+
+    /** Creates a new instance of BitslicedDES */
+    public BitslicedDES() {
+        slices = new long[64];
+        keySlices = new long[64];
+        inputs = new long[48];
+    }
+
+    /**
+     * Encrypts a batch of plaintexts under a single key. The batch may be of
+     * any length and is processed 64 blocks at a time.
+     *
+     * @param plaintexts long array specifying the plaintexts to encrypt
+     * @param ciphertexts long array that receives the ciphertexts, which may be
+     * the same array as the plaintexts
+     * @param count int value specifying the number of blocks to encrypt
+     * @param key long value specifying the key to use to encrypt the plaintexts
+     * @param rounds int value specifying the number of rounds to use
+     */
+    public void encrypt(long[] plaintexts, long[] ciphertexts, int count, long key, int rounds)
+    {
+        crypt(plaintexts, ciphertexts, count, key, rounds, false);
+    }
+
+    /**
+     * Decrypts a batch of ciphertexts under a single key. The batch may be of
+     * any length and is processed 64 blocks at a time.
+     *
+     * @param ciphertexts long array specifying the ciphertexts to decrypt
+     * @param plaintexts long array that receives the plaintexts, which may be
+     * the same array as the ciphertexts
+     * @param count int value specifying the number of blocks to decrypt
+     * @param key long value specifying the key to use to decrypt the ciphertexts
+     * @param rounds int value specifying the number of rounds to use
+     */
+    public void decrypt(long[] ciphertexts, long[] plaintexts, int count, long key, int rounds)
+    {
+        crypt(ciphertexts, plaintexts, count, key, rounds, true);
+    }
+
+    /**
+     * Encrypts one plaintext under each key of a batch of keys. The batch may
+     * be of any length and is processed 64 keys at a time.
+     *
+     * @param plaintext long value specifying the plaintext to encrypt
+     * @param keys long array specifying the keys to try
+     * @param ciphertexts long array that receives the ciphertext for each key
+     * @param count int value specifying the number of keys
+     * @param rounds int value specifying the number of rounds to use
+     */
+    public void encryptUnderKeys(long plaintext, long[] keys, long[] ciphertexts, int count, int rounds)
+    {
+        cryptUnderKeys(plaintext, keys, ciphertexts, count, rounds, false);
+    }
+
+    /**
+     * Decrypts one ciphertext under each key of a batch of keys. The batch may
+     * be of any length and is processed 64 keys at a time.
+     *
+     * @param ciphertext long value specifying the ciphertext to decrypt
+     * @param keys long array specifying the keys to try
+     * @param plaintexts long array that receives the plaintext for each key
+     * @param count int value specifying the number of keys
+     * @param rounds int value specifying the number of rounds to use
+     */
+    public void decryptUnderKeys(long ciphertext, long[] keys, long[] plaintexts, int count, int rounds)
+    {
+        cryptUnderKeys(ciphertext, keys, plaintexts, count, rounds, true);
+    }
+
+    private void crypt(long[] input, long[] output, int count, long key, int rounds, boolean decrypt)
+    {
+        setKeySlices(key, keySlices);
+
+        for (int offset=0; offset<count; offset+=LANES)
+        {
+            int lanes = Math.min(LANES, count - offset);
+
+            System.arraycopy(input, offset, slices, 0, lanes);
+            for (int i=lanes; i<LANES; i++)
+            {
+                slices[i] = 0L;
+            }
+
+            transpose(slices);
+            cryptSlices(slices, keySlices, rounds, decrypt);
+            transpose(slices);
+
+            System.arraycopy(slices, 0, output, offset, lanes);
+        }
+    }
+
+    private void cryptUnderKeys(long block, long[] keys, long[] output, int count, int rounds, boolean decrypt)
+    {
+        for (int offset=0; offset<count; offset+=LANES)
+        {
+            int lanes = Math.min(LANES, count - offset);
+
+            System.arraycopy(keys, offset, keySlices, 0, lanes);
+            for (int i=lanes; i<LANES; i++)
+            {
+                keySlices[i] = 0L;
+            }
+            transpose(keySlices);
+            applyMsbKeyBits(keySlices);
+
+            for (int s=0; s<64; s++)
+            {
+                slices[s] = ((block >>> s) & 1L) == 0 ? 0L : -1L;
+            }
+
+            cryptSlices(slices, keySlices, rounds, decrypt);
+            transpose(slices);
+
+            System.arraycopy(slices, 0, output, offset, lanes);
+        }
+    }
+
+    /**
+     * Encrypts 64 bitsliced blocks in place. Slices 0-31 hold the right side
+     * of the blocks and slices 32-63 hold the left side.
+     *
+     * @param slices long array of 64 slices holding the blocks to encrypt
+     * @param keySlices long array of 64 key slices as built by setKeySlices
+     * or by transposing 64 keys and calling applyMsbKeyBits
+     * @param rounds int value specifying the number of rounds to use
+     */
+    public void encryptSlices(long[] slices, long[] keySlices, int rounds)
+    {
+        cryptSlices(slices, keySlices, rounds, false);
+    }
+
+    /**
+     * Decrypts 64 bitsliced blocks in place. See encryptSlices.
+     *
+     * @param slices long array of 64 slices holding the blocks to decrypt
+     * @param keySlices long array of 64 key slices
+     * @param rounds int value specifying the number of rounds to use
+     */
+    public void decryptSlices(long[] slices, long[] keySlices, int rounds)
+    {
+        cryptSlices(slices, keySlices, rounds, true);
+    }
+
+    private void cryptSlices(long[] slices, long[] keySlices, int rounds, boolean decrypt)
+    {
+        //The right side is held in slices 0-31 and the left side in slices
+        //32-63. Rather than moving slices around, the offsets of the two sides
+        //are exchanged after each round.
+        int rOffset = 0;
+        int lOffset = 32;
+
+        for (int i=0; i<rounds; i++)
+        {
+            int[] roundKeySource = ROUND_KEY_SOURCE[decrypt ? rounds-1-i : i];
+
+            for (int t=0; t<48; t++)
+            {
+                inputs[t] = slices[rOffset + E_SOURCE[t]] ^ keySlices[roundKeySource[t]];
+            }
+
+            //Each SBox XORs its outputs straight into the left side, through
+            //the permutation P. The right side is only read, so for every
+            //round but the last the result becomes the new right side.
+            long[] in = inputs;
+            int[] p = P_TARGET;
+            int l = lOffset;
+            BitslicedSboxes.s1(in[42], in[43], in[44], in[45], in[46], in[47],
+                    slices, l + p[28], l + p[29], l + p[30], l + p[31]);
+            BitslicedSboxes.s2(in[36], in[37], in[38], in[39], in[40], in[41],
+                    slices, l + p[24], l + p[25], l + p[26], l + p[27]);
+            BitslicedSboxes.s3(in[30], in[31], in[32], in[33], in[34], in[35],
+                    slices, l + p[20], l + p[21], l + p[22], l + p[23]);
+            BitslicedSboxes.s4(in[24], in[25], in[26], in[27], in[28], in[29],
+                    slices, l + p[16], l + p[17], l + p[18], l + p[19]);
+            BitslicedSboxes.s5(in[18], in[19], in[20], in[21], in[22], in[23],
+                    slices, l + p[12], l + p[13], l + p[14], l + p[15]);
+            BitslicedSboxes.s6(in[12], in[13], in[14], in[15], in[16], in[17],
+                    slices, l + p[8], l + p[9], l + p[10], l + p[11]);
+            BitslicedSboxes.s7(in[6], in[7], in[8], in[9], in[10], in[11],
+                    slices, l + p[4], l + p[5], l + p[6], l + p[7]);
+            BitslicedSboxes.s8(in[0], in[1], in[2], in[3], in[4], in[5],
+                    slices, l + p[0], l + p[1], l + p[2], l + p[3]);
+
+            if (i != rounds-1)
+            {
+                int tmp = lOffset;
+                lOffset = rOffset;
+                rOffset = tmp;
+            }
+        }
+
+        //Put the sides back in place if they ended up exchanged
+        if (rOffset != 0)
+        {
+            for (int s=0; s<32; s++)
+            {
+                long tmp = slices[s];
+                slices[s] = slices[32 + s];
+                slices[32 + s] = tmp;
+            }
+        }
+    }
+
+    /**
+     * Fills in the key slices for the case where every lane uses the same key.
+     *
+     * @param key long value specifying the key
+     * @param keySlices long array that receives the 64 key slices
+     */
+    public static void setKeySlices(long key, long[] keySlices)
+    {
+        for (int s=0; s<64; s++)
+        {
+            keySlices[s] = ((key >>> s) & 1L) == 0 ? 0L : -1L;
+        }
+        applyMsbKeyBits(keySlices);
+    }
+
+    /**
+     * Reproduces the handling of the most significant key bit by KeySchedule
+     * on a set of transposed keys. In every lane whose key has the most
+     * significant bit set, key bits 7, 15, ..., 55 (counting from the least
+     * significant bit) are forced to one, which is what the sign extension in
+     * KeySchedule.getC0Val amounts to.
+     *
+     * @param keySlices long array of 64 key slices to adjust in place
+     */
+    public static void applyMsbKeyBits(long[] keySlices)
+    {
+        for (int s=7; s<63; s+=8)
+        {
+            keySlices[s] |= keySlices[63];
+        }
+    }
+
+    /**
+     * Transposes a 64x64 bit matrix in place, so that bit s of element b
+     * becomes bit b of element s. This converts 64 blocks to 64 slices and
+     * back.
+     *
+     * @param a long array of 64 elements to transpose
+     */
+    public static void transpose(long[] a)
+    {
+        long mask = 0x00000000ffffffffL;
+
+        for (int j=32; j!=0; j>>=1, mask^=(mask << j))
+        {
+            for (int k=0; k<64; k=((k | j) + 1) & ~j)
+            {
+                long t = ((a[k] >>> j) ^ a[k | j]) & mask;
+                a[k | j] ^= t;
+                a[k] ^= t << j;
+            }
+        }
+    }
+}
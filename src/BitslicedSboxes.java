@@ -0,0 +1,753 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * BitslicedSboxes.java
+ *
+ * Generated by BitslicedSboxGenerator. Do not edit.
+ *
+ */
+
+/**
+ * This class holds the bitsliced SBoxes used by BitslicedDES as straight
+ * line AND/XOR circuits. Method sk evaluates SBox k on the six input slices,
+ * where xi holds bit i of the SBox input, and XORs output bit j into slice oj
+ * of b.
+ *
+ * @author Kelly McLaughlin
+ */
+final class BitslicedSboxes {
+
+    //87 gates
+    static void s1(long x0, long x1, long x2, long x3, long x4, long x5,
+            long[] b, int o0, int o1, int o2, int o3)
+    {
+        long t6 = x0 & x4;
+        long t9 = x3 & x4;
+        long t10 = x0 & t9;
+        long t17 = t6 ^ t10;
+        long t7 = x2 & x4;
+        long t8 = x0 & t7;
+        long t36 = x2 ^ x4;
+        long t37 = t8 ^ t36;
+        long t38 = t17 ^ t37;
+        long t14 = x2 & t9;
+        long t15 = x0 & t14;
+        long t12 = x2 & x3;
+        long t22 = t12 ^ t14;
+        long t25 = t15 ^ t22;
+        long t11 = x0 & x2;
+        long t13 = x0 & t12;
+        long t20 = x2 ^ t13;
+        long t31 = t11 ^ t20;
+        long t35 = t25 ^ t31;
+        long t19 = x0 ^ x3;
+        long t41 = t9 ^ t19;
+        long t42 = t35 ^ t41;
+        long t69 = x5 & t42;
+        long t70 = t38 ^ t69;
+        long t24 = x4 ^ t19;
+        long t39 = t7 ^ t10;
+        long t40 = t24 ^ t39;
+        long t18 = ~t7;
+        long t23 = t17 ^ t18;
+        long t32 = t12 ^ t23;
+        long t43 = t20 ^ t24;
+        long t44 = t32 ^ t43;
+        long t71 = x5 & t44;
+        long t72 = t40 ^ t71;
+        long t73 = x1 & t72;
+        long t74 = t70 ^ t73;
+        b[o0] ^= t74;
+        long t34 = t23 ^ t25;
+        long t16 = x0 & x3;
+        long t27 = t16 ^ t20;
+        long t21 = t8 ^ t9;
+        long t29 = x0 ^ t21;
+        long t45 = t27 ^ t29;
+        long t46 = t34 ^ t45;
+        long t26 = x4 ^ t21;
+        long t50 = t26 ^ t34;
+        long t75 = x5 & t50;
+        long t76 = t46 ^ t75;
+        long t28 = ~t11;
+        long t47 = x2 ^ x3;
+        long t48 = t26 ^ t47;
+        long t49 = t28 ^ t48;
+        long t33 = t13 ^ t23;
+        long t51 = t29 ^ t33;
+        long t77 = x5 & t51;
+        long t78 = t49 ^ t77;
+        long t79 = x1 & t78;
+        long t80 = t76 ^ t79;
+        b[o1] ^= t80;
+        long t52 = t8 ^ t11;
+        long t53 = t24 ^ t52;
+        long t54 = t33 ^ t53;
+        long t30 = t9 ^ t24;
+        long t57 = t17 ^ t25;
+        long t58 = t30 ^ t57;
+        long t81 = x5 & t58;
+        long t82 = t54 ^ t81;
+        long t55 = t7 ^ t19;
+        long t56 = t27 ^ t55;
+        long t59 = ~t10;
+        long t60 = t26 ^ t59;
+        long t61 = t27 ^ t60;
+        long t83 = x5 & t61;
+        long t84 = t56 ^ t83;
+        long t85 = x1 & t84;
+        long t86 = t82 ^ t85;
+        b[o2] ^= t86;
+        long t62 = ~t13;
+        long t63 = t22 ^ t62;
+        long t64 = t30 ^ t63;
+        long t66 = t18 ^ t21;
+        long t67 = t35 ^ t66;
+        long t87 = x5 & t67;
+        long t88 = t64 ^ t87;
+        long t65 = t12 ^ t28;
+        long t68 = x3 ^ t32;
+        long t89 = x5 & t68;
+        long t90 = t65 ^ t89;
+        long t91 = x1 & t90;
+        long t92 = t88 ^ t91;
+        b[o3] ^= t92;
+    }
+
+    //77 gates
+    static void s2(long x0, long x1, long x2, long x3, long x4, long x5,
+            long[] b, int o0, int o1, int o2, int o3)
+    {
+        long t10 = x4 & x5;
+        long t11 = x1 & t10;
+        long t6 = x0 & x4;
+        long t12 = x0 & t11;
+        long t19 = t6 ^ t12;
+        long t28 = t11 ^ t19;
+        long t17 = ~x5;
+        long t7 = x0 & x5;
+        long t8 = x1 & x5;
+        long t9 = x0 & t8;
+        long t30 = t7 ^ t9;
+        long t31 = t10 ^ t30;
+        long t32 = t17 ^ t31;
+        long t33 = t28 ^ t32;
+        long t14 = x1 & x4;
+        long t15 = x0 & t14;
+        long t16 = x0 & t10;
+        long t20 = t9 ^ t16;
+        long t24 = t15 ^ t20;
+        long t29 = t14 ^ t24;
+        long t18 = x1 ^ t17;
+        long t21 = x0 ^ t18;
+        long t26 = t7 ^ t21;
+        long t27 = t8 ^ t12;
+        long t35 = t26 ^ t27;
+        long t36 = t29 ^ t35;
+        long t63 = x3 & t36;
+        long t64 = t33 ^ t63;
+        long t13 = x0 & x1;
+        long t25 = ~t13;
+        long t34 = t25 ^ t29;
+        long t65 = x2 & t34;
+        long t66 = t64 ^ t65;
+        b[o0] ^= t66;
+        long t22 = x4 ^ t11;
+        long t37 = t10 ^ t18;
+        long t38 = t22 ^ t37;
+        long t39 = t24 ^ t38;
+        long t23 = t8 ^ t10;
+        long t44 = x1 ^ x5;
+        long t45 = t23 ^ t44;
+        long t46 = t28 ^ t45;
+        long t67 = x3 & t46;
+        long t68 = t39 ^ t67;
+        long t40 = ~t15;
+        long t41 = t16 ^ t40;
+        long t42 = t19 ^ t41;
+        long t43 = t23 ^ t42;
+        long t47 = t23 ^ t26;
+        long t69 = x3 & t47;
+        long t70 = t43 ^ t69;
+        long t71 = x2 & t70;
+        long t72 = t68 ^ t71;
+        b[o1] ^= t72;
+        long t48 = x4 ^ t21;
+        long t51 = x0 ^ t12;
+        long t52 = t22 ^ t51;
+        long t73 = x3 & t52;
+        long t74 = t48 ^ t73;
+        long t49 = t19 ^ t22;
+        long t50 = t25 ^ t49;
+        long t75 = x3 & t13;
+        long t76 = t50 ^ t75;
+        long t77 = x2 & t76;
+        long t78 = t74 ^ t77;
+        b[o2] ^= t78;
+        long t53 = t19 ^ t20;
+        long t54 = t21 ^ t53;
+        long t59 = ~x4;
+        long t60 = t6 ^ t59;
+        long t61 = t10 ^ t60;
+        long t62 = t20 ^ t61;
+        long t79 = x3 & t62;
+        long t80 = t54 ^ t79;
+        long t55 = x1 ^ t14;
+        long t56 = t9 ^ t55;
+        long t57 = t22 ^ t56;
+        long t58 = t27 ^ t57;
+        long t81 = x2 & t58;
+        long t82 = t80 ^ t81;
+        b[o3] ^= t82;
+    }
+
+    //82 gates
+    static void s3(long x0, long x1, long x2, long x3, long x4, long x5,
+            long[] b, int o0, int o1, int o2, int o3)
+    {
+        long t6 = x1 & x2;
+        long t21 = x0 ^ t6;
+        long t25 = x4 ^ t21;
+        long t34 = x2 ^ t25;
+        long t8 = x0 & x4;
+        long t9 = x1 & x4;
+        long t10 = x0 & t9;
+        long t18 = t9 ^ t10;
+        long t22 = t8 ^ t18;
+        long t26 = t21 ^ t22;
+        long t7 = x0 & x2;
+        long t19 = ~x4;
+        long t23 = x1 ^ t19;
+        long t35 = t7 ^ t23;
+        long t36 = t26 ^ t35;
+        long t64 = x5 & t36;
+        long t65 = t34 ^ t64;
+        long t11 = x2 & x4;
+        long t12 = x0 & t11;
+        long t37 = t8 ^ t9;
+        long t38 = t12 ^ t37;
+        long t39 = t23 ^ t38;
+        long t66 = x5 & t39;
+        long t67 = x1 ^ t66;
+        long t68 = x3 & t67;
+        long t69 = t65 ^ t68;
+        b[o0] ^= t69;
+        long t13 = x0 & t6;
+        long t17 = t11 ^ t13;
+        long t20 = t7 ^ t17;
+        long t24 = x2 ^ t20;
+        long t14 = x1 & t11;
+        long t40 = x0 ^ t14;
+        long t41 = t18 ^ t40;
+        long t42 = t23 ^ t41;
+        long t43 = t24 ^ t42;
+        long t29 = t12 ^ t26;
+        long t16 = x0 & t14;
+        long t46 = ~t16;
+        long t47 = t24 ^ t46;
+        long t48 = t29 ^ t47;
+        long t70 = x5 & t48;
+        long t71 = t43 ^ t70;
+        long t33 = t24 ^ t25;
+        long t15 = x0 & x1;
+        long t27 = x1 ^ t12;
+        long t31 = t15 ^ t27;
+        long t44 = t8 ^ t31;
+        long t45 = t33 ^ t44;
+        long t49 = t20 ^ t31;
+        long t72 = x5 & t49;
+        long t73 = t45 ^ t72;
+        long t74 = x3 & t73;
+        long t75 = t71 ^ t74;
+        b[o1] ^= t75;
+        long t50 = t20 ^ t29;
+        long t32 = t17 ^ t22;
+        long t53 = t19 ^ t32;
+        long t76 = x5 & t53;
+        long t77 = t50 ^ t76;
+        long t51 = t11 ^ t22;
+        long t52 = t23 ^ t51;
+        long t54 = x4 ^ t32;
+        long t78 = x5 & t54;
+        long t79 = t52 ^ t78;
+        long t80 = x3 & t79;
+        long t81 = t77 ^ t80;
+        b[o2] ^= t81;
+        long t30 = t14 ^ t16;
+        long t55 = t6 ^ t20;
+        long t56 = t23 ^ t55;
+        long t57 = t30 ^ t56;
+        long t61 = t30 ^ t33;
+        long t82 = x5 & t61;
+        long t83 = t57 ^ t82;
+        long t28 = x2 ^ t17;
+        long t58 = ~x1;
+        long t59 = t18 ^ t58;
+        long t60 = t28 ^ t59;
+        long t62 = t15 ^ t19;
+        long t63 = t28 ^ t62;
+        long t84 = x5 & t63;
+        long t85 = t60 ^ t84;
+        long t86 = x3 & t85;
+        long t87 = t83 ^ t86;
+        b[o3] ^= t87;
+    }
+
+    //76 gates
+    static void s4(long x0, long x1, long x2, long x3, long x4, long x5,
+            long[] b, int o0, int o1, int o2, int o3)
+    {
+        long t6 = x1 & x2;
+        long t19 = ~t6;
+        long t10 = x4 & x5;
+        long t8 = x2 & x4;
+        long t9 = x1 & t8;
+        long t18 = x2 ^ t9;
+        long t7 = x1 & x4;
+        long t11 = x1 & t10;
+        long t22 = t7 ^ t11;
+        long t24 = t18 ^ t22;
+        long t12 = x2 & t10;
+        long t13 = x1 & t12;
+        long t21 = x5 ^ t12;
+        long t27 = t13 ^ t21;
+        long t28 = t24 ^ t27;
+        long t33 = t10 ^ t28;
+        long t45 = t19 ^ t33;
+        long t14 = x1 & x5;
+        long t17 = x4 ^ t13;
+        long t23 = t14 ^ t17;
+        long t46 = t6 ^ t23;
+        long t47 = t24 ^ t46;
+        long t52 = t45 ^ t47;
+        long t53 = x3 & t52;
+        long t54 = t45 ^ t53;
+        long t15 = x2 & x5;
+        long t16 = x1 & t15;
+        long t25 = t19 ^ t23;
+        long t36 = t16 ^ t25;
+        long t20 = x1 ^ t15;
+        long t26 = t10 ^ t20;
+        long t34 = t11 ^ t12;
+        long t41 = t26 ^ t34;
+        long t44 = t36 ^ t41;
+        long t32 = t8 ^ t17;
+        long t40 = t26 ^ t32;
+        long t55 = t40 ^ t44;
+        long t56 = x3 & t55;
+        long t57 = t44 ^ t56;
+        long t58 = t54 ^ t57;
+        long t59 = x0 & t58;
+        long t60 = t54 ^ t59;
+        b[o0] ^= t60;
+        long t48 = t6 ^ t33;
+        long t49 = t24 ^ t25;
+        long t61 = t48 ^ t49;
+        long t62 = x3 & t61;
+        long t63 = t48 ^ t62;
+        long t64 = t57 ^ t63;
+        long t65 = x0 & t64;
+        long t66 = t57 ^ t65;
+        b[o1] ^= t66;
+        long t39 = t21 ^ t25;
+        long t31 = t6 ^ t8;
+        long t29 = x1 ^ x5;
+        long t35 = t13 ^ t29;
+        long t43 = t31 ^ t35;
+        long t67 = t39 ^ t43;
+        long t68 = x3 & t67;
+        long t69 = t39 ^ t68;
+        long t38 = t20 ^ t28;
+        long t50 = ~t38;
+        long t30 = x5 ^ t16;
+        long t37 = t17 ^ t18;
+        long t42 = t30 ^ t37;
+        long t51 = ~t42;
+        long t70 = t50 ^ t51;
+        long t71 = x3 & t70;
+        long t72 = t50 ^ t71;
+        long t73 = t69 ^ t72;
+        long t74 = x0 & t73;
+        long t75 = t69 ^ t74;
+        b[o2] ^= t75;
+        long t76 = t38 ^ t42;
+        long t77 = x3 & t76;
+        long t78 = t38 ^ t77;
+        long t79 = t69 ^ t78;
+        long t80 = x0 & t79;
+        long t81 = t78 ^ t80;
+        b[o3] ^= t81;
+    }
+
+    //89 gates
+    static void s5(long x0, long x1, long x2, long x3, long x4, long x5,
+            long[] b, int o0, int o1, int o2, int o3)
+    {
+        long t11 = x3 & x5;
+        long t13 = x2 & t11;
+        long t14 = x0 & t13;
+        long t12 = x0 & t11;
+        long t20 = t11 ^ t12;
+        long t34 = t14 ^ t20;
+        long t6 = x0 & x3;
+        long t7 = x2 & x3;
+        long t8 = x0 & t7;
+        long t32 = t6 ^ t8;
+        long t9 = x0 & x5;
+        long t10 = x2 & x5;
+        long t17 = t9 ^ t10;
+        long t36 = x3 ^ t17;
+        long t37 = t32 ^ t36;
+        long t38 = t34 ^ t37;
+        long t15 = x0 & x2;
+        long t25 = t15 ^ t20;
+        long t31 = x5 ^ t25;
+        long t30 = x0 ^ x2;
+        long t42 = t13 ^ t17;
+        long t43 = t30 ^ t42;
+        long t44 = t31 ^ t43;
+        long t73 = x4 & t44;
+        long t74 = t38 ^ t73;
+        long t19 = t8 ^ t13;
+        long t23 = t7 ^ t19;
+        long t24 = t14 ^ t23;
+        long t22 = x0 ^ x3;
+        long t18 = x2 ^ t6;
+        long t39 = t10 ^ t18;
+        long t40 = t22 ^ t39;
+        long t41 = t24 ^ t40;
+        long t28 = x5 ^ t22;
+        long t21 = ~t17;
+        long t45 = t21 ^ t25;
+        long t46 = t28 ^ t45;
+        long t75 = x4 & t46;
+        long t76 = t41 ^ t75;
+        long t77 = x1 & t76;
+        long t78 = t74 ^ t77;
+        b[o0] ^= t78;
+        long t29 = t21 ^ t24;
+        long t47 = t18 ^ t29;
+        long t48 = t31 ^ t47;
+        long t33 = t11 ^ t29;
+        long t51 = t15 ^ t33;
+        long t79 = x4 & t51;
+        long t80 = t48 ^ t79;
+        long t49 = x2 ^ t22;
+        long t50 = t33 ^ t49;
+        long t16 = x0 & t10;
+        long t26 = t16 ^ t18;
+        long t27 = ~t12;
+        long t35 = t26 ^ t27;
+        long t52 = t28 ^ t35;
+        long t81 = x4 & t52;
+        long t82 = t50 ^ t81;
+        long t83 = x1 & t82;
+        long t84 = t80 ^ t83;
+        b[o1] ^= t84;
+        long t53 = t8 ^ t18;
+        long t54 = t28 ^ t53;
+        long t58 = t9 ^ t19;
+        long t59 = t26 ^ t58;
+        long t60 = t34 ^ t59;
+        long t85 = x4 & t60;
+        long t86 = t54 ^ t85;
+        long t55 = t6 ^ t16;
+        long t56 = t19 ^ t55;
+        long t57 = t21 ^ t56;
+        long t87 = x1 & t57;
+        long t88 = t86 ^ t87;
+        b[o2] ^= t88;
+        long t61 = x0 ^ t7;
+        long t62 = t16 ^ t61;
+        long t63 = t25 ^ t62;
+        long t64 = t32 ^ t63;
+        long t69 = t10 ^ t15;
+        long t70 = t13 ^ t69;
+        long t71 = t35 ^ t70;
+        long t89 = x4 & t71;
+        long t90 = t64 ^ t89;
+        long t65 = x5 ^ t9;
+        long t66 = t23 ^ t65;
+        long t67 = t27 ^ t66;
+        long t68 = t30 ^ t67;
+        long t72 = t17 ^ t26;
+        long t91 = x4 & t72;
+        long t92 = t68 ^ t91;
+        long t93 = x1 & t92;
+        long t94 = t90 ^ t93;
+        b[o3] ^= t94;
+    }
+
+    //77 gates
+    static void s6(long x0, long x1, long x2, long x3, long x4, long x5,
+            long[] b, int o0, int o1, int o2, int o3)
+    {
+        long t8 = x2 & x4;
+        long t9 = x3 & x4;
+        long t10 = x2 & t9;
+        long t27 = t8 ^ t10;
+        long t25 = x1 ^ t9;
+        long t6 = x2 & x3;
+        long t7 = x1 & t6;
+        long t18 = t6 ^ t7;
+        long t30 = x3 ^ t18;
+        long t31 = t25 ^ t30;
+        long t32 = t27 ^ t31;
+        long t13 = x1 & x3;
+        long t11 = x1 & x2;
+        long t16 = ~t11;
+        long t24 = t16 ^ t18;
+        long t34 = t13 ^ t24;
+        long t59 = x5 & t34;
+        long t60 = t32 ^ t59;
+        long t12 = x1 & t8;
+        long t22 = t10 ^ t11;
+        long t28 = t18 ^ t22;
+        long t33 = t12 ^ t28;
+        long t26 = x4 ^ t8;
+        long t20 = t9 ^ t12;
+        long t35 = t20 ^ t24;
+        long t36 = t26 ^ t35;
+        long t61 = x5 & t36;
+        long t62 = t33 ^ t61;
+        long t63 = x0 & t62;
+        long t64 = t60 ^ t63;
+        b[o0] ^= t64;
+        long t14 = x1 & t9;
+        long t37 = x2 ^ t13;
+        long t38 = t14 ^ t37;
+        long t39 = t20 ^ t38;
+        long t17 = x3 ^ t13;
+        long t19 = x1 ^ t17;
+        long t41 = x4 ^ t19;
+        long t42 = t20 ^ t41;
+        long t65 = x5 & t42;
+        long t66 = t39 ^ t65;
+        long t15 = x1 & x4;
+        long t40 = t15 ^ t16;
+        long t23 = t14 ^ t16;
+        long t43 = t12 ^ t17;
+        long t44 = t23 ^ t43;
+        long t67 = x5 & t44;
+        long t68 = t40 ^ t67;
+        long t69 = x0 & t68;
+        long t70 = t66 ^ t69;
+        b[o1] ^= t70;
+        long t21 = x2 ^ t19;
+        long t45 = ~t7;
+        long t46 = t21 ^ t45;
+        long t47 = t26 ^ t46;
+        long t29 = t20 ^ t23;
+        long t49 = x3 ^ t7;
+        long t50 = t29 ^ t49;
+        long t71 = x5 & t50;
+        long t72 = t47 ^ t71;
+        long t48 = ~t12;
+        long t51 = t9 ^ t14;
+        long t52 = t17 ^ t51;
+        long t53 = t22 ^ t52;
+        long t73 = x5 & t53;
+        long t74 = t48 ^ t73;
+        long t75 = x0 & t74;
+        long t76 = t72 ^ t75;
+        b[o2] ^= t76;
+        long t54 = x4 ^ t24;
+        long t55 = t25 ^ t54;
+        long t77 = x5 & t19;
+        long t78 = t55 ^ t77;
+        long t56 = t21 ^ t28;
+        long t57 = t21 ^ t27;
+        long t58 = t29 ^ t57;
+        long t79 = x5 & t58;
+        long t80 = t56 ^ t79;
+        long t81 = x0 & t80;
+        long t82 = t78 ^ t81;
+        b[o3] ^= t82;
+    }
+
+    //75 gates
+    static void s7(long x0, long x1, long x2, long x3, long x4, long x5,
+            long[] b, int o0, int o1, int o2, int o3)
+    {
+        long t7 = x2 & x3;
+        long t6 = x1 & x2;
+        long t20 = x3 ^ t6;
+        long t27 = t7 ^ t20;
+        long t9 = x3 & x4;
+        long t16 = x1 ^ t9;
+        long t8 = x1 & t7;
+        long t26 = x4 ^ t8;
+        long t30 = t16 ^ t26;
+        long t31 = t27 ^ t30;
+        long t58 = x5 ^ t31;
+        long t10 = x2 & x4;
+        long t11 = x1 & t10;
+        long t21 = t10 ^ t11;
+        long t24 = ~t21;
+        long t12 = x1 & x4;
+        long t32 = x2 ^ t6;
+        long t33 = t7 ^ t32;
+        long t34 = t8 ^ t33;
+        long t35 = t12 ^ t34;
+        long t36 = t10 ^ t35;
+        long t37 = t9 ^ t36;
+        long t59 = x5 & t37;
+        long t60 = t24 ^ t59;
+        long t61 = x0 & t60;
+        long t62 = t58 ^ t61;
+        b[o0] ^= t62;
+        long t25 = x1 ^ t11;
+        long t19 = x2 ^ x4;
+        long t38 = t19 ^ t20;
+        long t39 = t25 ^ t38;
+        long t14 = x1 & x3;
+        long t15 = x1 & t9;
+        long t22 = t14 ^ t15;
+        long t23 = t16 ^ t22;
+        long t29 = t21 ^ t23;
+        long t42 = x3 ^ t29;
+        long t63 = x5 & t42;
+        long t64 = t39 ^ t63;
+        long t13 = x2 & t9;
+        long t17 = t8 ^ t13;
+        long t40 = t17 ^ t25;
+        long t41 = t27 ^ t40;
+        long t18 = ~t17;
+        long t43 = t7 ^ t18;
+        long t44 = t23 ^ t43;
+        long t65 = x5 & t44;
+        long t66 = t41 ^ t65;
+        long t67 = x0 & t66;
+        long t68 = t64 ^ t67;
+        b[o1] ^= t68;
+        long t28 = t10 ^ t16;
+        long t45 = ~t19;
+        long t46 = t28 ^ t45;
+        long t48 = x3 ^ t18;
+        long t49 = t19 ^ t48;
+        long t69 = x5 & t49;
+        long t70 = t46 ^ t69;
+        long t47 = t11 ^ t26;
+        long t50 = t9 ^ t24;
+        long t71 = x5 & t50;
+        long t72 = t47 ^ t71;
+        long t73 = x0 & t72;
+        long t74 = t70 ^ t73;
+        b[o2] ^= t74;
+        long t51 = x3 ^ t17;
+        long t52 = t28 ^ t51;
+        long t54 = t17 ^ t19;
+        long t55 = t29 ^ t54;
+        long t75 = x5 & t55;
+        long t76 = t52 ^ t75;
+        long t53 = t9 ^ t18;
+        long t56 = t16 ^ t18;
+        long t57 = t20 ^ t56;
+        long t77 = x5 & t57;
+        long t78 = t53 ^ t77;
+        long t79 = x0 & t78;
+        long t80 = t76 ^ t79;
+        b[o3] ^= t80;
+    }
+
+    //81 gates
+    static void s8(long x0, long x1, long x2, long x3, long x4, long x5,
+            long[] b, int o0, int o1, int o2, int o3)
+    {
+        long t7 = x4 & x5;
+        long t8 = x2 & t7;
+        long t19 = x2 ^ t8;
+        long t9 = x3 & t7;
+        long t6 = x3 & x5;
+        long t17 = ~t6;
+        long t20 = t9 ^ t17;
+        long t23 = t19 ^ t20;
+        long t27 = x4 ^ t23;
+        long t33 = x3 ^ t27;
+        long t14 = x2 & x4;
+        long t22 = x5 ^ t14;
+        long t37 = t22 ^ t23;
+        long t63 = x1 & t37;
+        long t64 = t33 ^ t63;
+        long t10 = x2 & x3;
+        long t12 = x2 & t6;
+        long t13 = x2 & t9;
+        long t21 = t12 ^ t13;
+        long t25 = t10 ^ t21;
+        long t11 = x3 & x4;
+        long t34 = x5 ^ t11;
+        long t35 = t19 ^ t34;
+        long t36 = t25 ^ t35;
+        long t24 = x3 ^ t7;
+        long t31 = t20 ^ t24;
+        long t15 = x2 & x5;
+        long t18 = x4 ^ t15;
+        long t38 = t10 ^ t18;
+        long t39 = t31 ^ t38;
+        long t65 = x1 & t39;
+        long t66 = t36 ^ t65;
+        long t67 = x0 & t66;
+        long t68 = t64 ^ t67;
+        b[o0] ^= t68;
+        long t28 = x5 ^ t18;
+        long t40 = x3 ^ t28;
+        long t42 = x2 ^ x5;
+        long t43 = t15 ^ t42;
+        long t44 = t31 ^ t43;
+        long t69 = x1 & t44;
+        long t70 = t40 ^ t69;
+        long t16 = x2 & t11;
+        long t26 = t14 ^ t18;
+        long t29 = t11 ^ t26;
+        long t41 = t16 ^ t29;
+        long t45 = t8 ^ t9;
+        long t46 = t18 ^ t45;
+        long t47 = t22 ^ t46;
+        long t71 = x1 & t47;
+        long t72 = t41 ^ t71;
+        long t73 = x0 & t72;
+        long t74 = t70 ^ t73;
+        b[o1] ^= t74;
+        long t48 = t21 ^ t23;
+        long t49 = t29 ^ t48;
+        long t52 = x4 ^ t14;
+        long t53 = t8 ^ t52;
+        long t54 = t17 ^ t53;
+        long t55 = t24 ^ t54;
+        long t75 = x1 & t55;
+        long t76 = t49 ^ t75;
+        long t50 = ~t15;
+        long t51 = t21 ^ t50;
+        long t56 = x5 ^ t6;
+        long t77 = x1 & t56;
+        long t78 = t51 ^ t77;
+        long t79 = x0 & t78;
+        long t80 = t76 ^ t79;
+        b[o2] ^= t80;
+        long t30 = t16 ^ t22;
+        long t32 = t25 ^ t30;
+        long t57 = ~x3;
+        long t58 = t32 ^ t57;
+        long t60 = t17 ^ t26;
+        long t81 = x1 & t60;
+        long t82 = t58 ^ t81;
+        long t59 = t27 ^ t32;
+        long t61 = t9 ^ t19;
+        long t62 = t28 ^ t61;
+        long t83 = x1 & t62;
+        long t84 = t59 ^ t83;
+        long t85 = x0 & t84;
+        long t86 = t82 ^ t85;
+        b[o3] ^= t86;
+    }
+}
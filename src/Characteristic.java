@@ -0,0 +1,275 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * Characteristic.java
+ *
+ * Created on October 17, 2026, 3:10 AM
+ *
+ */
+
+/**
+ * This class describes a differential characteristic of the DES rounds. A
+ * characteristic is given by the XOR of the two plaintexts of a pair and the
+ * XOR of the f function outputs expected in each of its rounds. Everything
+ * else the attack needs is derived from these: the input XOR of the f
+ * function in each round, the SBoxes it activates, the probability that a
+ * pair follows the characteristic and the XOR of the halves after its last
+ * round.
+ *
+ * A characteristic of m rounds is used to attack m+3 rounds. For a right
+ * pair, the left half XOR of the ciphertexts is the left half XOR after round
+ * m (the expected XOR) together with the f function output XORs of round m+1
+ * and the last round. The SBoxes that have an input XOR of zero in round m+1
+ * have an output XOR of zero there, so their output XOR in the last round is
+ * known and their subkeys of the last round key can be counted.
+ *
+ * Instances are immutable.
+ *
+ * @author Kelly McLaughlin
+ */
+public class Characteristic {
+
+    private String name;
+    private long inputXor;
+    private int[] fInputXors;
+    private int[] fOutputXors;
+    private double probability;
+    private long outputXor;
+    private int[] countedSboxes;
+
+    /**
+     * Creates a new instance of Characteristic
+     *
+     * @param name String naming the characteristic
+     * @param inputXor long value specifying the XOR of the plaintexts of a
+     * pair, with the left half in the upper 32 bits
+     * @param fOutputXors int array specifying the XOR of the f function
+     * outputs in each round of the characteristic
+     * @throws IllegalArgumentException if an SBox can never produce the output
+     * XOR required in some round
+     */
+    public Characteristic(String name, long inputXor, int[] fOutputXors)
+    {
+        ExpansionPermutation ep = new ExpansionPermutation();
+        int rounds = fOutputXors.length;
+        int left = (int)(inputXor >>> 32);
+        int right = (int)inputXor;
+
+        this.name = name;
+        this.inputXor = inputXor;
+        this.fOutputXors = fOutputXors.clone();
+        fInputXors = new int[rounds];
+        probability = 1.0;
+
+        for (int i=0; i<rounds; i++)
+        {
+            int sboxOutputXor = ep.InverseP(fOutputXors[i]);
+
+            fInputXors[i] = right;
+            for (int k=1; k<=8; k++)
+            {
+                int count = DifferenceTables.getDifferenceCount(k, getSboxInputXor(right, k), (sboxOutputXor >>> (32 - 4*k)) & 0xf);
+
+                if (count == 0)
+                {
+                    throw new IllegalArgumentException("SBox " + k + " cannot produce the output XOR of round " + (i+1) + " of " + name);
+                }
+                probability *= count / 64.0;
+            }
+
+            int next = left ^ fOutputXors[i];
+            left = right;
+            right = next;
+        }
+
+        outputXor = (((long)left) << 32) | (right & 0xffffffffL);
+
+        //The SBoxes that stay inactive in the round after the characteristic
+        int counted = 0;
+        for (int k=1; k<=8; k++)
+        {
+            if (getSboxInputXor(right, k) == 0)
+            {
+                counted++;
+            }
+        }
+        countedSboxes = new int[counted];
+        counted = 0;
+        for (int k=1; k<=8; k++)
+        {
+            if (getSboxInputXor(right, k) == 0)
+            {
+                countedSboxes[counted++] = k;
+            }
+        }
+    }
+
+    /**
+     * This method returns the 6 bit input XOR of SBox k for an f function
+     * input XOR, as selected by the expansion E.
+     *
+     * @param fInputXor int value specifying the 32 bit f function input XOR
+     * @param sboxIndex int value specifying the SBox, from 1-8
+     */
+    public static int getSboxInputXor(int fInputXor, int sboxIndex)
+    {
+        return Integer.rotateRight(fInputXor, 31 - 4*sboxIndex) & 0x3f;
+    }
+
+    /**
+     * Getter for the name of the characteristic
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Getter for the XOR of the plaintexts of a pair
+     */
+    public long getInputXor()
+    {
+        return inputXor;
+    }
+
+    /**
+     * This method returns the number of rounds the characteristic covers.
+     */
+    public int getRounds()
+    {
+        return fOutputXors.length;
+    }
+
+    /**
+     * This method returns the number of encryption rounds the characteristic
+     * is used to attack, which is three more than it covers.
+     */
+    public int getAttackRounds()
+    {
+        return fOutputXors.length + 3;
+    }
+
+    /**
+     * This method returns the XOR of the f function inputs in a round.
+     *
+     * @param round int value specifying the round, counting from 0
+     */
+    public int getFInputXor(int round)
+    {
+        return fInputXors[round];
+    }
+
+    /**
+     * This method returns the XOR of the f function outputs in a round.
+     *
+     * @param round int value specifying the round, counting from 0
+     */
+    public int getFOutputXor(int round)
+    {
+        return fOutputXors[round];
+    }
+
+    /**
+     * This method returns the probability that a pair with the input XOR
+     * follows the characteristic through all of its rounds.
+     */
+    public double getProbability()
+    {
+        return probability;
+    }
+
+    /**
+     * This method returns the XOR of the halves after the last round of the
+     * characteristic, with the left half in the upper 32 bits.
+     */
+    public long getOutputXor()
+    {
+        return outputXor;
+    }
+
+    /**
+     * This method returns the left half XOR after the last round of the
+     * characteristic. For a right pair, the left half XOR of the ciphertexts
+     * equals this value except at the outputs of the SBoxes that are active in
+     * the following round and in the last round.
+     */
+    public int getExpectedXor()
+    {
+        return (int)(outputXor >>> 32);
+    }
+
+    /**
+     * This method returns the SBoxes, numbered from 1, whose last round
+     * subkeys can be counted with this characteristic.
+     */
+    public int[] getCountedSboxes()
+    {
+        return countedSboxes.clone();
+    }
+
+    /**
+     * This method returns true if the f function output XORs of a pair match
+     * the characteristic in every round.
+     *
+     * @param fOutputs1 int array holding the f function outputs of the
+     * encryption of the first plaintext
+     * @param fOutputs2 int array holding the f function outputs of the
+     * encryption of the second plaintext
+     */
+    public boolean isRightPair(int[] fOutputs1, int[] fOutputs2)
+    {
+        for (int i=0; i<fOutputXors.length; i++)
+        {
+            if ((fOutputs1[i] ^ fOutputs2[i]) != fOutputXors[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * This method returns a new KeyCounter for the subkeys suggested by pairs
+     * for this characteristic.
+     */
+    public KeyCounter createKeyCounter()
+    {
+        return new KeyCounter(getExpectedXor(), countedSboxes);
+    }
+
+    /**
+     * This method returns a new PairFilter that discards pairs for this
+     * characteristic that cannot be right pairs, judging by the ciphertexts.
+     */
+    public PairFilter createPairFilter()
+    {
+        return new PairFilter(getExpectedXor(), countedSboxes);
+    }
+
+    public String toString()
+    {
+        StringBuilder retval = new StringBuilder();
+
+        retval.append(name).append(": input XOR 0x").append(String.format("%016x", inputXor));
+        retval.append(", ").append(fOutputXors.length).append(" rounds, probability 2^");
+        retval.append(String.format("%.2f", Math.log(probability) / Math.log(2)));
+        retval.append(", SBoxes");
+        for (int k : countedSboxes)
+        {
+            retval.append(' ').append(k);
+        }
+
+        return retval.toString();
+    }
+}
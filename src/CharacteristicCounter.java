@@ -0,0 +1,329 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * CharacteristicCounter.java
+ *
+ * Created on October 17, 2026, 3:45 AM
+ *
+ */
+
+/**
+ * This class counts the last round subkeys suggested by pairs for any number
+ * of characteristics in a single pass. Each pair is assigned to the
+ * characteristic whose input XOR equals the XOR of its plaintexts and counted
+ * by that characteristic's KeyCounter, so pairs for all characteristics can be
+ * mixed in one PairStore. Pairs that match no characteristic are ignored.
+ *
+ * When several characteristics count the same SBox, the subkey is taken from
+ * the one whose best subkey leads the second best by the most.
+ *
+ * If setFiltered is on, a pair is only counted if it passes the PairFilter of
+ * its characteristic, so unscreened pairs from an encryption oracle can be
+ * counted without drowning the right pairs in wrong ones.
+ *
+ * @author Kelly McLaughlin
+ */
+public class CharacteristicCounter {
+    //Number of pairs of one characteristic gathered from a PairStore before
+    //they are handed to its KeyCounter as one batch
+    private static final int BATCH_SIZE = 4096;
+
+    private Characteristic[] characteristics;
+    private long[] inputXors;
+    private KeyCounter[] counters;
+    private PairFilter[] filters;
+
+    /**
+     * Creates a new instance of CharacteristicCounter
+     *
+     * @param characteristics Characteristic array specifying the
+     * characteristics to count pairs for
+     */
+    public CharacteristicCounter(Characteristic[] characteristics)
+    {
+        this.characteristics = characteristics.clone();
+        inputXors = new long[characteristics.length];
+        counters = new KeyCounter[characteristics.length];
+
+        for (int c=0; c<characteristics.length; c++)
+        {
+            inputXors[c] = characteristics[c].getInputXor();
+            counters[c] = characteristics[c].createKeyCounter();
+        }
+    }
+
+    /**
+     * This method selects whether pairs are screened with the PairFilter of
+     * their characteristic before they are counted.
+     *
+     * @param filtered boolean value specifying whether to count only the
+     * pairs that pass the filters
+     */
+    public void setFiltered(boolean filtered)
+    {
+        if (filtered)
+        {
+            filters = new PairFilter[characteristics.length];
+            for (int c=0; c<characteristics.length; c++)
+            {
+                filters[c] = characteristics[c].createPairFilter();
+            }
+        }
+        else
+        {
+            filters = null;
+        }
+    }
+
+    /**
+     * This method returns true if pairs are screened before they are counted.
+     */
+    public boolean isFiltered()
+    {
+        return filters != null;
+    }
+
+    /**
+     * This method returns the index of the characteristic with the given
+     * input XOR, or -1 if there is none.
+     *
+     * @param inputXor long value specifying the XOR of the plaintexts
+     */
+    public int indexOf(long inputXor)
+    {
+        for (int c=0; c<inputXors.length; c++)
+        {
+            if (inputXors[c] == inputXor)
+            {
+                return c;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * This method returns the number of characteristics.
+     */
+    public int getNumberOfCharacteristics()
+    {
+        return characteristics.length;
+    }
+
+    /**
+     * This method returns one of the characteristics.
+     *
+     * @param index int value specifying the characteristic
+     */
+    public Characteristic getCharacteristic(int index)
+    {
+        return characteristics[index];
+    }
+
+    /**
+     * This method returns the KeyCounter of one of the characteristics.
+     *
+     * @param index int value specifying the characteristic
+     */
+    public KeyCounter getCounter(int index)
+    {
+        return counters[index];
+    }
+
+    /**
+     * This method counts the subkeys suggested by one pair.
+     *
+     * @param x1 long value specifying the first plaintext value
+     * @param x2 long value specifying the second plaintext value
+     * @param y1 long value specifying the ciphertext value of x1
+     * @param y2 long value specifying the ciphertext value of x2
+     */
+    public void add(long x1, long x2, long y1, long y2)
+    {
+        int c = indexOf(x1 ^ x2);
+
+        if (c >= 0 && (filters == null || filters[c].accept(y1, y2)))
+        {
+            counters[c].add(y1, y2);
+        }
+    }
+
+    /**
+     * This method counts the subkeys suggested by all pairs of a PairStore in
+     * one pass, whichever characteristic each pair belongs to. The ciphertexts
+     * of each characteristic are gathered into batches that are counted with
+     * KeyCounter.addAll, so the VectorCountingKernel is used if it is enabled.
+     *
+     * @param pairs PairStore holding the pairs
+     */
+    public void addAll(PairStore pairs)
+    {
+        long[][] y1Batches = new long[counters.length][BATCH_SIZE];
+        long[][] y2Batches = new long[counters.length][BATCH_SIZE];
+        int[] batchLengths = new int[counters.length];
+        long[] countedPairs = new long[counters.length];
+        KeyCountingEvent[] events = new KeyCountingEvent[counters.length];
+
+        for (int c=0; c<counters.length; c++)
+        {
+            events[c] = new KeyCountingEvent();
+            events[c].begin();
+        }
+
+        for (int chunk=0; chunk<pairs.getNumberOfChunks(); chunk++)
+        {
+            int length = pairs.getChunkLength(chunk);
+            long[] x1 = pairs.getX1Chunk(chunk);
+            long[] x2 = pairs.getX2Chunk(chunk);
+            long[] y1 = pairs.getY1Chunk(chunk);
+            long[] y2 = pairs.getY2Chunk(chunk);
+
+            for (int i=0; i<length; i++)
+            {
+                int c = indexOf(x1[i] ^ x2[i]);
+
+                if (c >= 0 && (filters == null || filters[c].accept(y1[i], y2[i])))
+                {
+                    y1Batches[c][batchLengths[c]] = y1[i];
+                    y2Batches[c][batchLengths[c]] = y2[i];
+                    countedPairs[c]++;
+
+                    if (++batchLengths[c] == BATCH_SIZE)
+                    {
+                        counters[c].addAll(y1Batches[c], y2Batches[c], BATCH_SIZE);
+                        batchLengths[c] = 0;
+                    }
+                }
+            }
+        }
+
+        for (int c=0; c<counters.length; c++)
+        {
+            if (batchLengths[c] > 0)
+            {
+                counters[c].addAll(y1Batches[c], y2Batches[c], batchLengths[c]);
+            }
+            commitEvent(events[c], c, countedPairs[c]);
+        }
+    }
+
+    /**
+     * This method counts the subkeys suggested by all pairs of a pair file.
+     * All pairs of the file belong to the characteristic named in its header.
+     *
+     * @param reader PairFileReader for the file holding the pairs
+     * @return false if the file is for none of the characteristics
+     */
+    public boolean addAll(PairFileReader reader)
+    {
+        int c = indexOf(reader.getCharacteristic());
+
+        if (c < 0)
+        {
+            return false;
+        }
+
+        KeyCountingEvent event = new KeyCountingEvent();
+
+        long countedBefore = counters[c].getPairCount();
+
+        event.begin();
+        counters[c].addAll(reader, (filters != null) ? filters[c] : null);
+        commitEvent(event, c, counters[c].getPairCount() - countedBefore);
+
+        return true;
+    }
+
+    private void commitEvent(KeyCountingEvent event, int c, long pairs)
+    {
+        if (event.shouldCommit())
+        {
+            event.characteristic = characteristics[c].getName();
+            event.pairs = pairs;
+            event.countedSboxes = characteristics[c].getCountedSboxes().length;
+            event.keySpaceSize = 1L << (6 * event.countedSboxes);
+            event.commit();
+        }
+    }
+
+    /**
+     * This method returns the best subkey for each of the eight SBoxes, or -1
+     * for an SBox that no characteristic counts. For an SBox counted by more
+     * than one characteristic, the characteristic whose best count leads its
+     * second best count by the most decides.
+     */
+    public int[] getBestSubkeys()
+    {
+        int[] retval = new int[8];
+
+        findBestSubkeys(retval, new long[8]);
+
+        return retval;
+    }
+
+    /**
+     * This method returns for each of the eight SBoxes how far the count of
+     * the subkey returned by getBestSubkeys leads the second best count of the
+     * characteristic that decided it, or -1 for an SBox that no characteristic
+     * counts.
+     */
+    public long[] getBestSubkeyMargins()
+    {
+        long[] retval = new long[8];
+
+        findBestSubkeys(new int[8], retval);
+
+        return retval;
+    }
+
+    private void findBestSubkeys(int[] subkeys, long[] bestMargin)
+    {
+        for (int k=0; k<8; k++)
+        {
+            subkeys[k] = -1;
+            bestMargin[k] = -1;
+        }
+
+        for (int c=0; c<counters.length; c++)
+        {
+            int[] sboxes = counters[c].getSboxes();
+
+            for (int s=0; s<sboxes.length; s++)
+            {
+                long[] counts = counters[c].getCounts(s);
+                int best = 0;
+                long second = -1;
+
+                for (int j=1; j<64; j++)
+                {
+                    if (counts[j] > counts[best])
+                    {
+                        second = counts[best];
+                        best = j;
+                    }
+                    else if (counts[j] > second)
+                    {
+                        second = counts[j];
+                    }
+                }
+
+                long margin = counts[best] - second;
+                if (margin > bestMargin[sboxes[s]-1])
+                {
+                    bestMargin[sboxes[s]-1] = margin;
+                    subkeys[sboxes[s]-1] = best;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,538 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * CharacteristicSearch.java
+ *
+ * Created on October 17, 2026, 4:20 AM
+ *
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class searches for the most probable differential characteristics of a
+ * given number of rounds with the branch and bound algorithm of Matsui. The
+ * probability of a characteristic is the product of the difference
+ * distribution table entries of its active SBoxes, so the search works with
+ * weights, the negated base 2 logarithms of the probabilities, which add up
+ * over SBoxes and rounds.
+ *
+ * The input XORs of the f function in the first two rounds are free and are
+ * built SBox by SBox from the most to the least likely SBox differences,
+ * keeping the two bits that neighbouring SBoxes share through the expansion E
+ * consistent. Every later round has its input XOR fixed by the two rounds
+ * before it, and only the output XORs of its active SBoxes are chosen. A
+ * branch is cut as soon as its weight plus the best weight of the rounds still
+ * to come exceeds the bound, which starts as an estimate just above the best
+ * weight of one round less and falls to the weight of each better
+ * characteristic found. The best weights for fewer rounds are found first, so
+ * the search for n rounds relies on those for 1 to n-1 rounds. If no
+ * characteristic is found within the estimate, the estimate is raised and the
+ * search repeated.
+ *
+ * A one round characteristic with probability 1 exists for every left half
+ * XOR, as a zero right half XOR gives a zero f function output XOR, so the
+ * search starts at two rounds. The search can be restricted to iterative
+ * characteristics, which end with the XOR they start with and can be
+ * concatenated with themselves, and to characteristics that leave at least a
+ * given number of SBoxes inactive in the round after them, whose last round
+ * subkeys can then be counted. The work is split across a ForkJoin pool by
+ * the first SBox of the first round.
+ *
+ * @author Kelly McLaughlin
+ */
+public class CharacteristicSearch {
+    private static final double EPSILON = 1e-9;
+
+    //Amount the bound is raised by when a search finds nothing
+    private static final double ESTIMATE_STEP = 1.0;
+
+    //-log2(count/64) for each difference distribution table count
+    private static final double[] COUNT_WEIGHTS = new double[65];
+
+    //The permutation P as the XOR of one lookup per byte of the input, with
+    //the entry at (n*256 + b) holding P of b placed in byte n
+    private static final int[] P_TABLE = new int[4*256];
+
+    //Entry (k-1)*4 + h lists the entries of getSortedDifferences(k) whose
+    //input XOR has h as its two highest bits
+    private static final int[][] DIFFERENCES_BY_HIGH_BITS = new int[8*4][];
+
+    static
+    {
+        ExpansionPermutation ep = new ExpansionPermutation();
+
+        for (int c=1; c<=64; c++)
+        {
+            COUNT_WEIGHTS[c] = 6.0 - Math.log(c) / Math.log(2);
+        }
+
+        for (int n=0; n<4; n++)
+        {
+            for (int b=0; b<256; b++)
+            {
+                P_TABLE[n*256 + b] = ep.P(b << (24 - 8*n));
+            }
+        }
+
+        for (int k=1; k<=8; k++)
+        {
+            int[] differences = DifferenceTables.getSortedDifferences(k);
+
+            for (int h=0; h<4; h++)
+            {
+                int count = 0;
+                for (int d : differences)
+                {
+                    if ((d >>> 8) == h)
+                    {
+                        count++;
+                    }
+                }
+
+                int[] list = new int[count];
+                count = 0;
+                for (int d : differences)
+                {
+                    if ((d >>> 8) == h)
+                    {
+                        list[count++] = d;
+                    }
+                }
+                DIFFERENCES_BY_HIGH_BITS[(k-1)*4 + h] = list;
+            }
+        }
+    }
+
+    private ForkJoinPool pool;
+    private double maximumWeight;
+    private ArrayList<Double> bestWeights;
+
+    /**
+     * Creates a new instance of CharacteristicSearch that runs on the common
+     * ForkJoin pool.
+     */
+    public CharacteristicSearch()
+    {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new instance of CharacteristicSearch that runs on the given
+     * ForkJoin pool.
+     *
+     * @param pool ForkJoinPool to run the search on
+     */
+    public CharacteristicSearch(ForkJoinPool pool)
+    {
+        this.pool = pool;
+        maximumWeight = 56.0;
+        bestWeights = new ArrayList<Double>();
+
+        //No rounds, and one round with a zero right half XOR
+        bestWeights.add(0.0);
+        bestWeights.add(0.0);
+    }
+
+    /**
+     * This method sets the largest weight a search raises its bound to before
+     * giving up. The default of 56 stops at characteristics that need more
+     * pairs than an exhaustive search needs keys.
+     *
+     * @param maximumWeight double value specifying the largest weight
+     */
+    public void setMaximumWeight(double maximumWeight)
+    {
+        this.maximumWeight = maximumWeight;
+    }
+
+    /**
+     * This method returns the weight, -log2 of the probability, of the most
+     * probable characteristic of the given number of rounds, searching for it
+     * if it is not known yet.
+     *
+     * @param rounds int value specifying the number of rounds
+     */
+    public double getBestWeight(int rounds)
+    {
+        if (rounds >= bestWeights.size())
+        {
+            findBest(rounds);
+        }
+
+        return bestWeights.get(rounds);
+    }
+
+    /**
+     * This method returns the most probable characteristic of the given
+     * number of rounds.
+     *
+     * @param rounds int value specifying the number of rounds, at least 2
+     */
+    public Characteristic findBest(int rounds)
+    {
+        return findBest(rounds, false, 0);
+    }
+
+    /**
+     * This method returns the most probable iterative characteristic of the
+     * given number of rounds, or null if there is none within the maximum
+     * weight.
+     *
+     * @param rounds int value specifying the number of rounds, at least 2
+     */
+    public Characteristic findBestIterative(int rounds)
+    {
+        return findBest(rounds, true, 0);
+    }
+
+    /**
+     * This method returns the most probable characteristic of the given
+     * number of rounds that meets the restrictions, or null if there is none
+     * within the maximum weight.
+     *
+     * @param rounds int value specifying the number of rounds, at least 2
+     * @param iterative boolean value specifying whether the characteristic
+     * must end with the XOR it starts with
+     * @param minimumCountedSboxes int value specifying the number of SBoxes
+     * that must be inactive in the round after the characteristic
+     */
+    public Characteristic findBest(int rounds, boolean iterative, int minimumCountedSboxes)
+    {
+        if (rounds < 2)
+        {
+            throw new IllegalArgumentException("The search needs at least 2 rounds, got " + rounds);
+        }
+
+        //The bounds need the best weights of all shorter characteristics
+        for (int r=bestWeights.size(); r<rounds; r++)
+        {
+            findBest(r);
+        }
+
+        double estimate = bestWeights.get(rounds-1);
+        Search search;
+
+        do
+        {
+            estimate = Math.min(estimate + ESTIMATE_STEP, maximumWeight);
+            search = new Search(rounds, iterative, minimumCountedSboxes, estimate);
+            search.run();
+        } while (search.bestFOutputXors == null && estimate < maximumWeight);
+
+        if (search.bestFOutputXors == null)
+        {
+            return null;
+        }
+
+        if (!iterative && minimumCountedSboxes == 0 && rounds == bestWeights.size())
+        {
+            bestWeights.add(search.bestWeight);
+        }
+
+        String name = (iterative ? "Iterative " : "") + rounds + " round characteristic";
+
+        return new Characteristic(name, search.bestInputXor, search.bestFOutputXors);
+    }
+
+    /**
+     * This method applies the permutation P to the SBox outputs.
+     */
+    private static int permute(int sboxOutput)
+    {
+        return P_TABLE[sboxOutput >>> 24] ^ P_TABLE[256 | ((sboxOutput >>> 16) & 0xff)] ^
+                P_TABLE[512 | ((sboxOutput >>> 8) & 0xff)] ^ P_TABLE[768 | (sboxOutput & 0xff)];
+    }
+
+    /**
+     * One search for the best characteristic within a bound. The bound is
+     * shared by all tasks and lowered whenever a better characteristic is
+     * found.
+     */
+    private class Search {
+        private int rounds;
+        private boolean iterative;
+        private int minimumCountedSboxes;
+        private double[] remainingWeights;
+        private AtomicLong bound;
+        private double bestWeight;
+        private long bestInputXor;
+        private int[] bestFOutputXors;
+
+        Search(int rounds, boolean iterative, int minimumCountedSboxes, double estimate)
+        {
+            this.rounds = rounds;
+            this.iterative = iterative;
+            this.minimumCountedSboxes = minimumCountedSboxes;
+            bound = new AtomicLong(Double.doubleToLongBits(estimate));
+
+            //remainingWeights[i] is the least weight of the rounds after
+            //round i
+            remainingWeights = new double[rounds];
+            for (int i=0; i<rounds; i++)
+            {
+                remainingWeights[i] = bestWeights.get(rounds-1-i);
+            }
+        }
+
+        void run()
+        {
+            List<SearchTask> tasks = new ArrayList<SearchTask>();
+
+            //Split by the input and output XOR of SBox 1 in the first round
+            tasks.add(new SearchTask(0, 0, 0.0));
+            for (int h=0; h<4; h++)
+            {
+                for (int d : DIFFERENCES_BY_HIGH_BITS[h])
+                {
+                    double weight = COUNT_WEIGHTS[DifferenceTables.getDifferenceCount(1, d >>> 4, d & 0xf)];
+
+                    if (weight <= getBound() - remainingWeights[0] + EPSILON)
+                    {
+                        tasks.add(new SearchTask(d >>> 4, d & 0xf, weight));
+                    }
+                }
+            }
+
+            pool.invoke(new RecursiveAction() {
+                protected void compute()
+                {
+                    invokeAll(tasks);
+                }
+            });
+        }
+
+        double getBound()
+        {
+            return Double.longBitsToDouble(bound.get());
+        }
+
+        synchronized void found(double weight, long inputXor, int[] fOutputXors)
+        {
+            if (bestFOutputXors == null || weight < bestWeight - EPSILON)
+            {
+                bestWeight = weight;
+                bestInputXor = inputXor;
+                bestFOutputXors = fOutputXors.clone();
+                bound.set(Double.doubleToLongBits(weight));
+            }
+        }
+
+        private class SearchTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private int firstInputXor;
+            private int firstOutputXor;
+            private double firstWeight;
+            private int[] fInputXors;
+            private int[] fOutputXors;
+            private int[][] activeSboxes;
+            private int[][] activeInputXors;
+            private double[][] activeWeights;
+            private int[] activeCount;
+
+            SearchTask(int firstInputXor, int firstOutputXor, double firstWeight)
+            {
+                this.firstInputXor = firstInputXor;
+                this.firstOutputXor = firstOutputXor;
+                this.firstWeight = firstWeight;
+            }
+
+            protected void compute()
+            {
+                fInputXors = new int[rounds];
+                fOutputXors = new int[rounds];
+                activeSboxes = new int[rounds][8];
+                activeInputXors = new int[rounds][8];
+                activeWeights = new double[rounds][9];
+                activeCount = new int[rounds];
+
+                chooseFree(0, 2, firstInputXor, firstInputXor, ((firstInputXor >>> 1) & 0xf) << 28, firstOutputXor << 28, firstWeight);
+            }
+
+            /**
+             * This method chooses the input and output XOR of SBox k in one
+             * of the first two rounds, whose input XOR is free.
+             */
+            private void chooseFree(int round, int k, int firstInputXor, int previousInputXor, int input, int sboxOutput, double weight)
+            {
+                if (k > 8)
+                {
+                    finishFree(round, input, sboxOutput, weight);
+                    return;
+                }
+
+                int high = previousInputXor & 3;
+                int shift = 32 - 4*k;
+                double limit = getBound() - remainingWeights[round] + EPSILON;
+
+                //An inactive SBox, possible if the shared bits are zero
+                if ((k == 1 || high == 0) && (k < 8 || (firstInputXor >>> 4) == 0))
+                {
+                    chooseFree(round, k+1, firstInputXor, 0, input, sboxOutput, weight);
+                }
+
+                //SBox 1 has no SBox before it to agree with
+                for (int h=(k == 1) ? 0 : high; h<=((k == 1) ? 3 : high); h++)
+                {
+                    for (int d : DIFFERENCES_BY_HIGH_BITS[(k-1)*4 + h])
+                    {
+                        int inputXor = d >>> 4;
+                        double nextWeight = weight + COUNT_WEIGHTS[DifferenceTables.getDifferenceCount(k, inputXor, d & 0xf)];
+
+                        if (nextWeight > limit)
+                        {
+                            break;
+                        }
+
+                        if (k == 8 && (inputXor & 3) != (firstInputXor >>> 4))
+                        {
+                            continue;
+                        }
+
+                        chooseFree(round, k+1, (k == 1) ? inputXor : firstInputXor, inputXor, input | (((inputXor >>> 1) & 0xf) << shift),
+                                sboxOutput | ((d & 0xf) << shift), nextWeight);
+                        limit = getBound() - remainingWeights[round] + EPSILON;
+                    }
+                }
+            }
+
+            private void finishFree(int round, int input, int sboxOutput, double weight)
+            {
+                fInputXors[round] = input;
+                fOutputXors[round] = permute(sboxOutput);
+
+                if (round == 0)
+                {
+                    chooseFree(1, 1, 0, 0, 0, 0, weight);
+                }
+                else if (fInputXors[0] != 0 || input != 0)
+                {
+                    nextRound(2, weight);
+                }
+            }
+
+            /**
+             * This method continues with round i, whose f function input XOR
+             * is fixed by the two rounds before it.
+             */
+            private void nextRound(int round, double weight)
+            {
+                if (round == rounds)
+                {
+                    finish(weight);
+                    return;
+                }
+
+                int input = fInputXors[round-2] ^ fOutputXors[round-1];
+                int count = 0;
+
+                fInputXors[round] = input;
+                for (int k=1; k<=8; k++)
+                {
+                    int inputXor = Characteristic.getSboxInputXor(input, k);
+
+                    if (inputXor != 0)
+                    {
+                        activeSboxes[round][count] = k;
+                        activeInputXors[round][count++] = inputXor;
+                    }
+                }
+                activeCount[round] = count;
+
+                //activeWeights[round][j] is the least weight of the active
+                //SBoxes from j on
+                activeWeights[round][count] = 0.0;
+                for (int j=count-1; j>=0; j--)
+                {
+                    activeWeights[round][j] = activeWeights[round][j+1] +
+                            COUNT_WEIGHTS[DifferenceTables.getMaxDifferenceCount(activeSboxes[round][j], activeInputXors[round][j])];
+                }
+
+                if (weight + activeWeights[round][0] + remainingWeights[round] <= getBound() + EPSILON)
+                {
+                    chooseFixed(round, 0, 0, weight);
+                }
+            }
+
+            /**
+             * This method chooses the output XOR of the jth active SBox in a
+             * round whose input XOR is fixed.
+             */
+            private void chooseFixed(int round, int j, int sboxOutput, double weight)
+            {
+                if (j == activeCount[round])
+                {
+                    fOutputXors[round] = permute(sboxOutput);
+                    nextRound(round+1, weight);
+                    return;
+                }
+
+                int k = activeSboxes[round][j];
+                int inputXor = activeInputXors[round][j];
+
+                for (int outputXor : DifferenceTables.getSortedOutputXors(k, inputXor))
+                {
+                    double nextWeight = weight + COUNT_WEIGHTS[DifferenceTables.getDifferenceCount(k, inputXor, outputXor)];
+
+                    if (nextWeight + activeWeights[round][j+1] + remainingWeights[round] > getBound() + EPSILON)
+                    {
+                        break;
+                    }
+
+                    chooseFixed(round, j+1, sboxOutput | (outputXor << (32 - 4*k)), nextWeight);
+                }
+            }
+
+            /**
+             * This method checks the restrictions on a complete
+             * characteristic and reports it.
+             */
+            private void finish(double weight)
+            {
+                int left = fInputXors[1] ^ fOutputXors[0];
+                int right = fInputXors[0];
+                int lastLeft = fInputXors[rounds-1];
+                int lastRight = fInputXors[rounds-2] ^ fOutputXors[rounds-1];
+
+                if (iterative && (lastLeft != left || lastRight != right))
+                {
+                    return;
+                }
+
+                if (minimumCountedSboxes > 0)
+                {
+                    int counted = 0;
+                    for (int k=1; k<=8; k++)
+                    {
+                        if (Characteristic.getSboxInputXor(lastRight, k) == 0)
+                        {
+                            counted++;
+                        }
+                    }
+
+                    if (counted < minimumCountedSboxes)
+                    {
+                        return;
+                    }
+                }
+
+                found(weight, (((long)left) << 32) | (right & 0xffffffffL), fOutputXors);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * CountingKernel.java
+ *
+ * Created on October 17, 2026, 5:05 AM
+ *
+ */
+
+/**
+ * This interface is implemented by the optional kernels KeyCounter can hand
+ * its batches of pairs to instead of counting them one pair at a time. A
+ * kernel must count exactly the subkeys KeyCounter.count would.
+ *
+ * @author Kelly McLaughlin
+ */
+interface CountingKernel {
+
+    /**
+     * This method counts the subkeys suggested by the first count pairs of two
+     * arrays of ciphertexts into a counter array holding 64 counters for each
+     * counted SBox.
+     *
+     * @param expectedXor int value specifying the left half XOR of the
+     * ciphertexts expected for a right pair, ignoring the last round
+     * @param sboxes int array specifying the SBoxes, numbered from 1, whose
+     * subkeys are counted
+     * @param y1 long array specifying the ciphertexts of the first plaintexts
+     * @param y2 long array specifying the ciphertexts of the second plaintexts
+     * @param count int value specifying the number of pairs
+     * @param counter long array receiving the counts
+     */
+    void count(int expectedXor, int[] sboxes, long[] y1, long[] y2, int count, long[] counter);
+}
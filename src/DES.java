@@ -25,24 +25,46 @@
  * @author Kelly McLaughlin
  */
 public class DES {
-    private SBox sbox;
+    //Combined SBox and permutation tables. The entry at ((k-1)*64 + x) holds
+    //the output of SBox k for the input x, placed at its position in the 32
+    //bit SBox output and put through the permutation P. The f function is then
+    //the OR of eight lookups.
+    private static final int[] SP_TABLE = new int[8*64];
+
+    static
+    {
+        ExpansionPermutation ep = new ExpansionPermutation();
+
+        for (int k=1; k<=8; k++)
+        {
+            for (int x=0; x<64; x++)
+            {
+                SP_TABLE[(k-1)*64 + x] = ep.P(SBox.getSboxValue(x, k) << (32 - 4*k));
+            }
+        }
+    }
+
     private ExpansionPermutation expansionPermutation;
     private KeySchedule keySchedule;
     private int firstRoundFOutput;
     private int thirdRoundFOutput;
     private int fourthRoundFOutput;
-    private int sboxOut;
+    private int[] fOutputs;
+    private ExpandedKey lastKey;
 
     /** Creates a new instance of DES */
     public DES() {
-        sbox = new SBox();
         expansionPermutation = new ExpansionPermutation();
         keySchedule = new KeySchedule();
+        fOutputs = new int[16];
     }
 
     /**
      ** Performs DES encryption to encrypt the specified plaintext using the
-     * specified key and the given number of decryption rounds.
+     * specified key and the given number of decryption rounds. The f function
+     * outputs of the first, third and fourth rounds are kept for the getter
+     * methods below, so an instance used this way must not be shared between
+     * threads.
      *
      * @param plaintext long value specifying the plaintext to encrypt
      * @param key long value specifying the key to use to encrypt the plaintext
@@ -50,13 +72,64 @@ public class DES {
      */
     public long encrypt(long plaintext, long key, int rounds)
     {
-        int lVal, rVal, prevLVal, prevRVal;
-        long expandedVal, sboxInput, ciphertext;
-        int sboxOutput;
+        long ciphertext = encrypt(plaintext, getExpandedKey(key), rounds, fOutputs);
 
+        //This block of if statements is just for the cryptanalysis
+        //computations. It has no functional impact on the encryption.
+        if (rounds > 0)
+        {
+            firstRoundFOutput = fOutputs[0];
+        }
+        if (rounds > 2)
+        {
+            thirdRoundFOutput = fOutputs[2];
+        }
+        if (rounds > 3)
+        {
+            fourthRoundFOutput = fOutputs[3];
+        }
 
-        //Get the number of rounds keys needed for this operation
-        long [] roundKeys = keySchedule.getEncryptionRoundKeys(key, rounds);
+        return ciphertext;
+    }
+
+    /**
+     * Performs DES encryption to encrypt the specified plaintext using the
+     * specified key and the given number of rounds, and records the output of
+     * the f function of each round in the given trace buffer. This method does
+     * not use any instance state, so a single DES instance can be shared by
+     * any number of threads as long as each passes its own buffer.
+     *
+     * @param plaintext long value specifying the plaintext to encrypt
+     * @param key long value specifying the key to use to encrypt the plaintext
+     * @param rounds int value specifying the number of rounds to use in encrypting the plaintext
+     * @param fOutputs int array of at least rounds entries that receives the f
+     * function output of round i+1 at index i, or null if the round outputs
+     * are not needed
+     */
+    public long encrypt(long plaintext, long key, int rounds, int[] fOutputs)
+    {
+        return encrypt(plaintext, keySchedule.expandKey(key), rounds, fOutputs);
+    }
+
+    /**
+     * Performs DES encryption to encrypt the specified plaintext using the
+     * round keys of an expanded key, and records the output of the f function
+     * of each round in the given trace buffer. The key schedule is not run at
+     * all, and like the method above, no instance state is used.
+     *
+     * @param plaintext long value specifying the plaintext to encrypt
+     * @param key ExpandedKey specifying the key to use to encrypt the plaintext
+     * @param rounds int value specifying the number of rounds to use in encrypting the plaintext
+     * @param fOutputs int array of at least rounds entries that receives the f
+     * function output of round i+1 at index i, or null if the round outputs
+     * are not needed
+     */
+    public long encrypt(long plaintext, ExpandedKey key, int rounds, int[] fOutputs)
+    {
+        int lVal, rVal, prevLVal, prevRVal;
+        long ciphertext;
+
+        long [] roundKeys = key.getRoundKeys();
 
         //Perform the initial permutation
         //NOTE: Uncomment this section to have the encryption function perform
@@ -83,42 +156,16 @@ public class DES {
 
             lVal = prevRVal;
 
-            //Perform the expansion
-            expandedVal = expansionPermutation.E(prevRVal);
-
-            //Xor the expanded value with the round key
-            sboxInput = expandedVal ^ roundKeys[i];
+            //Get the output of the f function. The expansion, the xor with
+            //the round key, the SBoxes and the permutation P are all handled
+            //by the SP tables.
+            int fVal = f(prevRVal, roundKeys[i]);
 
-            //Get the output for the SBoxes for the input for this round
-            sboxOutput = 0;
-            int sval;
-            for (int j=0; j<8; j++)
+            //Record the round output for the cryptanalysis computations.
+            //It has no functional impact on the encryption.
+            if (fOutputs != null)
             {
-                sval = (int)((sboxInput & (0x3fL << (j*6))) >> (j*6));
-                sboxOutput |= ( sbox.getSboxValue((int)((sboxInput & (0x3fL << (j*6))) >> (j*6)), 8-j) ) << (j*4);
-            }
-
-            //Get the output of the f function which is not just the permutation,
-            //P, of the Sbox output
-            int fVal = expansionPermutation.P(sboxOutput);
-
-            //This block of if statements is just for the cryptanalysis
-            //computations. It has no functional impact on the encryption.
-            if (i == 0)
-            {
-                firstRoundFOutput = fVal;
-            }
-            else if (i == 2)
-            {
-                thirdRoundFOutput = fVal;
-            }
-            else if (i == 3)
-            {
-                fourthRoundFOutput = fVal;
-            }
-            else if (i == rounds-1)
-            {
-                sboxOut = sboxOutput;
+                fOutputs[i] = fVal;
             }
 
             //Set the new Right side value to the xor of
@@ -159,7 +206,10 @@ public class DES {
 
     /**
      * Performs DES decryption to decrypt the specified ciphertext using the
-     * specified key and the given number of decryption rounds.
+     * specified key and the given number of decryption rounds. Like encrypt
+     * above, this reuses the expanded key of the previous call if the key is
+     * the same, so an instance used this way must not be shared between
+     * threads.
      *
      * @param ciphertext long value specifying the ciphertext to decrypt
      * @param key long value specifying the key to use to encrypt the plaintext
@@ -167,13 +217,39 @@ public class DES {
      */
     public long decrypt(long ciphertext, long key, int rounds)
     {
-        int lVal, rVal, prevLVal, prevRVal;
-        long expandedVal, sboxInput, plaintext;
-        int sboxOutput;
+        return decrypt(ciphertext, getExpandedKey(key), rounds);
+    }
 
+    /**
+     * Returns the expanded key for the given key, expanding it only if it
+     * differs from the key of the previous call. Callers of the methods taking
+     * a plain key typically process many blocks under the same key.
+     */
+    private ExpandedKey getExpandedKey(long key)
+    {
+        if (lastKey == null || lastKey.getKey() != key)
+        {
+            lastKey = keySchedule.expandKey(key);
+        }
+
+        return lastKey;
+    }
+
+    /**
+     * Performs DES decryption to decrypt the specified ciphertext using the
+     * round keys of an expanded key and the given number of decryption rounds.
+     * The round keys are used in reverse order straight from the expanded key.
+     *
+     * @param ciphertext long value specifying the ciphertext to decrypt
+     * @param key ExpandedKey specifying the key to use to decrypt the ciphertext
+     * @param rounds int value specifying the number of rounds to use in decrypting the ciphertext
+     */
+    public long decrypt(long ciphertext, ExpandedKey key, int rounds)
+    {
+        int lVal, rVal, prevLVal, prevRVal;
+        long plaintext;
 
-        //Get the number of rounds keys needed for this operation
-        long [] roundKeys = keySchedule.getDecryptionRoundKeys(key, rounds);
+        long [] roundKeys = key.getRoundKeys();
 
         //Perform the initial permutation
         //NOTE: Uncomment this section to have the encryption function perform
@@ -198,23 +274,8 @@ public class DES {
 
             lVal = prevRVal;
 
-            //Perform the expansion
-            expandedVal = expansionPermutation.E(prevRVal);
-
-            //Xor the expanded value with the round key
-            sboxInput = expandedVal ^ roundKeys[i];
-
-            sboxOutput = 0;
-
-            //Get the output for the SBoxes for the input for this round
-            for (int j=0; j<8; j++)
-            {
-                sboxOutput |= ( sbox.getSboxValue((int)((sboxInput & (0x3fL << (j*6))) >> (j*6)), 8-j) ) << (j*4);
-            }
-
-            //Get the output of the f function which is not just the permutation,
-            //P, of the Sbox output
-            int fVal = expansionPermutation.P(sboxOutput);
+            //Get the output of the f function
+            int fVal = f(prevRVal, roundKeys[rounds-1-i]);
 
             //Set the new Right side value to the xor of
             //the previous Left side value and the output
@@ -252,6 +313,28 @@ public class DES {
         //return ipPlaintext;
     }
 
+    /**
+     * This method computes the DES f function for one round. The 6 bit input
+     * for each SBox is taken straight from the right side value with a rotate
+     * and a mask rather than walking the expansion table, since the expansion
+     * of SBox k is just bits 4k-4 through 4k+1 of the input (wrapping around
+     * at the ends).
+     *
+     * @param rVal int value specifying the right side value for the round
+     * @param roundKey long value specifying the 48 bit round key
+     */
+    static int f(int rVal, long roundKey)
+    {
+        return SP_TABLE[      ((Integer.rotateRight(rVal, 27) ^ (int)(roundKey >>> 42)) & 0x3f)] |
+               SP_TABLE[64  | ((Integer.rotateRight(rVal, 23) ^ (int)(roundKey >>> 36)) & 0x3f)] |
+               SP_TABLE[128 | ((Integer.rotateRight(rVal, 19) ^ (int)(roundKey >>> 30)) & 0x3f)] |
+               SP_TABLE[192 | ((Integer.rotateRight(rVal, 15) ^ (int)(roundKey >>> 24)) & 0x3f)] |
+               SP_TABLE[256 | ((Integer.rotateRight(rVal, 11) ^ (int)(roundKey >>> 18)) & 0x3f)] |
+               SP_TABLE[320 | ((Integer.rotateRight(rVal, 7) ^ (int)(roundKey >>> 12)) & 0x3f)] |
+               SP_TABLE[384 | ((Integer.rotateRight(rVal, 3) ^ (int)(roundKey >>> 6)) & 0x3f)] |
+               SP_TABLE[448 | ((Integer.rotateLeft(rVal, 1) ^ (int)roundKey) & 0x3f)];
+    }
+
     /**
      * This method returns an int value indicating the output from the DES f
      * function in the third round of encryption. This method is for use in the
@@ -279,7 +362,7 @@ public class DES {
      */
     public int getFourthRoundFOutput()
     {
-        return firstRoundFOutput;
+        return fourthRoundFOutput;
     }
 }
 
@@ -0,0 +1,52 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * DesBatchEvent.java
+ *
+ * Created on October 17, 2026, 9:21 AM
+ *
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This JDK Flight Recorder event covers a batch of DES operations: one leaf
+ * task of a pair generator or of KeySearch. The operations of a batch are
+ * aggregated into one event so that the innermost loops commit nothing per
+ * block.
+ *
+ * @author Kelly McLaughlin
+ */
+@Name("DesCryptanalysis.DesBatch")
+@Label("DES Batch")
+@Category({ "DES Cryptanalysis", "DES" })
+@Description("A batch of DES encryptions, decryptions or trial keys")
+public class DesBatchEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Blocks")
+    @Description("Number of blocks processed")
+    public long blocks;
+
+    @Label("Keys")
+    @Description("Number of keys the blocks are processed under")
+    public long keys;
+
+    @Label("Rounds")
+    public int rounds;
+}
@@ -18,522 +18,609 @@
  *
  */
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.StringTokenizer;
+import java.util.concurrent.ForkJoinPool;
 
 /**
- * This class implements the cryptanalysis of DES for 6 rounds. The cryptanalysis process is done using two
- * characteristics. Each characteristic can be used to suggest with high probability the key bits of the
- * round key of the last encryption round. For two input plaintext pairs to be a part of a characteristic,
- * the xor of the two values must be equals to the plaintext value specified by the characteristic. The two
- * characteristic values used in this implementation are 0x4008000004000000 and 0x0020000800000400. Each
- * characteristic suggest 30 bits of the key (5 SBoxes * 6 bits), but three of the SBox inputs overlap
- * giving a net result of 42 key bits.
+ * This class implements the cryptanalysis of DES for 4 to 8 rounds. The cryptanalysis process is done using
+ * characteristics of three rounds less than the number of rounds attacked. Each characteristic can be used to
+ * suggest with high probability the key bits of the round key of the last encryption round. For two input
+ * plaintext pairs to be a part of a characteristic, the xor of the two values must be equals to the plaintext
+ * value specified by the characteristic. For 6 rounds, the two characteristic values used by default are
+ * 0x4008000004000000 and 0x0020000800000400. Each characteristic suggest 30 bits of the key (5 SBoxes * 6 bits),
+ * but three of the SBox inputs overlap giving a net result of 42 key bits. The characteristics used for the
+ * other numbers of rounds are returned by getDefaultCharacteristics.
  *
  * @author Kelly McLaughlin
  */
 public class DesCryptanalysis {
-    private static final int NUMBER_OF_ROUNDS = 6;
+    public static final int MINIMUM_NUMBER_OF_ROUNDS = 4;
+    public static final int MAXIMUM_NUMBER_OF_ROUNDS = 8;
+    public static final int DEFAULT_NUMBER_OF_ROUNDS = 6;
     public static final int DEFAULT_NUMBER_OF_TUPLES = 20000;
-    private int[][] sbox1DifferenceDistribution;
-    private int[][] sbox2DifferenceDistribution;
-    private int[][] sbox3DifferenceDistribution;
-    private int[][] sbox4DifferenceDistribution;
-    private int[][] sbox5DifferenceDistribution;
-    private int[][] sbox6DifferenceDistribution;
-    private int[][] sbox7DifferenceDistribution;
-    private int[][] sbox8DifferenceDistribution;
+    public static final long CHARACTERISTIC_ONE = 0x4008000004000000L;
+    public static final long CHARACTERISTIC_TWO = 0x0020000800000400L;
+
+    //The two 3 round characteristics of the attack. The f function output
+    //XOR of the first and third rounds equals the left half of the input XOR,
+    //and the second round has an input XOR of zero.
+    public static final Characteristic CHAR_ONE = new Characteristic("Characteristic One", CHARACTERISTIC_ONE, new int[] { 0x40080000, 0, 0x40080000 });
+    public static final Characteristic CHAR_TWO = new Characteristic("Characteristic Two", CHARACTERISTIC_TWO, new int[] { 0x00200008, 0, 0x00200008 });
+
+    //The characteristics for each number of rounds, starting at
+    //MINIMUM_NUMBER_OF_ROUNDS. The one round characteristics have probability
+    //1 and leave only SBox 2 or SBox 6 active in the second round. The two
+    //round characteristics are the first two rounds of the 6 round ones. The
+    //4 round characteristics were found by CharacteristicSearch as the best
+    //ones counting at least 5 and 6 SBoxes. The 5 round characteristic is the
+    //one Biham and Shamir use against 8 rounds; the SBoxes it does not count
+    //are left to KeySearch.
+    private static final Characteristic[][] CHARACTERISTICS = {
+        {
+            new Characteristic("Characteristic One", 0x0400000000000000L, new int[] { 0 }),
+            new Characteristic("Characteristic Two", 0x0000040000000000L, new int[] { 0 })
+        },
+        {
+            new Characteristic("Characteristic One", CHARACTERISTIC_ONE, new int[] { 0x40080000, 0 }),
+            new Characteristic("Characteristic Two", CHARACTERISTIC_TWO, new int[] { 0x00200008, 0 })
+        },
+        { CHAR_ONE, CHAR_TWO },
+        {
+            new Characteristic("Characteristic One", 0x484a082004000004L, new int[] { 0x480a0820, 0x04000004, 0, 0x04000004 }),
+            new Characteristic("Characteristic Two", 0x4020405802000400L, new int[] { 0x40204018, 0x02000400, 0, 0x00000401 })
+        },
+        {
+            new Characteristic("Characteristic One", 0x405c000004000000L, new int[] { 0x40080000, 0x04000000, 0, 0x04000000, 0x40080000 })
+        }
+    };
+
+    //The number of plaintext pairs generated for each characteristic by
+    //default, starting at MINIMUM_NUMBER_OF_ROUNDS. These give a few hundred
+    //right pairs for the characteristics above.
+    private static final long[] NUMBER_OF_TUPLES = { 2000L, 4000L, DEFAULT_NUMBER_OF_TUPLES, 200000L, 2000000L };
+
+    private int rounds;
     private DES des;
     public ExpansionPermutation ep;
     private long key;
-    private int numberOfCharOneTuples;
-    private int numberOfCharTwoTuples;
-    private int charOneSbox2Keybits;
-    private int charOneSbox5Keybits;
-    private int charOneSbox6Keybits;
-    private int charOneSbox7Keybits;
-    private int charOneSbox8Keybits;
-    private int charTwoSbox1Keybits;
-    private int charTwoSbox2Keybits;
-    private int charTwoSbox4Keybits;
-    private int charTwoSbox5Keybits;
-    private int charTwoSbox6Keybits;
-
-    /** Creates a new instance of DesCryptanalysis */
+    private Characteristic[] characteristics;
+    private int[] numberOfPairs;
+    private int[][] characteristicKeyBits;
+    private int confirmationPairs;
+    private boolean ciphertextOnly;
+    private SplittableRandom seeds;
+    private CharacteristicCounter lastCounter;
+    private volatile boolean cancelled;
+    private volatile KeySearch keySearch;
+
+    /** Creates a new instance of DesCryptanalysis for 6 rounds */
     public DesCryptanalysis() {
+        this(DEFAULT_NUMBER_OF_ROUNDS);
+    }
+
+    /**
+     * Creates a new instance of DesCryptanalysis
+     *
+     * @param rounds int value specifying the number of encryption rounds to
+     * attack, from MINIMUM_NUMBER_OF_ROUNDS to MAXIMUM_NUMBER_OF_ROUNDS
+     * @throws IllegalArgumentException if the number of rounds is not supported
+     */
+    public DesCryptanalysis(int rounds) {
 
-        numberOfCharOneTuples = 0;
-        numberOfCharTwoTuples = 0;
+        this.rounds = rounds;
+        setCharacteristics(getDefaultCharacteristics(rounds));
+        confirmationPairs = 2;
+        ciphertextOnly = false;
 
         des = new DES();
         ep = new ExpansionPermutation();
     }
 
     /**
-     * This method searches through every possible value for the 14 key bits
-     * that could not be recovered from the cryptanalysis. Once the correct key is
-     * found, it is returned and the search is halted.
+     * This method returns the characteristics used by default to attack a
+     * number of rounds.
      *
-     * @param input ArrayList containing input from the user interface that
-     * specifies plaintext/ciphertext pairs for the two characteristics used
-     * in the cryptanalysis.
+     * @param rounds int value specifying the number of encryption rounds, from
+     * MINIMUM_NUMBER_OF_ROUNDS to MAXIMUM_NUMBER_OF_ROUNDS
+     * @throws IllegalArgumentException if the number of rounds is not supported
      */
-    public long determineKey(ArrayList input)
+    public static Characteristic[] getDefaultCharacteristics(int rounds)
     {
+        return CHARACTERISTICS[checkRounds(rounds) - MINIMUM_NUMBER_OF_ROUNDS].clone();
+    }
 
-        ArrayList[] characteristicTupleArrays = createTuples(input);
-
-        int[] charOneKeyBits = determineCharOneKeyBits(characteristicTupleArrays[0]);
-        int[] charTwoKeyBits = determineCharTwoKeyBits(characteristicTupleArrays[1]);
-
-        int counter = 0;
-        boolean keyFound = false;
-        int sbox3Bits = 0;
-        long testKey = 0L;
-        long expandedKeyBits;
+    /**
+     * This method returns the number of plaintext pairs generated for each
+     * characteristic by default when attacking a number of rounds.
+     *
+     * @param rounds int value specifying the number of encryption rounds, from
+     * MINIMUM_NUMBER_OF_ROUNDS to MAXIMUM_NUMBER_OF_ROUNDS
+     * @throws IllegalArgumentException if the number of rounds is not supported
+     */
+    public static long getDefaultNumberOfTuples(int rounds)
+    {
+        return NUMBER_OF_TUPLES[checkRounds(rounds) - MINIMUM_NUMBER_OF_ROUNDS];
+    }
 
-        while (counter < 16384 && !keyFound)
+    private static int checkRounds(int rounds)
+    {
+        if (rounds < MINIMUM_NUMBER_OF_ROUNDS || rounds > MAXIMUM_NUMBER_OF_ROUNDS)
         {
-            sbox3Bits = (counter & 0x3f00) >> 8;
-
-            long knownKeyBits = (((long)charTwoKeyBits[0]) << 42L) + (((long)charTwoKeyBits[1]) << 36L) + (((long)sbox3Bits) << 30) + (charTwoKeyBits[2] << 24) + (charTwoKeyBits[3] << 18) +
-                    (charOneKeyBits[2] << 12) + (charOneKeyBits[3] << 6) + charOneKeyBits[4];
-            long unshuffledKeyBits = new KeySchedule().getInversePC2Val(knownKeyBits, counter);
-            int cVal = (int)((unshuffledKeyBits & 0xfffffff0000000L)>>28L);
-            int dVal = (int)((unshuffledKeyBits & 0x0000000fffffffL));
-
-            //Rotate the bits to the original positions
-            int lowerBits = cVal & 0x3ff;
-            int rotatedCVal = (cVal >> 10) | (lowerBits << 18);
-            lowerBits = dVal & 0x3ff;
-            int rotatedDVal = (dVal >> 10) | (lowerBits << 18);
-            long orderedKeyBits = ((long)rotatedCVal << 28L) | rotatedDVal;
-
-            unshuffledKeyBits = new KeySchedule().getInversePC1Val(orderedKeyBits);
-            expandedKeyBits = expandKeyBits(unshuffledKeyBits);
-
-            //Add in the bits for the test key
-            testKey = addParityKeyBits(expandedKeyBits);
-
-            //Check the possible key against one of the previously encrypted tuples
-            long testCipherText = getDes().decrypt(((Tuple)characteristicTupleArrays[0].get(0)).getY1(), testKey, DesCryptanalysis.NUMBER_OF_ROUNDS);
-
-            if (testCipherText == ((Tuple)characteristicTupleArrays[0].get(0)).getX1())
-            {
-                keyFound = true;
-            }
-
-            counter++;
+            throw new IllegalArgumentException(rounds + " rounds is not supported, expected " + MINIMUM_NUMBER_OF_ROUNDS +
+                    " to " + MAXIMUM_NUMBER_OF_ROUNDS + " rounds");
         }
 
-        return testKey;
-
+        return rounds;
     }
 
-    private long getKey()
+    /**
+     * This method returns the number of encryption rounds attacked.
+     */
+    public int getRounds()
     {
-        return key;
+        return rounds;
     }
 
-    public void setKey(long key)
+    /**
+     * This method sets the characteristics used in the cryptanalysis. Each
+     * characteristic must attack the number of rounds of this cryptanalysis.
+     * The counts of right pairs and the key bits determined so far are reset.
+     *
+     * @param characteristics Characteristic array specifying the
+     * characteristics to use
+     * @throws IllegalArgumentException if a characteristic attacks a different
+     * number of rounds
+     */
+    public void setCharacteristics(Characteristic[] characteristics)
     {
-        this.key = key;
+        for (int c=0; c<characteristics.length; c++)
+        {
+            if (characteristics[c].getAttackRounds() != rounds)
+            {
+                throw new IllegalArgumentException(characteristics[c].getName() + " attacks " + characteristics[c].getAttackRounds() +
+                        " rounds, expected " + rounds + " rounds");
+            }
+        }
+
+        this.characteristics = characteristics.clone();
+        numberOfPairs = new int[characteristics.length];
+        characteristicKeyBits = new int[characteristics.length][];
     }
 
-    public DES getDes()
+    /**
+     * This method returns the characteristics used in the cryptanalysis.
+     */
+    public Characteristic[] getCharacteristics()
     {
-        return des;
+        return characteristics.clone();
     }
 
     /**
-     * This method determines the key bits for the first characteristic
-     * used in the crypanalytic attack. It returns an array of five integers
-     * representing the key bits determined as the output of SBoxes 2, 5, 6, 7,
-     * and 8.
+     * This method searches through every possible value for the key bits
+     * that could not be recovered from the cryptanalysis. The search runs on
+     * all available cores, and once the correct key is found, it is returned
+     * and the search is halted. If no candidate matches, zero is returned.
      *
-     * @param tuples ArrayList representing the input plaintext/ciphertext
-     * tuples for the first characteristic.
+     * @param input ArrayList containing input from the user interface that
+     * specifies plaintext/ciphertext pairs for the characteristics used
+     * in the cryptanalysis.
      */
-    public int[] determineCharOneKeyBits(ArrayList tuples)
+    public long determineKey(ArrayList input)
     {
-        ExpansionPermutation exp = new ExpansionPermutation();
-        SBox sbox = new SBox();
-        int s2Input, s5Input, s6Input, s7Input, s8Input;
-        int s2Output, s5Output, s6Output, s7Output, s8Output;
-        int s2ValidOutput, s5ValidOutput, s6ValidOutput, s7ValidOutput, s8ValidOutput;
-        int retval = 0;
-        long e1, e2, esum;
-        int lPrime, sBoxOutput, sBoxInput, e1Input, e2Input;
-        int k2Prime, k5Prime, k6Prime, k7Prime, k8Prime;
-
-        int s2MaxIndex = -1;
-        int s5MaxIndex = -1;
-        int s6MaxIndex = -1;
-        int s7MaxIndex = -1;
-        int s8MaxIndex = -1;
-        int s2MaxVal = -1;
-        int s5MaxVal = -1;
-        int s6MaxVal = -1;
-        int s7MaxVal = -1;
-        int s8MaxVal = -1;
-
-        //Initialize the key frequency arrays for each SBox of interest
-        int [] S2KeyCount = new int[64];
-        int [] S5KeyCount = new int[64];
-        int [] S6KeyCount = new int[64];
-        int [] S7KeyCount = new int[64];
-        int [] S8KeyCount = new int[64];
-
-        for (int i=0; i<64; i++)
-        {
-            S2KeyCount[i] = 0;
-            S5KeyCount[i] = 0;
-            S6KeyCount[i] = 0;
-            S7KeyCount[i] = 0;
-            S8KeyCount[i] = 0;
-        }
+        PairStore pairs = new PairStore();
 
-        for (int i=0; i<tuples.size(); i++)
+        for (int i=0; i<input.size(); i++)
         {
-            //Get possible input for the last round of SBoxes
-            e1 = exp.E((long)(((Tuple)(tuples.get(i))).getY1()));
-            e2 = exp.E((long)(((Tuple)(tuples.get(i))).getY2()));
-            esum = e1 ^ e2;
+            String inputLine = (String)input.get(i);
 
-            //Determine the valid output from the SBoxes to determine which Tuples are right
-            lPrime = (int)((((Tuple)(tuples.get(i))).getY1() & 0xffffffff00000000L) >> 32) ^ (int)((((Tuple)(tuples.get(i))).getY2() & 0xffffffff00000000L) >> 32);
-            sBoxOutput = exp.InverseP(lPrime ^ 0x04000000);
-
-            //For each SBox, check the possible keys
-            for (int j=0; j<64; j++)
+            if (!inputLine.startsWith("--------------------"))
             {
-                //Check Sbox2
-                e1Input = (int)((e1 & (0x3fL << 36))>>36);
-                e2Input = (int)((e2 & (0x3fL << 36))>>36);
-
-                s2Input = (int)((esum & (0x3fL << 36))>>36);
-
-                k2Prime = s2Input ^ j;
-
-                //Calculate SBox out for each input XORed with kPrime
-                int e1SBox2Output = sbox.getSboxValue(e1Input ^ k2Prime, 2);
-                int e2SBox2Output = sbox.getSboxValue(e2Input ^ k2Prime, 2);
+                addInputLine(inputLine, pairs);
+            }
+        }
 
-                if ((e1SBox2Output ^ e2SBox2Output) == ((sBoxOutput & 0xf000000)>>24))
-                {
-                        S2KeyCount[j]++;
-                }
+        return determineKey(pairs);
+    }
 
+    /**
+     * This method determines the key from pairs for any of the
+     * characteristics, which may be mixed in any order. Each pair is assigned
+     * to its characteristic by the XOR of its plaintexts and the subkeys for
+     * all characteristics are counted in a single pass. See
+     * determineKey(ArrayList).
+     *
+     * @param pairs PairStore holding the pairs
+     */
+    public long determineKey(PairStore pairs)
+    {
+        CharacteristicCounter counter = createCounter();
 
-                //Check Sbox5
-                e1Input = (int)((e1 & (0x3fL << 18))>>18);
-                e2Input = (int)((e2 & (0x3fL << 18))>>18);
+        counter.addAll(pairs);
 
-                s5Input = (int)((esum & (0x3fL << 18))>>18);
+        return searchKey(counter, pairs);
+    }
 
-                k5Prime = s5Input ^ j;
+    /**
+     * This method determines the key from plaintext/ciphertext pairs read
+     * line by line in the format of generateInputPairs. As in
+     * determineKey(PairStore), the pairs may belong to any of the
+     * characteristics in any order. The pairs are counted in chunks as they
+     * are read rather than collected, so the input may be of any size.
+     *
+     * @param readers BufferedReader array specifying the sources of the
+     * pairs, which are read one after another
+     * @throws IOException if a source cannot be read
+     * @throws NumberFormatException if a line does not hold a pair
+     */
+    public long determineKey(BufferedReader... readers) throws IOException
+    {
+        CharacteristicCounter counter = createCounter();
+        PairStore firstPairs = null;
+        PairStore pairs = new PairStore();
 
-                //Calculate SBox out for each input XORed with kPrime
-                int e1SBox5Output = sbox.getSboxValue(e1Input ^ k5Prime, 5);
-                int e2SBox5Output = sbox.getSboxValue(e2Input ^ k5Prime, 5);
+        for (int r=0; r<readers.length; r++)
+        {
+            String inputLine;
 
-                if ((e1SBox5Output ^ e2SBox5Output) == ((sBoxOutput & 0xf000)>>12))
+            while ((inputLine = readers[r].readLine()) != null)
+            {
+                if (inputLine.trim().length() == 0 || inputLine.startsWith("--------------------"))
                 {
-                    //Increment key counter
-                    S5KeyCount[j]++;
+                    continue;
                 }
 
+                addInputLine(inputLine, pairs);
 
-                //Check Sbox6
-                e1Input = (int)((e1 & (0x3fL << 12))>>12);
-                e2Input = (int)((e2 & (0x3fL << 12))>>12);
-
-                s6Input = (int)((esum & (0x3fL << 12))>>12);
-
-                k6Prime = s6Input ^ j;
-
-                //Calculate SBox out for each input XORed with kPrime
-                int e1SBox6Output = sbox.getSboxValue(e1Input ^ k6Prime, 6);
-                int e2SBox6Output = sbox.getSboxValue(e2Input ^ k6Prime, 6);
-
-                if ((e1SBox6Output ^ e2SBox6Output) == ((sBoxOutput & 0xf00)>>8))
+                if (pairs.size() == PairStore.CHUNK_SIZE)
                 {
-                    //Increment key counter
-                    S6KeyCount[j]++;
+                    if (cancelled)
+                    {
+                        return 0L;
+                    }
+
+                    counter.addAll(pairs);
+                    if (firstPairs == null)
+                    {
+                        firstPairs = pairs;
+                    }
+                    pairs = new PairStore();
                 }
+            }
+        }
+
+        counter.addAll(pairs);
 
+        return searchKey(counter, (firstPairs != null) ? firstPairs : pairs);
+    }
 
-                //Check Sbox7
-                e1Input = (int)((e1 & (0x3fL << 6))>>6);
-                e2Input = (int)((e2 & (0x3fL << 6))>>6);
+    /**
+     * This method searches the key with the subkeys counted by the counter,
+     * checking each possible key against the first plaintext of the PairStore
+     * and confirming it with the following ones, taking both plaintexts of
+     * each pair in turn.
+     */
+    private long searchKey(CharacteristicCounter counter, PairStore pairs)
+    {
+        long[] plaintexts = new long[confirmationPairs + 1];
+        long[] ciphertexts = new long[confirmationPairs + 1];
+        int known = 0;
 
-                s7Input = (int)((esum & (0x3fL << 6))>>6);
+        for (int i=0; i<pairs.size() && known<plaintexts.length; i++)
+        {
+            plaintexts[known] = pairs.getX1(i);
+            ciphertexts[known++] = pairs.getY1(i);
+            if (known < plaintexts.length)
+            {
+                plaintexts[known] = pairs.getX2(i);
+                ciphertexts[known++] = pairs.getY2(i);
+            }
+        }
 
-                k7Prime = s7Input ^ j;
+        return searchKey(counter, plaintexts, ciphertexts, known);
+    }
 
-                //Calculate SBox out for each input XORed with kPrime
-                int e1SBox7Output = sbox.getSboxValue(e1Input ^ k7Prime, 7);
-                int e2SBox7Output = sbox.getSboxValue(e2Input ^ k7Prime, 7);
+    /**
+     * This method determines the key from pair files written by
+     * writePairFiles. Each file is counted for the characteristic named in its
+     * header. The pairs are streamed from the mapped files into the key
+     * counters without parsing or holding them on the heap.
+     *
+     * @param paths Path array specifying the pair files
+     * @throws IOException if a file cannot be read or holds pairs for a
+     * characteristic or number of rounds not used in this cryptanalysis
+     */
+    public long determineKey(Path... paths) throws IOException
+    {
+        CharacteristicCounter counter = createCounter();
+        long[] plaintexts = new long[confirmationPairs + 1];
+        long[] ciphertexts = new long[confirmationPairs + 1];
+        int known = 0;
 
-                if ((e1SBox7Output ^ e2SBox7Output) == ((sBoxOutput & 0xf0)>>4))
+        for (int p=0; p<paths.length; p++)
+        {
+            try (PairFileReader reader = new PairFileReader(paths[p]))
+            {
+                if (reader.getRounds() != rounds || !counter.addAll(reader))
                 {
-                    //Increment key counter
-                    S7KeyCount[j]++;
+                    throw new IOException("Pair file " + paths[p] + " holds pairs for characteristic 0x" + Long.toHexString(reader.getCharacteristic()) +
+                            " and " + reader.getRounds() + " rounds, which is not used in this cryptanalysis");
                 }
 
-
-                //Check Sbox8
-                e1Input = (int)((e1 & (0x3fL)));
-                e2Input = (int)((e2 & (0x3fL)));
-
-                s8Input = (int)((esum & (0x3fL)));
-
-                k8Prime = s8Input ^ j;
-
-                //Calculate SBox out for each input XORed with kPrime
-                int e1SBox8Output = sbox.getSboxValue(e1Input ^ k8Prime, 8);
-                int e2SBox8Output = sbox.getSboxValue(e2Input ^ k8Prime, 8);
-
-
-                if ((e1SBox8Output ^ e2SBox8Output) == ((sBoxOutput & 0xf)))
+                //Keep the plaintexts of the first pairs to check the key
+                for (long i=0; i<reader.getPairCount() && known<plaintexts.length; i++)
                 {
-                    //Increment key counter
-                    S8KeyCount[j]++;
-
+                    plaintexts[known] = reader.getX1(i);
+                    ciphertexts[known++] = reader.getY1(i);
+                    if (known < plaintexts.length)
+                    {
+                        plaintexts[known] = reader.getX2(i);
+                        ciphertexts[known++] = reader.getY2(i);
+                    }
                 }
             }
         }
 
+        return searchKey(counter, plaintexts, ciphertexts, known);
+    }
 
-        for (int i=0; i<64; i++)
-        {
+    /**
+     * This method returns a new CharacteristicCounter for the characteristics,
+     * screening pairs in ciphertext-only mode, and reports it to the metrics,
+     * if they are on.
+     */
+    private CharacteristicCounter createCounter()
+    {
+        CharacteristicCounter counter = new CharacteristicCounter(characteristics);
+        AttackMetrics metrics = AttackMetrics.getInstance();
 
-            if (S2KeyCount[i] > s2MaxVal)
-            {
-                s2MaxIndex = i;
-                s2MaxVal = S2KeyCount[i];
-            }
-            if (S5KeyCount[i] > s5MaxVal)
-            {
-                s5MaxIndex = i;
-                s5MaxVal = S5KeyCount[i];
-            }
-            if (S6KeyCount[i] > s6MaxVal)
-            {
-                s6MaxIndex = i;
-                s6MaxVal = S6KeyCount[i];
-            }
-            if (S7KeyCount[i] > s7MaxVal)
-            {
-                s7MaxIndex = i;
-                s7MaxVal = S7KeyCount[i];
-            }
-            if (S8KeyCount[i] > s8MaxVal)
-            {
-                s8MaxIndex = i;
-                s8MaxVal = S8KeyCount[i];
-            }
-        }
+        counter.setFiltered(ciphertextOnly);
 
-        charOneSbox2Keybits = s2MaxIndex;
-        charOneSbox5Keybits = s5MaxIndex;
-        charOneSbox6Keybits = s6MaxIndex;
-        charOneSbox7Keybits = s7MaxIndex;
-        charOneSbox8Keybits = s8MaxIndex;
+        if (metrics != null)
+        {
+            metrics.setCounter(counter);
+        }
 
-        return new int[]{s2MaxIndex, s5MaxIndex, s6MaxIndex, s7MaxIndex, s8MaxIndex};
+        return counter;
     }
 
     /**
-     * This method determines the key bits for the second characteristic
-     * used in the crypanalytic attack. It returns an array of five integers
-     * representing the key bits determined as the output of SBoxes 1, 2, 4, 5,
-     * and 6.
-     *
-     * @param tuples ArrayList representing the input plaintext/ciphertext
-     * tuples for the second characteristic.
+     * This method takes the key bits suggested by the characteristics from
+     * the counter and searches the remaining key bits for the key that maps
+     * each of the first known plaintexts to its ciphertext. If fewer
+     * plaintexts than asked for were known, all of them are used.
      */
-    public int[] determineCharTwoKeyBits(ArrayList tuples)
+    private long searchKey(CharacteristicCounter counter, long[] plaintexts, long[] ciphertexts, int known)
     {
-        ExpansionPermutation exp = new ExpansionPermutation();
-        SBox sbox = new SBox();
-        int s1Input, s2Input, s4Input, s5Input, s6Input;
-        int s1Output, s2Output, s4Output, s5Output, s6Output;
-        int s1ValidOutput, s2ValidOutput, s4ValidOutput, s5ValidOutput, s6ValidOutput;
-        int retval = 0;
-        long e1, e2, esum;
-        int lPrime, sBoxOutput, sBoxInput, e1Input, e2Input;
-        int k1Prime, k2Prime, k4Prime, k5Prime, k6Prime;
-
-        int s1MaxIndex = -1;
-        int s2MaxIndex = -1;
-        int s4MaxIndex = -1;
-        int s5MaxIndex = -1;
-        int s6MaxIndex = -1;
-        int s1MaxVal = -1;
-        int s2MaxVal = -1;
-        int s4MaxVal = -1;
-        int s5MaxVal = -1;
-        int s6MaxVal = -1;
-
-        int [] S1KeyCount = new int[64];
-        int [] S2KeyCount = new int[64];
-        int [] S4KeyCount = new int[64];
-        int [] S5KeyCount = new int[64];
-        int [] S6KeyCount = new int[64];
+        lastCounter = counter;
 
-        for (int i=0; i<64; i++)
+        if (known < plaintexts.length)
         {
-            S1KeyCount[i] = 0;
-            S2KeyCount[i] = 0;
-            S4KeyCount[i] = 0;
-            S5KeyCount[i] = 0;
-            S6KeyCount[i] = 0;
+            plaintexts = Arrays.copyOf(plaintexts, Math.max(known, 1));
+            ciphertexts = Arrays.copyOf(ciphertexts, Math.max(known, 1));
         }
 
-        for (int i=0; i<tuples.size(); i++)
+        for (int c=0; c<characteristics.length; c++)
         {
-            //Get possible input for the last round of SBoxes
-            e1 = exp.E((long)(((Tuple)(tuples.get(i))).getY1()));
-            e2 = exp.E((long)(((Tuple)(tuples.get(i))).getY2()));
-            esum = e1 ^ e2;
+            numberOfPairs[c] = (int)counter.getCounter(c).getPairCount();
+            characteristicKeyBits[c] = counter.getCounter(c).getBestSubkeys();
+        }
 
-            //Determine the valid output from the SBoxes to determine which Tuples are right
-            lPrime = (int)((((Tuple)(tuples.get(i))).getY1() & 0xffffffff00000000L) >> 32) ^ (int)((((Tuple)(tuples.get(i))).getY2() & 0xffffffff00000000L) >> 32);
-            sBoxOutput = exp.InverseP(lPrime ^ 0x00000400);
+        //Assemble the known bits of the last round key. The bits of SBoxes
+        //not counted by any characteristic are guessed along with the 8 key
+        //bits that are not part of the last round key.
+        int[] subkeys = counter.getBestSubkeys();
+        long knownKeyBits = 0L;
+        long knownMask = 0L;
 
-            //For each SBox, check the possible keys
-            for (int j=0; j<64; j++)
+        for (int k=1; k<=8; k++)
+        {
+            if (subkeys[k-1] >= 0)
             {
-                //Check Sbox1
-                e1Input = (int)((e1 & (0x3fL << 42))>>42);
-                e2Input = (int)((e2 & (0x3fL << 42))>>42);
-
-                s1Input = (int)((esum & (0x3fL << 42))>>42);
-
-                k1Prime = s1Input ^ j;
+                knownKeyBits |= ((long)subkeys[k-1]) << (6*(8-k));
+                knownMask |= 0x3fL << (6*(8-k));
+            }
+        }
 
-                //Calculate SBox out for each input XORed with kPrime
-                int e1SBox1Output = sbox.getSboxValue(e1Input ^ k1Prime, 1);
-                int e2SBox1Output = sbox.getSboxValue(e2Input ^ k1Prime, 1);
+        KeyCandidateEnumerator enumerator = new KeyCandidateEnumerator(knownKeyBits, knownMask, rounds);
 
-                if ((e1SBox1Output ^ e2SBox1Output) == ((sBoxOutput & 0xf0000000)>>28))
-                {
-                    S1KeyCount[j]++;
-                }
+        KeySearch search = new KeySearch(enumerator, rounds, plaintexts, ciphertexts);
 
+        //A cancel that comes before the search is published is seen here,
+        //one that comes after it reaches the search through the field
+        keySearch = search;
+        if (cancelled)
+        {
+            search.cancel();
+        }
 
-                //Check Sbox2
-                e1Input = (int)((e1 & (0x3fL << 36))>>36);
-                e2Input = (int)((e2 & (0x3fL << 36))>>36);
+        return search.search();
 
-                s2Input = (int)((esum & (0x3fL << 36))>>36);
+    }
 
-                k2Prime = s2Input ^ j;
+    /**
+     * This method sets the number of additional known plaintexts a candidate
+     * key has to encrypt correctly in determineKey before it is accepted. The
+     * known plaintexts are taken from the pairs, two from each pair, so an
+     * input of n pairs supports up to 2n-1 confirmations.
+     *
+     * @param confirmationPairs int value specifying the number of
+     * confirmation pairs
+     * @throws IllegalArgumentException if confirmationPairs is negative
+     */
+    public void setConfirmationPairs(int confirmationPairs)
+    {
+        if (confirmationPairs < 0)
+        {
+            throw new IllegalArgumentException("The number of confirmation pairs must not be negative, " +
+                    confirmationPairs + " given");
+        }
 
-                //Calculate SBox out for each input XORed with kPrime
-                int e1SBox2Output = sbox.getSboxValue(e1Input ^ k2Prime, 2);
-                int e2SBox2Output = sbox.getSboxValue(e2Input ^ k2Prime, 2);
+        this.confirmationPairs = confirmationPairs;
+    }
 
-                if ((e1SBox2Output ^ e2SBox2Output) == ((sBoxOutput & 0xf000000)>>24))
-                {
-                        S2KeyCount[j]++;
-                }
+    /**
+     * This method returns the number of additional known plaintexts a
+     * candidate key has to encrypt correctly in determineKey.
+     */
+    public int getConfirmationPairs()
+    {
+        return confirmationPairs;
+    }
 
-                //Check Sbox4
-                e1Input = (int)((e1 & (0x3fL << 24))>>24);
-                e2Input = (int)((e2 & (0x3fL << 24))>>24);
+    /**
+     * This method selects how getPairs recognizes right pairs. By default it
+     * compares the f function outputs of each round of the characteristic
+     * from the encryption. In ciphertext-only mode it keeps every pair that
+     * passes the PairFilter of the characteristic, which includes all right
+     * pairs and some wrong pairs, as an attacker who can only observe the
+     * ciphertexts would have to. In this mode determineKey also screens the
+     * pairs it is given with the same filters before counting them, so it can
+     * be given every pair obtained from an encryption oracle.
+     *
+     * @param ciphertextOnly boolean value specifying whether to select pairs
+     * from the ciphertexts only
+     */
+    public void setCiphertextOnly(boolean ciphertextOnly)
+    {
+        this.ciphertextOnly = ciphertextOnly;
+    }
 
-                s4Input = (int)((esum & (0x3fL << 24))>>24);
+    public boolean isCiphertextOnly()
+    {
+        return ciphertextOnly;
+    }
 
-                k4Prime = s4Input ^ j;
+    /**
+     * This method makes the pairs generated from now on reproducible. Each
+     * generation draws its seed from a generator started with the given seed,
+     * instead of from the clock.
+     *
+     * @param seed long value specifying the seed
+     */
+    public void setSeed(long seed)
+    {
+        seeds = new SplittableRandom(seed);
+    }
 
-                //Calculate SBox out for each input XORed with kPrime
-                int e1SBox4Output = sbox.getSboxValue(e1Input ^ k4Prime, 4);
-                int e2SBox4Output = sbox.getSboxValue(e2Input ^ k4Prime, 4);
+    /**
+     * This method returns the seed for the next generation of pairs.
+     */
+    private long nextSeed()
+    {
+        return (seeds != null) ? seeds.nextLong() : System.nanoTime();
+    }
 
-                if ((e1SBox4Output ^ e2SBox4Output) == ((sBoxOutput & 0xf0000)>>16))
-                {
-                    //Increment key counter
-                    S4KeyCount[j]++;
-                }
+    /**
+     * This method stops the key search of a running determineKey, which then
+     * returns zero, and makes later calls to determineKey return zero. It may
+     * be called from any thread, such as a user interface cancelling an
+     * attack.
+     */
+    public void cancel()
+    {
+        cancelled = true;
 
-                //Check Sbox5
-                e1Input = (int)((e1 & (0x3fL << 18))>>18);
-                e2Input = (int)((e2 & (0x3fL << 18))>>18);
+        KeySearch search = keySearch;
+        if (search != null)
+        {
+            search.cancel();
+        }
+    }
 
-                s5Input = (int)((esum & (0x3fL << 18))>>18);
+    /**
+     * This method returns true if the cryptanalysis was cancelled.
+     */
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
 
-                k5Prime = s5Input ^ j;
+    /**
+     * This method returns the CharacteristicCounter holding the subkey counts
+     * of the last call to determineKey, or null if determineKey has not been
+     * called.
+     */
+    public CharacteristicCounter getCharacteristicCounter()
+    {
+        return lastCounter;
+    }
 
-                //Calculate SBox out for each input XORed with kPrime
-                int e1SBox5Output = sbox.getSboxValue(e1Input ^ k5Prime, 5);
-                int e2SBox5Output = sbox.getSboxValue(e2Input ^ k5Prime, 5);
+    private long getKey()
+    {
+        return key;
+    }
 
-                if ((e1SBox5Output ^ e2SBox5Output) == ((sBoxOutput & 0xf000)>>12))
-                {
-                    //Increment key counter
-                    S5KeyCount[j]++;
-                }
+    public void setKey(long key)
+    {
+        this.key = key;
+    }
 
+    public DES getDes()
+    {
+        return des;
+    }
 
-                //Check Sbox6
-                e1Input = (int)((e1 & (0x3fL << 12))>>12);
-                e2Input = (int)((e2 & (0x3fL << 12))>>12);
+    /**
+     * This method determines the key bits for the first characteristic
+     * used in the crypanalytic attack. It returns an array of five integers
+     * representing the key bits determined as the output of SBoxes 2, 5, 6, 7,
+     * and 8.
+     *
+     * @param tuples ArrayList representing the input plaintext/ciphertext
+     * tuples for the first characteristic.
+     */
+    public int[] determineCharOneKeyBits(ArrayList tuples)
+    {
+        return determineKeyBits(CHAR_ONE, new PairStore(tuples));
+    }
 
-                s6Input = (int)((esum & (0x3fL << 12))>>12);
+    /**
+     * This method determines the key bits for the second characteristic
+     * used in the crypanalytic attack. It returns an array of five integers
+     * representing the key bits determined as the output of SBoxes 1, 2, 4, 5,
+     * and 6.
+     *
+     * @param tuples ArrayList representing the input plaintext/ciphertext
+     * tuples for the second characteristic.
+     */
+    public int[] determineCharTwoKeyBits(ArrayList tuples)
+    {
+        return determineKeyBits(CHAR_TWO, new PairStore(tuples));
+    }
 
-                k6Prime = s6Input ^ j;
+    /**
+     * This method determines the key bits suggested by the pairs for one
+     * characteristic. It returns the best subkey of each SBox counted by the
+     * characteristic, in the order of getCountedSboxes.
+     *
+     * @param characteristic Characteristic the pairs belong to
+     * @param pairs PairStore holding the input plaintext/ciphertext pairs for
+     * the characteristic.
+     */
+    public int[] determineKeyBits(Characteristic characteristic, PairStore pairs)
+    {
+        KeyCounter counter = characteristic.createKeyCounter();
 
-                //Calculate SBox out for each input XORed with kPrime
-                int e1SBox6Output = sbox.getSboxValue(e1Input ^ k6Prime, 6);
-                int e2SBox6Output = sbox.getSboxValue(e2Input ^ k6Prime, 6);
+        counter.addAll(pairs);
 
-                if ((e1SBox6Output ^ e2SBox6Output) == ((sBoxOutput & 0xf00)>>8))
-                {
-                    //Increment key counter
-                    S6KeyCount[j]++;
-                }
-            }
-        }
+        int[] keyBits = counter.getBestSubkeys();
 
-        for (int i=0; i<64; i++)
+        for (int c=0; c<characteristics.length; c++)
         {
-            if (S1KeyCount[i] > s1MaxVal)
-            {
-                s1MaxIndex = i;
-                s1MaxVal = S1KeyCount[i];
-            }
-            if (S2KeyCount[i] > s2MaxVal)
-            {
-                s2MaxIndex = i;
-                s2MaxVal = S2KeyCount[i];
-            }
-            if (S4KeyCount[i] > s4MaxVal)
-            {
-                s4MaxIndex = i;
-                s4MaxVal = S4KeyCount[i];
-            }
-            if (S5KeyCount[i] > s5MaxVal)
-            {
-                s5MaxIndex = i;
-                s5MaxVal = S5KeyCount[i];
-            }
-            if (S6KeyCount[i] > s6MaxVal)
+            if (characteristics[c] == characteristic)
             {
-                s6MaxIndex = i;
-                s6MaxVal = S6KeyCount[i];
+                characteristicKeyBits[c] = keyBits;
             }
         }
 
-        charTwoSbox1Keybits = s1MaxIndex;
-        charTwoSbox2Keybits = s2MaxIndex;
-        charTwoSbox4Keybits = s4MaxIndex;
-        charTwoSbox5Keybits = s5MaxIndex;
-        charTwoSbox6Keybits = s6MaxIndex;
-
-        return new int[]{s1MaxIndex, s2MaxIndex, s4MaxIndex, s5MaxIndex, s6MaxIndex};
+        return keyBits;
     }
 
     /**
@@ -548,9 +635,29 @@ public class DesCryptanalysis {
      */
     public ArrayList[] createTuples(ArrayList input)
     {
-        ArrayList charOneTuples = new ArrayList<Tuple>();
-        ArrayList charTwoTuples = new ArrayList<Tuple>();
-        StringTokenizer strtok1 = null;
+        PairStore[] characteristicPairs = createPairStores(input);
+
+        return new ArrayList[] { characteristicPairs[0].toTuples(), characteristicPairs[1].toTuples() };
+    }
+
+    /**
+     * This method receives an input ArrayList with plaintext/ciphertext tuples
+     * for both of the characteristics used in the cryptanalysis. It separates
+     * input for each characterstic and returns a separate PairStore for each
+     * characteristic. The sizes of the stores become the numbers of pairs
+     * returned by getNumberOfCharOneTuples and getNumberOfCharTwoTuples.
+     *
+     * @param input ArrayList containing input from the user interface that
+     * specifies plaintext/ciphertext pairs for the two characteristics used
+     * in the cryptanalysis.
+     */
+    public PairStore[] createPairStores(ArrayList input)
+    {
+        PairStore charOnePairs = new PairStore();
+        PairStore charTwoPairs = new PairStore();
+        TupleParsingEvent event = new TupleParsingEvent();
+
+        event.begin();
 
         int inputSize = input.size();
         int inputCounter = 0;
@@ -567,27 +674,7 @@ public class DesCryptanalysis {
             }
             else
             {
-                strtok1 = new StringTokenizer(inputLine.trim(), ";");
-                Tuple tuple = new Tuple();
-
-                if (strtok1.hasMoreTokens())
-                {
-                    tuple.setX1(Long.parseLong(strtok1.nextToken()));
-                }
-                if (strtok1.hasMoreTokens())
-                {
-                    tuple.setX2(Long.parseLong(strtok1.nextToken()));
-                }
-                if (strtok1.hasMoreTokens())
-                {
-                    tuple.setY1(Long.parseLong(strtok1.nextToken()));
-                }
-                if (strtok1.hasMoreTokens())
-                {
-                    tuple.setY2(Long.parseLong(strtok1.nextToken()));
-                }
-
-                charOneTuples.add(tuple);
+                addInputLine(inputLine, charOnePairs);
             }
 
             inputCounter++;
@@ -597,35 +684,43 @@ public class DesCryptanalysis {
         {
             inputLine = (String)input.get(inputCounter);
 
-            strtok1 = new StringTokenizer(inputLine.trim(), ";");
-            Tuple tuple = new Tuple();
-
-            if (strtok1.hasMoreTokens())
-            {
-                tuple.setX1(Long.parseLong(strtok1.nextToken()));
-            }
-            if (strtok1.hasMoreTokens())
-            {
-                tuple.setX2(Long.parseLong(strtok1.nextToken()));
-            }
-            if (strtok1.hasMoreTokens())
-            {
-                tuple.setY1(Long.parseLong(strtok1.nextToken()));
-            }
-            if (strtok1.hasMoreTokens())
-            {
-                tuple.setY2(Long.parseLong(strtok1.nextToken()));
-            }
+            addInputLine(inputLine, charTwoPairs);
 
             inputCounter++;
+        }
 
-            charTwoTuples.add(tuple);
+        numberOfPairs[0] = charOnePairs.size();
+        if (numberOfPairs.length > 1)
+        {
+            numberOfPairs[1] = charTwoPairs.size();
         }
 
-        numberOfCharOneTuples = charOneTuples.size();
-        numberOfCharTwoTuples = charTwoTuples.size();
+        if (event.shouldCommit())
+        {
+            event.lines = inputSize;
+            event.charOnePairs = charOnePairs.size();
+            event.charTwoPairs = charTwoPairs.size();
+            event.commit();
+        }
+
+        return new PairStore[] { charOnePairs, charTwoPairs };
+    }
+
+    /**
+     * This method parses one line of input of the form x1;x2;y1;y2 and adds it
+     * to a PairStore. Missing values are taken as zero.
+     */
+    private void addInputLine(String inputLine, PairStore pairs)
+    {
+        StringTokenizer strtok1 = new StringTokenizer(inputLine.trim(), ";");
+        long[] values = new long[4];
+
+        for (int i=0; i<4 && strtok1.hasMoreTokens(); i++)
+        {
+            values[i] = Long.parseLong(strtok1.nextToken());
+        }
 
-        return new ArrayList[] { charOneTuples, charTwoTuples };
+        pairs.add(values[0], values[1], values[2], values[3]);
     }
 
     /**
@@ -633,7 +728,18 @@ public class DesCryptanalysis {
      */
     public long generateKey()
     {
-        Random rng = new Random(System.nanoTime());
+        return generateKey(System.nanoTime());
+    }
+
+    /**
+     * This method generates a DES key from a seed. The same seed always gives
+     * the same key.
+     *
+     * @param seed long value specifying the seed
+     */
+    public long generateKey(long seed)
+    {
+        Random rng = new Random(seed);
         long keyVal;
 
         keyVal= rng.nextLong();
@@ -643,50 +749,102 @@ public class DesCryptanalysis {
 
     /**
      * This method generates random pairs of plaintext/ciphertext pairs for
-     * each of the two characteristics and returns them as a single ArrayList
-     * separated by a line containing only dashes.
+     * each of the characteristics and returns them as a single ArrayList
+     * separated by a line containing only dashes. The number of pairs
+     * generated is getDefaultNumberOfTuples for the number of rounds.
      */
     public ArrayList generateInputPairs()
     {
-        ArrayList inputPairs = new ArrayList<String>();
-        ArrayList charOneTuples = getCharOneTuples(DEFAULT_NUMBER_OF_TUPLES);
-        ArrayList charTwoTuples = getCharTwoTuples(DEFAULT_NUMBER_OF_TUPLES);
+        return generateInputPairs(getDefaultNumberOfTuples(rounds));
+    }
 
-        numberOfCharOneTuples = charOneTuples.size();
-        numberOfCharTwoTuples = charTwoTuples.size();
+    /**
+     * This method generates the given number of random plaintext pairs for
+     * each of the characteristics and returns the right pairs as a single
+     * ArrayList, with the pairs of each characteristic separated by a line
+     * containing only dashes. The pairs are taken from shared structures, see
+     * getPairs(long).
+     *
+     * @param numberOfTuples long value indicating the number of plaintext
+     * pairs to generate and filter for each characteristic.
+     */
+    public ArrayList generateInputPairs(long numberOfTuples)
+    {
+        ArrayList inputPairs = new ArrayList<String>();
+        PairStore[] characteristicPairs = getPairs(numberOfTuples);
 
-        for (int i=0; i<numberOfCharOneTuples; i++)
+        for (int c=0; c<characteristics.length; c++)
         {
-            String inputLine = new String("");
+            PairStore pairs = characteristicPairs[c];
+
+            numberOfPairs[c] = pairs.size();
 
-            Tuple tuple = (Tuple)charOneTuples.get(i);
+            if (c > 0)
+            {
+                inputPairs.add("--------------------\r\n");
+            }
+
+            for (int i=0; i<pairs.size(); i++)
+            {
+                String inputLine = new String("");
 
-            inputLine += Long.toString(tuple.getX1()) + ";" + Long.toString(tuple.getX2()) + ";" + Long.toString(tuple.getY1()) + ";" + Long.toString(tuple.getY2());
+                inputLine += Long.toString(pairs.getX1(i)) + ";" + Long.toString(pairs.getX2(i)) + ";" + Long.toString(pairs.getY1(i)) + ";" + Long.toString(pairs.getY2(i));
 
-            inputLine += "\r\n";
+                if (c != characteristics.length-1 || i != pairs.size()-1)
+                {
+                    inputLine += "\r\n";
+                }
 
-            inputPairs.add(inputLine);
+                inputPairs.add(inputLine);
+            }
         }
 
-        inputPairs.add("--------------------\r\n");
+        return inputPairs;
+    }
 
-        for (int i=0; i<numberOfCharTwoTuples; i++)
+    /**
+     * This method generates the given number of random plaintext pairs for
+     * each of the characteristics and writes the right pairs to one pair
+     * file per characteristic. Unlike generateInputPairs, no text is built,
+     * so this is suited to large numbers of pairs. The pairs are taken from
+     * shared structures, see getPairs(long).
+     *
+     * @param numberOfTuples long value indicating the number of plaintext
+     * pairs to generate and filter for each characteristic.
+     * @param paths Path array specifying the pair file for each
+     * characteristic, in the order of getCharacteristics
+     */
+    public void writePairFiles(long numberOfTuples, Path... paths) throws IOException
+    {
+        if (paths.length != characteristics.length)
         {
-            String inputLine = new String("");
+            throw new IllegalArgumentException(paths.length + " pair files given for " + characteristics.length + " characteristics");
+        }
 
-            Tuple tuple = (Tuple)charTwoTuples.get(i);
+        PairStore[] characteristicPairs = getPairs(numberOfTuples);
 
-            inputLine += Long.toString(tuple.getX1()) + ";" + Long.toString(tuple.getX2()) + ";" + Long.toString(tuple.getY1()) + ";" + Long.toString(tuple.getY2());
+        for (int c=0; c<characteristics.length; c++)
+        {
+            PairStore pairs = characteristicPairs[c];
 
-            if (i != numberOfCharTwoTuples-1)
+            try (PairFileWriter writer = new PairFileWriter(paths[c], characteristics[c].getInputXor(), rounds))
             {
-                inputLine += "\r\n";
+                writer.addAll(pairs);
             }
-
-            inputPairs.add(inputLine);
+            numberOfPairs[c] = pairs.size();
         }
+    }
 
-        return inputPairs;
+    /**
+     * This method returns the number of plaintext/ciphertext pairs that were
+     * determined to be "right pairs" from the original set of generated pairs
+     * for one of the characteristics.
+     *
+     * @param index int value specifying the characteristic
+     */
+    public int getNumberOfPairs(int index)
+    {
+        return numberOfPairs[index];
     }
 
     /**
@@ -696,7 +854,7 @@ public class DesCryptanalysis {
      */
     public int getNumberOfCharOneTuples()
     {
-        return numberOfCharOneTuples;
+        return getNumberOfPairs(0);
     }
 
     /**
@@ -706,170 +864,114 @@ public class DesCryptanalysis {
      */
     public int getNumberOfCharTwoTuples()
     {
-        return numberOfCharTwoTuples;
+        return (numberOfPairs.length > 1) ? getNumberOfPairs(1) : 0;
     }
 
     /**
-     * This method generates 20000 plaintext pairs whose value when XORed
+     * This method generates the given number of plaintext pairs whose value when XORed
      * together is equal to 0x4008000004000000. Each of the plaintext pairs
      * is encrypted and then tested to determine if they are a "right pair".
      * A "right pair" is found when the XOR of the output from the encryption
      * of each value in the first and third encryption rounds is equal to
      * 0x40080000. If a pair does not meet this criteria, it is discarded. The
-     * "right pairs" are returned as an ArrayList of Tuples.
+     * "right pairs" are returned as an ArrayList of Tuples. The pairs are
+     * generated in parallel on all available cores.
      *
-     * @param numberOfTuples int value indicating the number of plaintext pairs
+     * @param numberOfTuples long value indicating the number of plaintext pairs
      * to generate and filter.
      */
-    public ArrayList getCharOneTuples(int numberOfTuples)
+    public ArrayList getCharOneTuples(long numberOfTuples)
     {
-        ArrayList tupleArray = new ArrayList<Tuple>(1);
-        Random rng = new Random(System.nanoTime());
-        long pt;
-        int x1FirstRoundFOutput;
-        int x1ThirdRoundFOutput;
-        int x2FirstRoundFOutput;
-        int x2ThirdRoundFOutput;
-
-        for (int i=0; i< numberOfTuples; i++)
-        {
-            pt = rng.nextLong();
-            Tuple tuple = new Tuple();
-            tuple.setX1(pt);
-            tuple.setX2(pt ^ 0x4008000004000000L);
-
-            tuple.setY1(des.encrypt(tuple.getX1(), key, NUMBER_OF_ROUNDS));
-            x1FirstRoundFOutput = des.getFirstRoundFOutput();
-            x1ThirdRoundFOutput = des.getThirdRoundFOutput();
-            int fourOut1 = des.getFourthRoundFOutput();
-            tuple.setY2(des.encrypt(tuple.getX2(), key, NUMBER_OF_ROUNDS));
-            x2FirstRoundFOutput = des.getFirstRoundFOutput();
-            x2ThirdRoundFOutput = des.getThirdRoundFOutput();
-            int fourOut2 = des.getFourthRoundFOutput();
-
-            if (((x1FirstRoundFOutput ^ x2FirstRoundFOutput) == 1074266112) && ((x1ThirdRoundFOutput ^ x2ThirdRoundFOutput) == 1074266112))
-            {
-                tupleArray.add(tuple);;
-            }
-        }
-
-        return tupleArray;
+        return getPairs(CHAR_ONE, numberOfTuples).toTuples();
     }
 
     /**
-     * This method generates 20000 plaintext pairs whose value when XORed
+     * This method generates the given number of plaintext pairs whose value when XORed
      * together is equal to 0x0020000800000400. Each of the plaintext pairs
      * is encrypted and then tested to determine if they are a "right pair".
      * A "right pair" is found when the XOR of the output from the encryption
      * of each value in the first and third encryption rounds is equal to
      * 0x00200008. If a pair does not meet this criteria, it is discarded. The
-     * "right pairs" are returned as an ArrayList of Tuples.
+     * "right pairs" are returned as an ArrayList of Tuples. The pairs are
+     * generated in parallel on all available cores.
      *
-     * @param numberOfTuples int value indicating the number of plaintext pairs
+     * @param numberOfTuples long value indicating the number of plaintext pairs
      * to generate and filter.
      */
-    public ArrayList getCharTwoTuples(int numberOfTuples)
+    public ArrayList getCharTwoTuples(long numberOfTuples)
     {
-        ArrayList tupleArray = new ArrayList<Tuple>(1);
-        Random rng = new Random(System.nanoTime());
-        long pt;
-        int x1FirstRoundFOutput;
-        int x1ThirdRoundFOutput;
-        int x2FirstRoundFOutput;
-        int x2ThirdRoundFOutput;
-
-        for (int i=0; i< numberOfTuples; i++)
-        {
-            pt = rng.nextLong();
-            Tuple tuple = new Tuple();
-            tuple.setX1(pt);
-            tuple.setX2(pt ^ 0x0020000800000400L);
-
-            tuple.setY1(des.encrypt(tuple.getX1(), key, NUMBER_OF_ROUNDS));
-            x1FirstRoundFOutput = des.getFirstRoundFOutput();
-            x1ThirdRoundFOutput = des.getThirdRoundFOutput();
-            int fourOut1 = des.getFourthRoundFOutput();
-            tuple.setY2(des.encrypt(tuple.getX2(), key, NUMBER_OF_ROUNDS));
-            x2FirstRoundFOutput = des.getFirstRoundFOutput();
-            x2ThirdRoundFOutput = des.getThirdRoundFOutput();
-            int fourOut2 = des.getFourthRoundFOutput();
-
-            if (((x1FirstRoundFOutput ^ x2FirstRoundFOutput) == 2097160) && ((x1ThirdRoundFOutput ^ x2ThirdRoundFOutput) == 2097160))
-            {
-                tupleArray.add(tuple);
-            }
-        }
-
-        return tupleArray;
+        return getPairs(CHAR_TWO, numberOfTuples).toTuples();
     }
 
-    private int[][] getSboxDifferenceDistribution(int sboxNumber)
+    /**
+     * This method generates the given number of plaintext pairs whose value
+     * when XORed together is equal to the input XOR of a characteristic and
+     * returns the "right pairs" among them in a PairStore. A "right pair" is
+     * one whose f function output XOR in each round of the characteristic is
+     * the one the characteristic expects. In ciphertext-only mode the pairs
+     * that pass the PairFilter of the characteristic are returned instead.
+     * The pairs are generated in parallel on all available cores.
+     *
+     * @param characteristic Characteristic specifying the pairs to generate
+     * @param numberOfTuples long value indicating the number of plaintext pairs
+     * to generate and filter.
+     */
+    public PairStore getPairs(Characteristic characteristic, long numberOfTuples)
     {
-        int[][] distribution = new int[64][16];
-        int outputXor1, outputXor2;
-        SBox sbox = new SBox();
+        ParallelPairGenerator generator;
 
-        //Initialize distribution to all zeroes
-        for (int i=0; i<64; i++)
+        if (ciphertextOnly)
         {
-            for (int j=0; j<16; j++)
-            {
-                distribution[i][j] = 0;
-            }
+            generator = new ParallelPairGenerator(key, rounds, characteristic, characteristic.createPairFilter());
         }
-
-        for (int i=0; i<64; i++)
+        else
         {
-            outputXor1 = sbox.getSboxValue(i, sboxNumber);
-            for (int j=0; j<64; j++)
-            {
-                outputXor2 = sbox.getSboxValue(j, sboxNumber);
-                distribution[i^j][outputXor1^outputXor2]++;
-            }
+            generator = new ParallelPairGenerator(key, rounds, characteristic);
         }
-        return distribution;
+
+        return generator.generate(numberOfTuples, nextSeed());
     }
 
-    private int[][] getSboxDifferenceDistributionReference(int sboxNumber)
+    /**
+     * This method generates the given number of plaintext pairs for each of
+     * the characteristics and returns the "right pairs" of each in a
+     * PairStore, in the order of getCharacteristics. The pairs come from
+     * structures that hold every combination of the input XORs of the
+     * characteristics, so each encryption is shared by a pair of every
+     * characteristic and the number of encryptions is divided by the number of
+     * characteristics. See StructurePairGenerator. In ciphertext-only mode
+     * the pairs that pass the PairFilter of each characteristic are returned.
+     *
+     * @param numberOfTuples long value indicating the number of plaintext pairs
+     * to generate and filter for each characteristic.
+     */
+    public PairStore[] getPairs(long numberOfTuples)
     {
-        int dist[][];
+        PairFilter[] filters = null;
 
-        switch(sboxNumber)
+        if (ciphertextOnly)
         {
-            case 1:
-                dist = sbox1DifferenceDistribution;
-                break;
-            case 2:
-                dist = sbox2DifferenceDistribution;
-                break;
-            case 3:
-                dist = sbox3DifferenceDistribution;
-                break;
-            case 4:
-                dist = sbox4DifferenceDistribution;
-                break;
-            case 5:
-                dist = sbox5DifferenceDistribution;
-                break;
-            case 6:
-                dist = sbox6DifferenceDistribution;
-                break;
-            case 7:
-                dist = sbox7DifferenceDistribution;
-                break;
-            case 8:
-                dist = sbox8DifferenceDistribution;
-                break;
-            default:
-                dist = null;
-        };
-
-        return dist;
+            filters = new PairFilter[characteristics.length];
+            for (int c=0; c<characteristics.length; c++)
+            {
+                filters[c] = characteristics[c].createPairFilter();
+            }
+        }
+
+        StructurePairGenerator generator = new StructurePairGenerator(key, rounds, characteristics, filters, ForkJoinPool.commonPool());
+
+        return generator.generate(numberOfTuples, nextSeed());
     }
 
+    /**
+     * This method prints the difference distribution table of an SBox. The
+     * table is taken from DifferenceTables.
+     *
+     * @param sboxNumber int value specifying the SBox, from 1-8
+     */
     public void printSboxDifferenceDistribution(int sboxNumber)
     {
-        int [][] distribution = getSboxDifferenceDistributionReference(sboxNumber);
+        int [][] distribution = DifferenceTables.getDifferenceDistribution(sboxNumber);
 
         for (int i=0; i<64; i++)
         {
@@ -1097,13 +1199,40 @@ public class DesCryptanalysis {
         return retval;
     }
 
+    /**
+     * This method returns the key bits of an SBox determined by one of the
+     * characteristics, or -1 if the characteristic does not count the SBox
+     * or its key bits have not been determined.
+     *
+     * @param index int value specifying the characteristic
+     * @param sboxIndex int value specifying the SBox, from 1-8
+     */
+    public int getKeyBits(int index, int sboxIndex)
+    {
+        if (index >= characteristics.length || characteristicKeyBits[index] == null)
+        {
+            return -1;
+        }
+
+        int[] sboxes = characteristics[index].getCountedSboxes();
+        for (int s=0; s<sboxes.length; s++)
+        {
+            if (sboxes[s] == sboxIndex)
+            {
+                return characteristicKeyBits[index][s];
+            }
+        }
+
+        return -1;
+    }
+
     /**
      * This method returns the key bits as ouptut from SBox 2 determined by the
      * first characteristic.
      */
     public int getCharOneS2KeyBits()
     {
-        return charOneSbox2Keybits;
+        return getKeyBits(0, 2);
     }
 
     /**
@@ -1112,7 +1241,7 @@ public class DesCryptanalysis {
      */
     public int getCharOneS5KeyBits()
     {
-        return charOneSbox5Keybits;
+        return getKeyBits(0, 5);
     }
 
     /**
@@ -1121,7 +1250,7 @@ public class DesCryptanalysis {
      */
     public int getCharOneS6KeyBits()
     {
-        return charOneSbox6Keybits;
+        return getKeyBits(0, 6);
     }
 
     /**
@@ -1130,7 +1259,7 @@ public class DesCryptanalysis {
      */
     public int getCharOneS7KeyBits()
     {
-        return charOneSbox7Keybits;
+        return getKeyBits(0, 7);
     }
 
     /**
@@ -1139,7 +1268,7 @@ public class DesCryptanalysis {
      */
     public int getCharOneS8KeyBits()
     {
-        return charOneSbox8Keybits;
+        return getKeyBits(0, 8);
     }
 
     /**
@@ -1148,7 +1277,7 @@ public class DesCryptanalysis {
      */
     public int getCharTwoS1KeyBits()
     {
-        return charTwoSbox1Keybits;
+        return getKeyBits(1, 1);
     }
 
     /**
@@ -1157,7 +1286,7 @@ public class DesCryptanalysis {
      */
     public int getCharTwoS2KeyBits()
     {
-        return charTwoSbox2Keybits;
+        return getKeyBits(1, 2);
     }
 
     /**
@@ -1166,7 +1295,7 @@ public class DesCryptanalysis {
      */
     public int getCharTwoS4KeyBits()
     {
-        return charTwoSbox4Keybits;
+        return getKeyBits(1, 4);
     }
 
     /**
@@ -1175,7 +1304,7 @@ public class DesCryptanalysis {
      */
     public int getCharTwoS5KeyBits()
     {
-        return charTwoSbox5Keybits;
+        return getKeyBits(1, 5);
     }
 
     /**
@@ -1184,6 +1313,6 @@ public class DesCryptanalysis {
      */
     public int getCharTwoS6KeyBits()
     {
-        return charTwoSbox6Keybits;
+        return getKeyBits(1, 6);
     }
-}
\ No newline at end of file
+}
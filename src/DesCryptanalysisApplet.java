@@ -21,15 +21,18 @@ import java.awt.Container;
 import java.awt.GridBagConstraints;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.concurrent.ExecutionException;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.SpringLayout;
-import javax.swing.text.BadLocationException;
+import javax.swing.SwingWorker;
 
 /**
  * This class implements a JApplet that presents a user with an input text area
@@ -41,6 +44,9 @@ import javax.swing.text.BadLocationException;
  * == 0x0020000800000400). The two sets of entries should be separated by a line
  * containing only 20 dashes (i.e. --------------------).
  *
+ * The key is determined by a SwingWorker, so the applet stays responsive and
+ * the search can be cancelled while it runs.
+ *
  * @author Kelly McLaughlin
  */
 public class DesCryptanalysisApplet extends javax.swing.JApplet {
@@ -60,8 +66,12 @@ public class DesCryptanalysisApplet extends javax.swing.JApplet {
     private JScrollPane detailsScrollPane;
     private JTextField keyTextField;
     private JButton computeKeyButton;
+    private JButton cancelButton;
+    private JProgressBar progressBar;
     private JPanel errorPane;
     private GridBagConstraints c;
+    private DesCryptanalysis dca;
+    private SwingWorker<Long, Void> worker;
 
     /** Creates a new instance of DesCryptAnalysisApplet */
     public DesCryptanalysisApplet() {
@@ -89,6 +99,12 @@ public class DesCryptanalysisApplet extends javax.swing.JApplet {
         keyTextField = new JTextField(30);
 
         computeKeyButton = new JButton("Compute Key");
+        cancelButton = new JButton("Cancel");
+        cancelButton.setEnabled(false);
+
+        progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(false);
 
         layout = new SpringLayout();
         cp.setLayout(layout);
@@ -105,10 +121,14 @@ public class DesCryptanalysisApplet extends javax.swing.JApplet {
         layout.putConstraint(SpringLayout.NORTH, pairsScrollPane, VERTICAL_SPACING_CONSTANT+20, SpringLayout.NORTH, cp);
         cp.add(pairsScrollPane);
 
-        layout.putConstraint(SpringLayout.WEST, computeKeyButton, 140, SpringLayout.WEST, cp);
+        layout.putConstraint(SpringLayout.WEST, computeKeyButton, 100, SpringLayout.WEST, cp);
         layout.putConstraint(SpringLayout.NORTH, computeKeyButton, VERTICAL_SPACING_CONSTANT+430, SpringLayout.NORTH, cp);
         cp.add(computeKeyButton);
 
+        layout.putConstraint(SpringLayout.WEST, cancelButton, 10, SpringLayout.EAST, computeKeyButton);
+        layout.putConstraint(SpringLayout.NORTH, cancelButton, VERTICAL_SPACING_CONSTANT+430, SpringLayout.NORTH, cp);
+        cp.add(cancelButton);
+
         layout.putConstraint(SpringLayout.WEST, keyLabel, 5, SpringLayout.WEST, cp);
         layout.putConstraint(SpringLayout.NORTH, keyLabel, VERTICAL_SPACING_CONSTANT+460, SpringLayout.NORTH, cp);
         cp.add(keyLabel);
@@ -121,6 +141,11 @@ public class DesCryptanalysisApplet extends javax.swing.JApplet {
         layout.putConstraint(SpringLayout.NORTH, detailsLabel, VERTICAL_SPACING_CONSTANT+530, SpringLayout.NORTH, cp);
         cp.add(detailsLabel);
 
+        layout.putConstraint(SpringLayout.WEST, progressBar, 10, SpringLayout.EAST, detailsLabel);
+        layout.putConstraint(SpringLayout.EAST, progressBar, 0, SpringLayout.EAST, detailsScrollPane);
+        layout.putConstraint(SpringLayout.NORTH, progressBar, VERTICAL_SPACING_CONSTANT+530, SpringLayout.NORTH, cp);
+        cp.add(progressBar);
+
         layout.putConstraint(SpringLayout.WEST, detailsScrollPane, 30, SpringLayout.WEST, cp);
         layout.putConstraint(SpringLayout.NORTH, detailsScrollPane, VERTICAL_SPACING_CONSTANT+550, SpringLayout.NORTH, cp);
         cp.add(detailsScrollPane);
@@ -129,76 +154,133 @@ public class DesCryptanalysisApplet extends javax.swing.JApplet {
         computeKeyButton.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
 
-                ArrayList pairsInput = new ArrayList<String>();
                 detailsTextArea.setText("");
 
-                //Get the input from the UI fields
-                int lineCount = pairsTextArea.getLineCount();
+                //Get the input from the UI fields as one string, which is
+                //parsed off the event dispatch thread
+                final String pairsInput = pairsTextArea.getText();
 
-                if (lineCount == 0)
+                if (pairsInput.trim().length() == 0)
                 {
                     keyTextField.setText("Error: Must enter plaintext/ciphertext pairs.");
                     return;
                 }
 
-                for (int i=0; i<lineCount; i++)
-                {
-                    try
+                dca = new DesCryptanalysis();
+                keyTextField.setText("Computing key...");
+                setRunning(true);
+
+                worker = new SwingWorker<Long, Void>() {
+                    protected Long doInBackground() throws Exception
                     {
-                        int beginLineOffset = pairsTextArea.getLineStartOffset(i);
-                        int endLineOffset = pairsTextArea.getLineEndOffset(i);
-                        pairsInput.add(pairsTextArea.getText(beginLineOffset, endLineOffset-beginLineOffset));
+                        return dca.determineKey(new BufferedReader(new StringReader(pairsInput)));
                     }
-                    catch (BadLocationException ex)
+
+                    protected void done()
                     {
-                        return;
+                        setRunning(false);
+
+                        if (isCancelled() || dca.isCancelled())
+                        {
+                            keyTextField.setText("Cancelled.");
+                            return;
+                        }
+
+                        long key;
+
+                        try
+                        {
+                            key = get();
+                        }
+                        catch (InterruptedException ex)
+                        {
+                            return;
+                        }
+                        catch (ExecutionException ex)
+                        {
+                            keyTextField.setText("Error: Invalid plaintext/ciphertext pairs.");
+                            return;
+                        }
+
+                        if (key == 0)
+                        {
+                            keyTextField.setText("Error: Could not determine key.");
+                            return;
+                        }
+                        else
+                        {
+                            keyTextField.setText(Long.toString(key));
+                        }
+
+                        showDetails(dca);
                     }
-                }
+                };
+                worker.execute();
+            }
+        });
 
-                DesCryptanalysis dca = new DesCryptanalysis();
-                long key = dca.determineKey(pairsInput);
+        //Add the action listener for the cancel button
+        cancelButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
 
-                if (key == 0)
+                //Stop the key search, the worker then finishes on its own
+                if (dca != null)
                 {
-                    keyTextField.setText("Error: Could not determine key.");
-                    return;
-                }
-                else
-                {
-                    keyTextField.setText(Long.toString(key));
+                    dca.cancel();
                 }
-
-                //Add information to details text box
-                detailsTextArea.append("Number of input pairs for Characteristic One: " + Integer.toString(dca.getNumberOfCharOneTuples()));
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("Number of input pairs for Characteristic Two: " + Integer.toString(dca.getNumberOfCharTwoTuples()));
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("Characteristic One Information:");
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("    SBox 2 Key Bits: " + Integer.toString(dca.getCharOneS2KeyBits()));
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("    SBox 5 Key Bits: " + Integer.toString(dca.getCharOneS5KeyBits()));
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("    SBox 6 Key Bits: " + Integer.toString(dca.getCharOneS6KeyBits()));
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("    SBox 7 Key Bits: " + Integer.toString(dca.getCharOneS7KeyBits()));
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("    SBox 8 Key Bits: " + Integer.toString(dca.getCharOneS8KeyBits()));
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("Characteristic Two Information:");
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("    SBox 1 Key Bits: " + Integer.toString(dca.getCharTwoS1KeyBits()));
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("    SBox 2 Key Bits: " + Integer.toString(dca.getCharTwoS2KeyBits()));
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("    SBox 4 Key Bits: " + Integer.toString(dca.getCharTwoS4KeyBits()));
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("    SBox 5 Key Bits: " + Integer.toString(dca.getCharTwoS5KeyBits()));
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("    SBox 6 Key Bits: " + Integer.toString(dca.getCharTwoS6KeyBits()));
-                detailsTextArea.append("\r\n");
             }
         });
     }
 
+    /**
+     * This method switches the buttons and the progress bar between the idle
+     * and the running states.
+     */
+    private void setRunning(boolean running)
+    {
+        computeKeyButton.setEnabled(!running);
+        cancelButton.setEnabled(running);
+        progressBar.setVisible(running);
+    }
+
+    /**
+     * This method shows the number of pairs and the key bits suggested by each
+     * characteristic in the details text box.
+     */
+    private void showDetails(DesCryptanalysis dca)
+    {
+        StringBuilder details = new StringBuilder();
+
+        details.append("Number of input pairs for Characteristic One: " + Integer.toString(dca.getNumberOfCharOneTuples()));
+        details.append("\r\n");
+        details.append("Number of input pairs for Characteristic Two: " + Integer.toString(dca.getNumberOfCharTwoTuples()));
+        details.append("\r\n");
+        details.append("Characteristic One Information:");
+        details.append("\r\n");
+        details.append("    SBox 2 Key Bits: " + Integer.toString(dca.getCharOneS2KeyBits()));
+        details.append("\r\n");
+        details.append("    SBox 5 Key Bits: " + Integer.toString(dca.getCharOneS5KeyBits()));
+        details.append("\r\n");
+        details.append("    SBox 6 Key Bits: " + Integer.toString(dca.getCharOneS6KeyBits()));
+        details.append("\r\n");
+        details.append("    SBox 7 Key Bits: " + Integer.toString(dca.getCharOneS7KeyBits()));
+        details.append("\r\n");
+        details.append("    SBox 8 Key Bits: " + Integer.toString(dca.getCharOneS8KeyBits()));
+        details.append("\r\n");
+        details.append("Characteristic Two Information:");
+        details.append("\r\n");
+        details.append("    SBox 1 Key Bits: " + Integer.toString(dca.getCharTwoS1KeyBits()));
+        details.append("\r\n");
+        details.append("    SBox 2 Key Bits: " + Integer.toString(dca.getCharTwoS2KeyBits()));
+        details.append("\r\n");
+        details.append("    SBox 4 Key Bits: " + Integer.toString(dca.getCharTwoS4KeyBits()));
+        details.append("\r\n");
+        details.append("    SBox 5 Key Bits: " + Integer.toString(dca.getCharTwoS5KeyBits()));
+        details.append("\r\n");
+        details.append("    SBox 6 Key Bits: " + Integer.toString(dca.getCharTwoS6KeyBits()));
+        details.append("\r\n");
+
+        detailsTextArea.setText(details.toString());
+    }
+
 }
@@ -0,0 +1,551 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * DesCryptanalysisTool.java
+ *
+ * Created on October 17, 2026, 10:05 AM
+ *
+ */
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * This class runs the cryptanalysis from the command line, without the
+ * applets. It has two commands:
+ *
+ *   java DesCryptanalysisTool generate [key=hex] [pairs=n] [rounds=6]
+ *       [characteristics=hex,...] [seed=n] [format=text|binary] [output=file]
+ *       [--ciphertext-only]
+ *
+ * encrypts pairs under the key, or under a key generated from the seed, and
+ * writes the right pairs for the characteristics. The text format is the one
+ * of generateInputPairs, written to the output file or to standard output.
+ * The binary format writes one pair file per characteristic, named after the
+ * output file with .1, .2 and so on appended.
+ *
+ *   java DesCryptanalysisTool attack [rounds=6] [characteristics=hex,...]
+ *       [input=file ...] [output=file] [--ciphertext-only]
+ *
+ * determines the key from the pairs of the input files, or of standard input
+ * if no input file or - is given. Pair files written by the binary format are
+ * mapped with determineKey(Path...). Text is streamed through buffered
+ * channels into determineKey(BufferedReader...), so neither is held in
+ * memory. The key found is printed to standard output and written to the
+ * output file, if given, and the exit status is 0 if a key was found and 1 if
+ * not.
+ *
+ * With --ciphertext-only, DesCryptanalysis runs in ciphertext-only mode:
+ * generate keeps the pairs that pass the PairFilter of their characteristic
+ * instead of the right pairs, and attack counts only the input pairs that
+ * pass it. The input of attack can then be every pair of chosen plaintexts
+ * encrypted by an oracle, without knowing which are right pairs.
+ *
+ * The characteristics are chosen from getDefaultCharacteristics for the
+ * number of rounds by their input XOR, and all of them are used by default.
+ * Progress is printed to standard error once a second unless progress=false
+ * is given.
+ *
+ * @author Kelly McLaughlin
+ */
+public class DesCryptanalysisTool {
+    //Size of the buffers between the channels and the text
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    //Time between two progress reports
+    private static final long PROGRESS_INTERVAL_MILLIS = 1000L;
+
+    private static final String USAGE =
+            "Usage: java DesCryptanalysisTool generate [key=hex] [pairs=n] [rounds=6] [characteristics=hex,...] [seed=n]\n" +
+            "           [format=text|binary] [output=file] [progress=true] [--ciphertext-only]\n" +
+            "       java DesCryptanalysisTool attack [rounds=6] [characteristics=hex,...] [input=file ...] [output=file]\n" +
+            "           [progress=true] [--ciphertext-only]";
+
+    private int rounds = DesCryptanalysis.DEFAULT_NUMBER_OF_ROUNDS;
+    private String characteristics = null;
+    private String key = null;
+    private long numberOfTuples = -1;
+    private String seed = null;
+    private boolean binary = false;
+    private String output = null;
+    private ArrayList<String> inputs = new ArrayList<String>();
+    private boolean progress = true;
+    private boolean ciphertextOnly = false;
+
+    /**
+     * Creates a new instance of DesCryptanalysisTool
+     *
+     * @param args String array specifying the options of the command as
+     * name=value
+     * @throws IllegalArgumentException if an option is unknown
+     */
+    public DesCryptanalysisTool(String[] args)
+    {
+        for (int i=0; i<args.length; i++)
+        {
+            int split = args[i].indexOf('=');
+            String name = (split >= 0) ? args[i].substring(0, split) : args[i];
+            String value = (split >= 0) ? args[i].substring(split + 1) : "";
+
+            if (name.equals("rounds"))
+            {
+                rounds = Integer.parseInt(value);
+            }
+            else if (name.equals("characteristics"))
+            {
+                characteristics = value;
+            }
+            else if (name.equals("key"))
+            {
+                key = value;
+            }
+            else if (name.equals("pairs"))
+            {
+                numberOfTuples = Long.parseLong(value);
+            }
+            else if (name.equals("seed"))
+            {
+                seed = value;
+            }
+            else if (name.equals("format") && (value.equals("text") || value.equals("binary")))
+            {
+                binary = value.equals("binary");
+            }
+            else if (name.equals("output"))
+            {
+                output = value;
+            }
+            else if (name.equals("input"))
+            {
+                inputs.add(value);
+            }
+            else if (name.equals("progress"))
+            {
+                progress = Boolean.parseBoolean(value);
+            }
+            else if (args[i].equals("--ciphertext-only"))
+            {
+                ciphertextOnly = true;
+            }
+            else
+            {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+    }
+
+    /**
+     * This method returns a DesCryptanalysis for the rounds and the
+     * characteristics given.
+     */
+    private DesCryptanalysis createCryptanalysis()
+    {
+        DesCryptanalysis dca = new DesCryptanalysis(rounds);
+
+        dca.setCiphertextOnly(ciphertextOnly);
+
+        if (characteristics != null)
+        {
+            Characteristic[] available = DesCryptanalysis.getDefaultCharacteristics(rounds);
+            String[] inputXors = characteristics.split(",");
+            Characteristic[] selected = new Characteristic[inputXors.length];
+
+            for (int i=0; i<inputXors.length; i++)
+            {
+                long inputXor = parseHex(inputXors[i]);
+
+                for (int c=0; c<available.length && selected[i] == null; c++)
+                {
+                    if (available[c].getInputXor() == inputXor)
+                    {
+                        selected[i] = available[c];
+                    }
+                }
+
+                if (selected[i] == null)
+                {
+                    throw new IllegalArgumentException("There is no characteristic 0x" + Long.toHexString(inputXor) + " for " +
+                            rounds + " rounds");
+                }
+            }
+
+            dca.setCharacteristics(selected);
+        }
+
+        return dca;
+    }
+
+    /**
+     * This method generates the pairs and writes them to the output.
+     */
+    public void generate() throws IOException
+    {
+        DesCryptanalysis dca = createCryptanalysis();
+        Characteristic[] used = dca.getCharacteristics();
+        long pairs = (numberOfTuples >= 0) ? numberOfTuples : DesCryptanalysis.getDefaultNumberOfTuples(rounds);
+        long encryptionKey;
+
+        if (binary && output == null)
+        {
+            throw new IllegalArgumentException("The binary format needs an output file");
+        }
+        if (seed != null)
+        {
+            dca.setSeed(Long.parseLong(seed));
+        }
+        if (key != null)
+        {
+            encryptionKey = parseHex(key);
+        }
+        else
+        {
+            encryptionKey = (seed != null) ? dca.generateKey(Long.parseLong(seed)) : dca.generateKey();
+        }
+        dca.setKey(encryptionKey);
+
+        System.err.println("Generating " + pairs + " pairs for each of " + used.length + " characteristics with key 0x" +
+                toHex(encryptionKey));
+
+        long start = System.nanoTime();
+        Timer timer = startProgress();
+        PairStore[] characteristicPairs;
+        String[] destinations = new String[used.length];
+
+        try
+        {
+            characteristicPairs = dca.getPairs(pairs);
+
+            if (binary)
+            {
+                for (int c=0; c<used.length; c++)
+                {
+                    destinations[c] = output + "." + (c + 1);
+
+                    try (PairFileWriter writer = new PairFileWriter(Paths.get(destinations[c]), used[c].getInputXor(), rounds))
+                    {
+                        writer.addAll(characteristicPairs[c]);
+                    }
+                }
+            }
+            else
+            {
+                try (Writer out = openOutput())
+                {
+                    writeText(characteristicPairs, out);
+                }
+
+                for (int c=0; c<used.length; c++)
+                {
+                    destinations[c] = (output != null) ? output : "standard output";
+                }
+            }
+        }
+        finally
+        {
+            stopProgress(timer);
+        }
+
+        //Pairs that pass a PairFilter include wrong pairs
+        String kind = ciphertextOnly ? "filtered" : "right";
+        for (int c=0; c<used.length; c++)
+        {
+            System.err.println(used[c].getName() + ": " + characteristicPairs[c].size() + " " + kind + " pairs written to " + destinations[c]);
+        }
+        System.err.println(String.format(Locale.ROOT, "Done in %.3f s", (System.nanoTime() - start) / 1e9));
+    }
+
+    /**
+     * This method writes pairs in the text format of generateInputPairs, with
+     * the pairs of each characteristic separated by a line of dashes.
+     */
+    private void writeText(PairStore[] characteristicPairs, Writer out) throws IOException
+    {
+        StringBuilder line = new StringBuilder(96);
+
+        for (int c=0; c<characteristicPairs.length; c++)
+        {
+            PairStore pairs = characteristicPairs[c];
+
+            if (c > 0)
+            {
+                out.write("--------------------\n");
+            }
+
+            for (int i=0; i<pairs.size(); i++)
+            {
+                line.setLength(0);
+                line.append(pairs.getX1(i)).append(';').append(pairs.getX2(i)).append(';');
+                line.append(pairs.getY1(i)).append(';').append(pairs.getY2(i)).append('\n');
+                out.append(line);
+            }
+        }
+    }
+
+    /**
+     * This method determines the key from the inputs and returns it, or zero
+     * if no key was found.
+     */
+    public long attack() throws IOException
+    {
+        DesCryptanalysis dca = createCryptanalysis();
+        Characteristic[] used = dca.getCharacteristics();
+        ArrayList<Path> pairFiles = new ArrayList<Path>();
+        ArrayList<String> textInputs = new ArrayList<String>();
+
+        if (inputs.isEmpty())
+        {
+            textInputs.add("-");
+        }
+        for (int i=0; i<inputs.size(); i++)
+        {
+            String input = inputs.get(i);
+
+            if (!input.equals("-") && isPairFile(Paths.get(input)))
+            {
+                pairFiles.add(Paths.get(input));
+            }
+            else
+            {
+                textInputs.add(input);
+            }
+        }
+        if (!pairFiles.isEmpty() && !textInputs.isEmpty())
+        {
+            throw new IllegalArgumentException("Pair files and text cannot be attacked together");
+        }
+
+        System.err.println("Attacking " + rounds + " rounds with " + used.length + " characteristics");
+
+        long start = System.nanoTime();
+        Timer timer = startProgress();
+        long foundKey;
+
+        try
+        {
+            if (!pairFiles.isEmpty())
+            {
+                foundKey = dca.determineKey(pairFiles.toArray(new Path[0]));
+            }
+            else
+            {
+                BufferedReader[] readers = new BufferedReader[textInputs.size()];
+
+                try
+                {
+                    for (int i=0; i<readers.length; i++)
+                    {
+                        readers[i] = openInput(textInputs.get(i));
+                    }
+                    foundKey = dca.determineKey(readers);
+                }
+                finally
+                {
+                    for (int i=0; i<readers.length && readers[i] != null; i++)
+                    {
+                        readers[i].close();
+                    }
+                }
+            }
+        }
+        finally
+        {
+            stopProgress(timer);
+        }
+
+        for (int c=0; c<used.length; c++)
+        {
+            System.err.println(used[c].getName() + ": " + dca.getNumberOfPairs(c) + " pairs counted");
+        }
+        System.err.println(String.format(Locale.ROOT, "Done in %.3f s", (System.nanoTime() - start) / 1e9));
+
+        if (foundKey != 0L)
+        {
+            System.out.println("0x" + toHex(foundKey));
+
+            if (output != null)
+            {
+                try (Writer out = openOutput())
+                {
+                    out.write("0x" + toHex(foundKey) + "\n");
+                }
+            }
+        }
+        else
+        {
+            System.err.println("No key found");
+        }
+
+        return foundKey;
+    }
+
+    /**
+     * This method returns true if a file starts with the magic number of the
+     * PairFile format.
+     */
+    private static boolean isPairFile(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path))
+        {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+
+            while (magic.hasRemaining() && channel.read(magic) >= 0)
+            {
+            }
+
+            return !magic.hasRemaining() && magic.getInt(0) == PairFile.MAGIC;
+        }
+    }
+
+    /**
+     * This method opens a text input, with - for standard input.
+     */
+    private static BufferedReader openInput(String input) throws IOException
+    {
+        if (input.equals("-"))
+        {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        }
+
+        return new BufferedReader(Channels.newReader(FileChannel.open(Paths.get(input)), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * This method opens the output file, or standard output if there is none.
+     * Standard output is not closed when the writer is.
+     */
+    private Writer openOutput() throws IOException
+    {
+        if (output == null)
+        {
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER_SIZE) {
+                public void close() throws IOException
+                {
+                    flush();
+                }
+            };
+        }
+
+        return new BufferedWriter(Channels.newWriter(FileChannel.open(Paths.get(output), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * This method starts printing the attack metrics to standard error once a
+     * second, unless progress is off.
+     */
+    private Timer startProgress()
+    {
+        if (!progress)
+        {
+            return null;
+        }
+
+        final AttackMetrics metrics = AttackMetrics.enable();
+        Timer timer = new Timer("progress", true);
+
+        metrics.reset();
+        timer.schedule(new TimerTask() {
+            //Totals of the last report, to compute the rates since then
+            long lastTime = System.nanoTime();
+            long[] last = new long[3];
+
+            public void run()
+            {
+                long now = System.nanoTime();
+                long[] current = { metrics.getPairsGenerated(), metrics.getPairsCounted(), metrics.getCandidatesTested() };
+                double seconds = (now - lastTime) / 1e9;
+
+                System.err.println(String.format(Locale.ROOT, "  %d pairs generated (%.0f/s), %d pairs counted (%.0f/s), %d keys tested (%.0f/s)",
+                        current[0], (current[0] - last[0]) / seconds, current[1], (current[1] - last[1]) / seconds,
+                        current[2], (current[2] - last[2]) / seconds));
+
+                lastTime = now;
+                last = current;
+            }
+        }, PROGRESS_INTERVAL_MILLIS, PROGRESS_INTERVAL_MILLIS);
+
+        return timer;
+    }
+
+    private void stopProgress(Timer timer)
+    {
+        if (timer != null)
+        {
+            timer.cancel();
+        }
+    }
+
+    private static long parseHex(String value)
+    {
+        return Long.parseUnsignedLong(value.startsWith("0x") ? value.substring(2) : value, 16);
+    }
+
+    private static String toHex(long value)
+    {
+        String hex = Long.toHexString(value);
+
+        return "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    public static void main(String[] args)
+    {
+        if (args.length == 0 || !(args[0].equals("generate") || args[0].equals("attack")))
+        {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        String[] options = new String[args.length - 1];
+        System.arraycopy(args, 1, options, 0, options.length);
+
+        try
+        {
+            DesCryptanalysisTool tool = new DesCryptanalysisTool(options);
+
+            if (args[0].equals("generate"))
+            {
+                tool.generate();
+            }
+            else if (tool.attack() == 0L)
+            {
+                System.exit(1);
+            }
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        catch (IOException e)
+        {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+    }
+}
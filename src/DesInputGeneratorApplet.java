@@ -19,26 +19,37 @@
 
 import java.awt.Container;
 import java.awt.GridBagConstraints;
+import java.awt.datatransfer.StringSelection;
+import java.awt.datatransfer.Transferable;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
 import javax.swing.JButton;
+import javax.swing.JComponent;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
+import javax.swing.JTable;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.SpringLayout;
+import javax.swing.SwingWorker;
+import javax.swing.TransferHandler;
 
 /**
  * This class implements a JApplet that provides a user the means to generate
  * or enter a DES key and subsequently generate random input pairs for use in
  * the DesCryptanalysisApplet. 20,000 pairs are generated for each of the two
  * characteristics  used in the cryptanalysis and the "right pairs" that
- * are displayed in the applet text box (See the javadoc for the
+ * are displayed in the applet table (See the javadoc for the
  * DesCryptanalysis class for more details). The output plaintext/ciphertext
- * pairs generated by this applet can be used as input for the
- * DesCryptanalysisApplet.
+ * pairs generated by this applet can be selected and copied from the table
+ * as input for the DesCryptanalysisApplet.
+ *
+ * The pairs are generated by a SwingWorker, so the applet stays responsive
+ * while they are generated, and are shown through a PairTableModel, which only
+ * formats the rows in view.
  *
  * @author Kelly McLaughlin
  */
@@ -50,15 +61,19 @@ public class DesInputGeneratorApplet extends javax.swing.JApplet {
     private JLabel keyLabel;
     private JLabel detailsLabel;
 
-    private JTextArea pairsTextArea;
+    private PairTableModel pairsTableModel;
+    private JTable pairsTable;
     private JTextArea detailsTextArea;
     private JScrollPane pairsScrollPane;
     private JScrollPane detailsScrollPane;
     private JTextField keyTextField;
     private JButton generateKeyButton;
     private JButton generateInputPairsButton;
+    private JButton cancelButton;
+    private JProgressBar progressBar;
     private JPanel errorPane;
     private GridBagConstraints c;
+    private SwingWorker<PairStore[], Void> worker;
 
     /** Creates a new instance of DesInputGenerator */
     public DesInputGeneratorApplet() {
@@ -76,14 +91,43 @@ public class DesInputGeneratorApplet extends javax.swing.JApplet {
         keyLabel = new JLabel("Key:");
         detailsLabel = new JLabel("Details:");
 
-        pairsTextArea = new JTextArea(20, 30);
+        pairsTableModel = new PairTableModel();
+        pairsTable = new JTable(pairsTableModel);
         detailsTextArea = new JTextArea(10, 30);
-        pairsScrollPane = new JScrollPane(pairsTextArea);
+        pairsScrollPane = new JScrollPane(pairsTable);
         detailsScrollPane = new JScrollPane(detailsTextArea);
         keyTextField = new JTextField(30);
 
+        //Keep the size of the text area the table replaced
+        pairsTable.setPreferredScrollableViewportSize(new JTextArea(20, 30).getPreferredSize());
+        pairsTable.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+        pairsTable.getColumnModel().getColumn(0).setPreferredWidth(120);
+        for (int column=1; column<pairsTableModel.getColumnCount(); column++)
+        {
+            pairsTable.getColumnModel().getColumn(column).setPreferredWidth(150);
+        }
+
+        //Copy the selected rows in the input format of the DesCryptanalysisApplet
+        pairsTable.setTransferHandler(new TransferHandler() {
+            public int getSourceActions(JComponent component)
+            {
+                return COPY;
+            }
+
+            protected Transferable createTransferable(JComponent component)
+            {
+                return new StringSelection(pairsTableModel.toText(pairsTable.getSelectedRows()));
+            }
+        });
+
         generateKeyButton = new JButton("Generate Key");
         generateInputPairsButton = new JButton("Generate Input Pairs");
+        cancelButton = new JButton("Cancel");
+        cancelButton.setEnabled(false);
+
+        progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(false);
 
         layout = new SpringLayout();
         cp.setLayout(layout);
@@ -112,14 +156,23 @@ public class DesInputGeneratorApplet extends javax.swing.JApplet {
         layout.putConstraint(SpringLayout.NORTH, pairsScrollPane, VERTICAL_SPACING_CONSTANT+140, SpringLayout.NORTH, cp);
         cp.add(pairsScrollPane);
 
-        layout.putConstraint(SpringLayout.WEST, generateInputPairsButton, 115, SpringLayout.WEST, cp);
+        layout.putConstraint(SpringLayout.WEST, generateInputPairsButton, 70, SpringLayout.WEST, cp);
         layout.putConstraint(SpringLayout.NORTH, generateInputPairsButton, VERTICAL_SPACING_CONSTANT+490, SpringLayout.NORTH, cp);
         cp.add(generateInputPairsButton);
 
+        layout.putConstraint(SpringLayout.WEST, cancelButton, 10, SpringLayout.EAST, generateInputPairsButton);
+        layout.putConstraint(SpringLayout.NORTH, cancelButton, VERTICAL_SPACING_CONSTANT+490, SpringLayout.NORTH, cp);
+        cp.add(cancelButton);
+
         layout.putConstraint(SpringLayout.WEST, detailsLabel, 5, SpringLayout.WEST, cp);
         layout.putConstraint(SpringLayout.NORTH, detailsLabel, VERTICAL_SPACING_CONSTANT+530, SpringLayout.NORTH, cp);
         cp.add(detailsLabel);
 
+        layout.putConstraint(SpringLayout.WEST, progressBar, 10, SpringLayout.EAST, detailsLabel);
+        layout.putConstraint(SpringLayout.EAST, progressBar, 0, SpringLayout.EAST, detailsScrollPane);
+        layout.putConstraint(SpringLayout.NORTH, progressBar, VERTICAL_SPACING_CONSTANT+530, SpringLayout.NORTH, cp);
+        cp.add(progressBar);
+
         layout.putConstraint(SpringLayout.WEST, detailsScrollPane, 30, SpringLayout.WEST, cp);
         layout.putConstraint(SpringLayout.NORTH, detailsScrollPane, VERTICAL_SPACING_CONSTANT+550, SpringLayout.NORTH, cp);
         cp.add(detailsScrollPane);
@@ -139,51 +192,119 @@ public class DesInputGeneratorApplet extends javax.swing.JApplet {
         generateInputPairsButton.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
 
-                long key = 0;
+                final long key;
 
                 String keyString = keyTextField.getText();
 
-                if (keyString == null || keyString.equals(""))
+                if (keyString == null || keyString.trim().equals(""))
                 {
-                    pairsTextArea.setText("Error: You must specify a key before generating input pairs.");
+                    detailsTextArea.setText("Error: You must specify a key before generating input pairs.");
                     return;
                 }
-                else
+
+                try
                 {
-                    key = Long.parseLong(keyString);
+                    key = Long.parseLong(keyString.trim());
                 }
-
-                DesCryptanalysis dca = new DesCryptanalysis();
-                dca.setKey(key);
-
-                ArrayList inputPairs = dca.generateInputPairs();
-
-                int numberOfPairs = inputPairs.size();
-
-                pairsTextArea.setText("");
-                detailsTextArea.setText("");
-                for (int i=0; i<numberOfPairs; i++)
+                catch (NumberFormatException ex)
                 {
-                    pairsTextArea.append((String)inputPairs.get(i));
+                    detailsTextArea.setText("Error: The key must be a decimal number.");
+                    return;
                 }
 
-                //Add the details of the proces to the details text box
-                detailsTextArea.append("Number of pairs generated: " + Integer.toString(DesCryptanalysis.DEFAULT_NUMBER_OF_TUPLES));
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("Number of right pairs for Characteristic One: " + dca.getNumberOfCharOneTuples());
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("Number of right pairs for Characteristic Two: " + dca.getNumberOfCharTwoTuples());
-                detailsTextArea.append("\r\n");
-                detailsTextArea.append("Perentage of right pairs for Characteristic One: " +
-                        Float.toString((((float)dca.getNumberOfCharOneTuples()/(float)DesCryptanalysis.DEFAULT_NUMBER_OF_TUPLES) * 100)));
-                detailsTextArea.append("%\r\n");
-                detailsTextArea.append("Percentage of right pairs for Characteristic Two: " +
-                        Float.toString((((float)dca.getNumberOfCharTwoTuples()/(float)DesCryptanalysis.DEFAULT_NUMBER_OF_TUPLES) * 100)));
-                detailsTextArea.append("%\r\n");
-
+                final DesCryptanalysis dca = new DesCryptanalysis();
+                final long numberOfTuples = DesCryptanalysis.getDefaultNumberOfTuples(dca.getRounds());
+
+                pairsTableModel.setPairs(new PairStore[0], new String[0]);
+                detailsTextArea.setText("Generating " + numberOfTuples + " pairs for each characteristic...");
+                setRunning(true);
+
+                //Generate the pairs off the event dispatch thread
+                worker = new SwingWorker<PairStore[], Void>() {
+                    protected PairStore[] doInBackground()
+                    {
+                        dca.setKey(key);
+
+                        return dca.getPairs(numberOfTuples);
+                    }
+
+                    protected void done()
+                    {
+                        setRunning(false);
+
+                        if (isCancelled())
+                        {
+                            detailsTextArea.setText("Generation cancelled.");
+                            return;
+                        }
+
+                        PairStore[] pairs;
+
+                        try
+                        {
+                            pairs = get();
+                        }
+                        catch (InterruptedException ex)
+                        {
+                            return;
+                        }
+                        catch (ExecutionException ex)
+                        {
+                            detailsTextArea.setText("Error: " + ex.getCause());
+                            return;
+                        }
+
+                        Characteristic[] characteristics = dca.getCharacteristics();
+                        String[] names = new String[characteristics.length];
+                        StringBuilder details = new StringBuilder();
+
+                        //Add the details of the proces to the details text box
+                        details.append("Number of pairs generated: " + Long.toString(numberOfTuples));
+                        details.append("\r\n");
+                        for (int c=0; c<characteristics.length; c++)
+                        {
+                            names[c] = characteristics[c].getName();
+                            details.append("Number of right pairs for " + names[c] + ": " + pairs[c].size());
+                            details.append("\r\n");
+                        }
+                        for (int c=0; c<characteristics.length; c++)
+                        {
+                            details.append("Percentage of right pairs for " + names[c] + ": " +
+                                    Float.toString((((float)pairs[c].size()/(float)numberOfTuples) * 100)));
+                            details.append("%\r\n");
+                        }
+                        details.append("Select the pairs and copy them to use them in the DesCryptanalysisApplet.");
+
+                        pairsTableModel.setPairs(pairs, names);
+                        detailsTextArea.setText(details.toString());
+                    }
+                };
+                worker.execute();
+            }
+        });
 
+        /** Add the action listener for the cancel button */
+        cancelButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
 
+                //The generation cannot be interrupted, its pairs are discarded
+                if (worker != null)
+                {
+                    worker.cancel(false);
+                }
             }
         });
     }
+
+    /**
+     * This method switches the buttons and the progress bar between the idle
+     * and the running states.
+     */
+    private void setRunning(boolean running)
+    {
+        generateKeyButton.setEnabled(!running);
+        generateInputPairsButton.setEnabled(!running);
+        cancelButton.setEnabled(running);
+        progressBar.setVisible(running);
+    }
 }
@@ -0,0 +1,295 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * DifferenceTables.java
+ *
+ * Created on October 17, 2026, 2:30 AM
+ *
+ */
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * This class holds the difference and linear tables of the eight SBoxes. They
+ * are computed once when the class is loaded and shared by all analysis code.
+ * All tables are flat arrays indexed by SBox (numbered from 1), input and
+ * output, and are never modified after they are built.
+ *
+ * The difference distribution table counts, for each input XOR and output
+ * XOR, the number of inputs x for which x and x XOR the input XOR produce
+ * outputs with that XOR. For the same input XOR and output XOR, the solution
+ * mask has bit x set for each such x. The linear approximation table holds,
+ * for each input mask and output mask, the number of inputs for which the
+ * parities of the masked input and the masked output agree, minus 32.
+ *
+ * @author Kelly McLaughlin
+ */
+public class DifferenceTables {
+    //Entry ((k-1)*64 + inputXor)*16 + outputXor
+    private static final int[] DDT = new int[8*64*16];
+    private static final long[] SOLUTION_MASKS = new long[8*64*16];
+
+    //Entry ((k-1)*64 + inputMask)*16 + outputMask
+    private static final int[] LAT = new int[8*64*16];
+
+    //Entry (k-1)*64 + inputXor has bit outputXor set if the DDT entry is not
+    //zero
+    private static final int[] POSSIBLE_OUTPUT_XORS = new int[8*64];
+
+    //Entry (k-1)*64 + inputXor holds the largest DDT entry for the input XOR
+    private static final int[] MAX_COUNTS = new int[8*64];
+
+    //Entry (k-1)*64 + inputXor lists the possible output XORs from the most to
+    //the least likely
+    private static final int[][] SORTED_OUTPUT_XORS = new int[8*64][];
+
+    //Entry k-1 lists the pairs (inputXor << 4) | outputXor with a non zero
+    //input XOR and a non zero DDT entry from the most to the least likely
+    private static final int[][] SORTED_DIFFERENCES = new int[8][];
+
+    static
+    {
+        for (int k=1; k<=8; k++)
+        {
+            int base = (k-1)*64;
+
+            for (int inputXor=0; inputXor<64; inputXor++)
+            {
+                for (int x=0; x<64; x++)
+                {
+                    int outputXor = SBox.getSboxValue(x, k) ^ SBox.getSboxValue(x ^ inputXor, k);
+                    int index = ((base + inputXor) << 4) | outputXor;
+
+                    DDT[index]++;
+                    SOLUTION_MASKS[index] |= 1L << x;
+                    POSSIBLE_OUTPUT_XORS[base + inputXor] |= 1 << outputXor;
+                }
+
+                int count = Integer.bitCount(POSSIBLE_OUTPUT_XORS[base + inputXor]);
+                Integer[] outputXors = new Integer[count];
+                count = 0;
+                for (int outputXor=0; outputXor<16; outputXor++)
+                {
+                    int entry = DDT[((base + inputXor) << 4) | outputXor];
+
+                    if (entry != 0)
+                    {
+                        outputXors[count++] = outputXor;
+                        MAX_COUNTS[base + inputXor] = Math.max(MAX_COUNTS[base + inputXor], entry);
+                    }
+                }
+                sortByCount(outputXors, base + inputXor);
+
+                SORTED_OUTPUT_XORS[base + inputXor] = new int[outputXors.length];
+                for (int i=0; i<outputXors.length; i++)
+                {
+                    SORTED_OUTPUT_XORS[base + inputXor][i] = outputXors[i];
+                }
+            }
+
+            int count = 0;
+            for (int inputXor=1; inputXor<64; inputXor++)
+            {
+                count += SORTED_OUTPUT_XORS[base + inputXor].length;
+            }
+            Integer[] differences = new Integer[count];
+            count = 0;
+            for (int inputXor=1; inputXor<64; inputXor++)
+            {
+                for (int outputXor : SORTED_OUTPUT_XORS[base + inputXor])
+                {
+                    differences[count++] = (inputXor << 4) | outputXor;
+                }
+            }
+            sortByCount(differences, base);
+
+            SORTED_DIFFERENCES[k-1] = new int[differences.length];
+            for (int i=0; i<differences.length; i++)
+            {
+                SORTED_DIFFERENCES[k-1][i] = differences[i];
+            }
+
+            for (int inputMask=0; inputMask<64; inputMask++)
+            {
+                for (int outputMask=0; outputMask<16; outputMask++)
+                {
+                    int agree = 0;
+                    for (int x=0; x<64; x++)
+                    {
+                        if (((Integer.bitCount(x & inputMask) ^ Integer.bitCount(SBox.getSboxValue(x, k) & outputMask)) & 1) == 0)
+                        {
+                            agree++;
+                        }
+                    }
+                    LAT[((base + inputMask) << 4) | outputMask] = agree - 32;
+                }
+            }
+        }
+    }
+
+    private DifferenceTables() {
+    }
+
+    /**
+     * This method sorts DDT entries by decreasing count. Each value is the
+     * index of an entry relative to the start of row base. Equal counts keep
+     * their original order.
+     */
+    private static void sortByCount(Integer[] values, final int base)
+    {
+        Arrays.sort(values, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b)
+            {
+                return DDT[(base << 4) + b] - DDT[(base << 4) + a];
+            }
+        });
+    }
+
+    /**
+     * This method returns the number of inputs of an SBox for which the input
+     * XOR gives the output XOR.
+     *
+     * @param sboxIndex int value specifying the SBox, from 1-8
+     * @param inputXor int value specifying the 6 bit input XOR
+     * @param outputXor int value specifying the 4 bit output XOR
+     */
+    public static int getDifferenceCount(int sboxIndex, int inputXor, int outputXor)
+    {
+        return DDT[(((sboxIndex-1)*64 + inputXor) << 4) | outputXor];
+    }
+
+    /**
+     * This method returns the probability that the input XOR gives the output
+     * XOR in an SBox.
+     *
+     * @param sboxIndex int value specifying the SBox, from 1-8
+     * @param inputXor int value specifying the 6 bit input XOR
+     * @param outputXor int value specifying the 4 bit output XOR
+     */
+    public static double getDifferenceProbability(int sboxIndex, int inputXor, int outputXor)
+    {
+        return getDifferenceCount(sboxIndex, inputXor, outputXor) / 64.0;
+    }
+
+    /**
+     * This method returns a long with bit x set for each input x of an SBox
+     * for which x and x XOR the input XOR give outputs with the output XOR.
+     *
+     * @param sboxIndex int value specifying the SBox, from 1-8
+     * @param inputXor int value specifying the 6 bit input XOR
+     * @param outputXor int value specifying the 4 bit output XOR
+     */
+    public static long getSolutionMask(int sboxIndex, int inputXor, int outputXor)
+    {
+        return SOLUTION_MASKS[(((sboxIndex-1)*64 + inputXor) << 4) | outputXor];
+    }
+
+    /**
+     * This method returns an int with bit y set for each output XOR y that an
+     * SBox can produce from the input XOR.
+     *
+     * @param sboxIndex int value specifying the SBox, from 1-8
+     * @param inputXor int value specifying the 6 bit input XOR
+     */
+    public static int getPossibleOutputXors(int sboxIndex, int inputXor)
+    {
+        return POSSIBLE_OUTPUT_XORS[(sboxIndex-1)*64 + inputXor];
+    }
+
+    /**
+     * This method returns the largest difference count of an input XOR over
+     * all output XORs.
+     *
+     * @param sboxIndex int value specifying the SBox, from 1-8
+     * @param inputXor int value specifying the 6 bit input XOR
+     */
+    public static int getMaxDifferenceCount(int sboxIndex, int inputXor)
+    {
+        return MAX_COUNTS[(sboxIndex-1)*64 + inputXor];
+    }
+
+    /**
+     * This method returns the output XORs an SBox can produce from the input
+     * XOR, from the most to the least likely. The array must not be modified.
+     *
+     * @param sboxIndex int value specifying the SBox, from 1-8
+     * @param inputXor int value specifying the 6 bit input XOR
+     */
+    public static int[] getSortedOutputXors(int sboxIndex, int inputXor)
+    {
+        return SORTED_OUTPUT_XORS[(sboxIndex-1)*64 + inputXor];
+    }
+
+    /**
+     * This method returns every possible pair of a non zero input XOR and an
+     * output XOR of an SBox as (inputXor << 4) | outputXor, from the most to
+     * the least likely. The array must not be modified.
+     *
+     * @param sboxIndex int value specifying the SBox, from 1-8
+     */
+    public static int[] getSortedDifferences(int sboxIndex)
+    {
+        return SORTED_DIFFERENCES[sboxIndex-1];
+    }
+
+    /**
+     * This method returns the number of inputs of an SBox for which the
+     * parity of the input bits in the input mask equals the parity of the
+     * output bits in the output mask, minus 32.
+     *
+     * @param sboxIndex int value specifying the SBox, from 1-8
+     * @param inputMask int value specifying the 6 bit input mask
+     * @param outputMask int value specifying the 4 bit output mask
+     */
+    public static int getLinearBias(int sboxIndex, int inputMask, int outputMask)
+    {
+        return LAT[(((sboxIndex-1)*64 + inputMask) << 4) | outputMask];
+    }
+
+    /**
+     * This method returns a copy of the difference distribution table of an
+     * SBox as 64 rows of 16 counts, indexed by input XOR and output XOR.
+     *
+     * @param sboxIndex int value specifying the SBox, from 1-8
+     */
+    public static int[][] getDifferenceDistribution(int sboxIndex)
+    {
+        int[][] distribution = new int[64][16];
+
+        for (int i=0; i<64; i++)
+        {
+            System.arraycopy(DDT, ((sboxIndex-1)*64 + i) << 4, distribution[i], 0, 16);
+        }
+
+        return distribution;
+    }
+
+    /**
+     * This method returns a copy of the linear approximation table of an SBox
+     * as 64 rows of 16 entries, indexed by input mask and output mask.
+     *
+     * @param sboxIndex int value specifying the SBox, from 1-8
+     */
+    public static int[][] getLinearApproximationTable(int sboxIndex)
+    {
+        int[][] table = new int[64][16];
+
+        for (int i=0; i<64; i++)
+        {
+            System.arraycopy(LAT, ((sboxIndex-1)*64 + i) << 4, table[i], 0, 16);
+        }
+
+        return table;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * ExpandedKey.java
+ *
+ * Created on October 16, 2026, 10:05 PM
+ *
+ */
+
+/**
+ * This class holds a DES key together with its precomputed round keys for all
+ * 16 rounds. It is created with KeySchedule.expandKey and lets DES encrypt and
+ * decrypt any number of blocks under the same key without running the key
+ * schedule again.
+ *
+ * @author Kelly McLaughlin
+ */
+public class ExpandedKey {
+
+    private long key;
+    private long[] roundKeys;
+
+    /**
+     * Creates a new instance of ExpandedKey
+     *
+     * @param key long value specifying the key
+     * @param roundKeys long array holding the 16 encryption round keys of key
+     */
+    ExpandedKey(long key, long[] roundKeys)
+    {
+        this.key = key;
+        this.roundKeys = roundKeys;
+    }
+
+    /**
+     * Getter for the key
+     */
+    public long getKey()
+    {
+        return key;
+    }
+
+    /**
+     * This method returns the 48 bit encryption round key for the given round.
+     *
+     * @param round int value specifying the round, counting from 0
+     */
+    public long getRoundKey(int round)
+    {
+        return roundKeys[round];
+    }
+
+    /**
+     * This method returns the encryption round keys without copying them, for
+     * use in the DES round loop. Only KeyCandidateEnumerator, which updates a
+     * candidate key in place, may modify the array.
+     */
+    long[] getRoundKeys()
+    {
+        return roundKeys;
+    }
+
+    /**
+     * Setter for the key, for use together with updating the round keys in
+     * place.
+     *
+     * @param key long value specifying the key
+     */
+    void setKey(long key)
+    {
+        this.key = key;
+    }
+}
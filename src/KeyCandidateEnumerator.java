@@ -0,0 +1,259 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * KeyCandidateEnumerator.java
+ *
+ * Created on October 16, 2026, 10:31 PM
+ *
+ */
+
+/**
+ * This class enumerates the candidate keys that agree with a partly known
+ * round key of the last encryption round. The known round key bits fix the key
+ * bits they are selected from, and the remaining key bits (the bits of the
+ * unknown SBox subkeys plus the 8 key bits that PC2 drops) are guessed.
+ *
+ * Because the key schedule only selects key bits, the round keys of a
+ * candidate are the round keys of the fixed part of the key XORed with the
+ * round keys of each guessed bit that is set. All of these are computed once
+ * up front. The candidates are visited in Gray code order, so moving from one
+ * candidate to the next flips a single guessed bit and costs one XOR per
+ * round.
+ *
+ * The guessed bits that do not appear in the last round key are the low bits
+ * of the guess, so they change most often and the last round key changes only
+ * once every 256 candidates.
+ *
+ * @author Kelly McLaughlin
+ */
+public class KeyCandidateEnumerator {
+
+    private int rounds;
+    private int numberOfGuessBits;
+    private int numberOfDroppedBits;
+    private long baseKey;
+    private long[] baseRoundKeys;
+    private long[] guessKeyBits;
+    private long[][] guessRoundKeys;
+
+    /**
+     * Creates a new instance of KeyCandidateEnumerator
+     *
+     * @param roundKey long value specifying the known bits of the 48 bit round
+     * key of the last round
+     * @param knownMask long value with a bit set for each round key bit that is
+     * known
+     * @param rounds int value specifying the number of encryption rounds
+     */
+    public KeyCandidateEnumerator(long roundKey, long knownMask, int rounds)
+    {
+        this.rounds = rounds;
+
+        boolean[] inRoundKey = new boolean[64];
+        int[] guessSource = new int[56];
+
+        baseKey = 0L;
+        for (int t=0; t<48; t++)
+        {
+            int source = KeySchedule.getRoundKeyBitSource(rounds-1, t);
+            inRoundKey[source] = true;
+
+            if ((knownMask & (1L << t)) != 0 && (roundKey & (1L << t)) != 0)
+            {
+                baseKey |= 1L << source;
+            }
+        }
+
+        //The key bits missing from the last round key come first, followed by
+        //the bits of the unknown round key bits. Bits 0, 8, ..., 56 are the
+        //parity bits.
+        numberOfGuessBits = 0;
+        for (int b=1; b<64; b++)
+        {
+            if ((b & 7) != 0 && !inRoundKey[b])
+            {
+                guessSource[numberOfGuessBits++] = b;
+            }
+        }
+        numberOfDroppedBits = numberOfGuessBits;
+        for (int t=0; t<48; t++)
+        {
+            if ((knownMask & (1L << t)) == 0)
+            {
+                guessSource[numberOfGuessBits++] = KeySchedule.getRoundKeyBitSource(rounds-1, t);
+            }
+        }
+
+        baseRoundKeys = getRoundKeys(baseKey);
+        guessKeyBits = new long[numberOfGuessBits];
+        guessRoundKeys = new long[numberOfGuessBits][];
+
+        for (int g=0; g<numberOfGuessBits; g++)
+        {
+            guessKeyBits[g] = 1L << guessSource[g];
+            guessRoundKeys[g] = getRoundKeys(guessKeyBits[g]);
+        }
+    }
+
+    /**
+     * This method returns the number of guessed key bits.
+     */
+    public int getNumberOfGuessBits()
+    {
+        return numberOfGuessBits;
+    }
+
+    /**
+     * This method returns the number of guessed key bits that are not part of
+     * the last round key. These are the low bits of the guess, so the last
+     * round key stays the same within each aligned block of
+     * 2^getNumberOfDroppedBits() candidates.
+     */
+    public int getNumberOfDroppedBits()
+    {
+        return numberOfDroppedBits;
+    }
+
+    /**
+     * This method returns the number of candidate keys.
+     */
+    public long getNumberOfCandidates()
+    {
+        return 1L << numberOfGuessBits;
+    }
+
+    /**
+     * This method returns a new ExpandedKey set to the first candidate.
+     */
+    public ExpandedKey createCandidate()
+    {
+        ExpandedKey candidate = new ExpandedKey(0L, new long[16]);
+
+        setCandidate(0L, candidate);
+
+        return candidate;
+    }
+
+    /**
+     * This method sets an ExpandedKey to the candidate with the given index.
+     *
+     * @param index long value specifying the index of the candidate
+     * @param candidate ExpandedKey to update in place
+     */
+    public void setCandidate(long index, ExpandedKey candidate)
+    {
+        long guess = index ^ (index >>> 1);
+        long[] roundKeys = candidate.getRoundKeys();
+
+        System.arraycopy(baseRoundKeys, 0, roundKeys, 0, rounds);
+
+        for (int g=0; g<numberOfGuessBits; g++)
+        {
+            if ((guess & (1L << g)) != 0)
+            {
+                for (int r=0; r<rounds; r++)
+                {
+                    roundKeys[r] ^= guessRoundKeys[g][r];
+                }
+            }
+        }
+
+        candidate.setKey(getCandidateKey(index));
+    }
+
+    /**
+     * This method moves an ExpandedKey from the candidate with index-1 to the
+     * candidate with the given index. Only one guessed bit differs between
+     * the two, so this costs one XOR per round.
+     *
+     * @param index long value specifying the index of the next candidate
+     * @param candidate ExpandedKey holding the candidate with index-1
+     */
+    public void nextCandidate(long index, ExpandedKey candidate)
+    {
+        int g = Long.numberOfTrailingZeros(index);
+        long[] roundKeys = candidate.getRoundKeys();
+        long[] delta = guessRoundKeys[g];
+
+        for (int r=0; r<rounds; r++)
+        {
+            roundKeys[r] ^= delta[r];
+        }
+
+        //Flipping one key bit also flips the parity bit of its byte
+        candidate.setKey(candidate.getKey() ^ guessKeyBits[g] ^ (1L << (Long.numberOfTrailingZeros(guessKeyBits[g]) & ~7)));
+    }
+
+    /**
+     * This method returns the key, including parity bits, of the candidate
+     * with the given index.
+     *
+     * @param index long value specifying the index of the candidate
+     */
+    public long getCandidateKey(long index)
+    {
+        long guess = index ^ (index >>> 1);
+        long key = baseKey;
+
+        for (int g=0; g<numberOfGuessBits; g++)
+        {
+            if ((guess & (1L << g)) != 0)
+            {
+                key |= guessKeyBits[g];
+            }
+        }
+
+        return addParityBits(key);
+    }
+
+    /**
+     * This method returns the round keys of a key as the plain selection of key
+     * bits made by the key schedule.
+     */
+    private long[] getRoundKeys(long key)
+    {
+        long[] roundKeys = new long[rounds];
+
+        for (int r=0; r<rounds; r++)
+        {
+            for (int t=0; t<48; t++)
+            {
+                if ((key & (1L << KeySchedule.getRoundKeyBitSource(r, t))) != 0)
+                {
+                    roundKeys[r] |= 1L << t;
+                }
+            }
+        }
+
+        return roundKeys;
+    }
+
+    /**
+     * This method sets the parity bit of each byte of the key so that every
+     * byte has odd parity.
+     */
+    private static long addParityBits(long key)
+    {
+        long retval = key & 0xfefefefefefefefeL;
+
+        for (int n=0; n<64; n+=8)
+        {
+            if ((Long.bitCount(retval & (0xffL << n)) & 1) == 0)
+            {
+                retval |= 1L << n;
+            }
+        }
+
+        return retval;
+    }
+}
@@ -0,0 +1,446 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * KeyCounter.java
+ *
+ * Created on October 17, 2026, 1:05 AM
+ *
+ */
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * This class counts the subkeys of the last encryption round suggested by
+ * pairs for a characteristic. For each pair, the left half XOR of the
+ * ciphertexts together with the left half XOR expected from the characteristic
+ * gives the output XOR of the last round SBoxes, and each SBox subkey that
+ * maps the right half of both ciphertexts to that output XOR is counted. The
+ * subkey counted most often is the one suggested by the characteristic.
+ *
+ * Only the counters are kept, so pairs can be added one at a time or in
+ * batches from any source and in any amount, and the current best subkeys can
+ * be read at any time. Pairs may be added from several threads; batches are
+ * counted without holding the lock and then merged.
+ *
+ * The subkeys suggested by a pair are not found by trying all 64 subkeys for
+ * each SBox. For every SBox, input XOR and output XOR, the set of SBox inputs
+ * x for which x and x XOR the input XOR give that output XOR is precomputed as
+ * a 64 bit mask, and a pair whose first SBox input is e1 suggests exactly the
+ * subkeys x XOR e1. The masks are taken from DifferenceTables.
+ *
+ * Arrays of pairs can be counted by the VectorCountingKernel instead, which
+ * uses the Java Vector API. It is switched on with setVectorKernelEnabled or
+ * by setting the system property des.vectorKernel to true, and requires the
+ * jdk.incubator.vector module at run time.
+ *
+ * @author Kelly McLaughlin
+ */
+public class KeyCounter {
+    //Inverse of the permutation P as the XOR of one lookup per byte of the
+    //input. The entry at (n*256 + b) holds InverseP of b placed in byte n,
+    //counting from the most significant byte.
+    static final int[] INVERSE_P_TABLE = new int[4*256];
+
+    //Kernel counting arrays of pairs, or null to count them here
+    private static volatile CountingKernel kernel = null;
+
+    //Number of pairs added one at a time that are reported to the metrics
+    //together
+    private static final int METRICS_BATCH_SIZE = 4096;
+
+    static
+    {
+        ExpansionPermutation ep = new ExpansionPermutation();
+
+        for (int n=0; n<4; n++)
+        {
+            for (int b=0; b<256; b++)
+            {
+                INVERSE_P_TABLE[n*256 + b] = ep.InverseP(b << (24 - 8*n));
+            }
+        }
+
+        setVectorKernelEnabled(Boolean.getBoolean("des.vectorKernel"));
+    }
+
+    private int expectedXor;
+    private int[] sboxes;
+    private long[] counts;
+    private long pairCount;
+    private long unreportedPairs;
+
+    /**
+     * Creates a new instance of KeyCounter
+     *
+     * @param expectedXor int value specifying the left half XOR of the
+     * ciphertexts expected for a right pair, ignoring the last round
+     * @param sboxes int array specifying the SBoxes, numbered from 1, whose
+     * subkeys are counted
+     */
+    public KeyCounter(int expectedXor, int[] sboxes)
+    {
+        this.expectedXor = expectedXor;
+        this.sboxes = sboxes.clone();
+        counts = new long[sboxes.length * 64];
+        pairCount = 0;
+    }
+
+    /**
+     * This method selects whether arrays of pairs are counted by the
+     * VectorCountingKernel. The kernel is only used if it can be loaded, which
+     * requires the jdk.incubator.vector module; otherwise the pairs are
+     * counted one at a time as before. The setting applies to all KeyCounters.
+     *
+     * @param enabled boolean value specifying whether to use the kernel
+     * @return true if the kernel is now in use
+     */
+    public static boolean setVectorKernelEnabled(boolean enabled)
+    {
+        CountingKernel newKernel = null;
+
+        if (enabled)
+        {
+            try
+            {
+                newKernel = (CountingKernel)Class.forName("VectorCountingKernel").getDeclaredConstructor().newInstance();
+            }
+            catch (ReflectiveOperationException | LinkageError e)
+            {
+                newKernel = null;
+            }
+        }
+
+        kernel = newKernel;
+
+        return newKernel != null;
+    }
+
+    /**
+     * This method returns true if arrays of pairs are counted by the
+     * VectorCountingKernel.
+     */
+    public static boolean isVectorKernelEnabled()
+    {
+        return kernel != null;
+    }
+
+    /**
+     * This method returns a new KeyCounter for the same characteristic with
+     * all counters at zero.
+     */
+    public KeyCounter createEmpty()
+    {
+        return new KeyCounter(expectedXor, sboxes);
+    }
+
+    /**
+     * Getter for the SBoxes whose subkeys are counted
+     */
+    public int[] getSboxes()
+    {
+        return sboxes.clone();
+    }
+
+    /**
+     * This method counts the subkeys suggested by one pair. The pairs added
+     * this way are reported to the metrics METRICS_BATCH_SIZE at a time, or
+     * with the next batch merged.
+     *
+     * @param y1 long value specifying the ciphertext of the first plaintext
+     * @param y2 long value specifying the ciphertext of the second plaintext
+     */
+    public synchronized void add(long y1, long y2)
+    {
+        count(y1, y2, counts);
+        pairCount++;
+
+        if (++unreportedPairs == METRICS_BATCH_SIZE)
+        {
+            reportPairs(unreportedPairs);
+            unreportedPairs = 0;
+        }
+    }
+
+    /**
+     * This method counts the subkeys suggested by the first count pairs of two
+     * arrays of ciphertexts.
+     *
+     * @param y1 long array specifying the ciphertexts of the first plaintexts
+     * @param y2 long array specifying the ciphertexts of the second plaintexts
+     * @param count int value specifying the number of pairs
+     */
+    public void addAll(long[] y1, long[] y2, int count)
+    {
+        long[] batch = new long[counts.length];
+        CountingKernel batchKernel = kernel;
+
+        if (batchKernel != null)
+        {
+            batchKernel.count(expectedXor, sboxes, y1, y2, count, batch);
+        }
+        else
+        {
+            for (int i=0; i<count; i++)
+            {
+                count(y1[i], y2[i], batch);
+            }
+        }
+
+        merge(batch, count);
+    }
+
+    /**
+     * This method counts the subkeys suggested by all pairs of a PairStore.
+     *
+     * @param pairs PairStore holding the pairs
+     */
+    public void addAll(PairStore pairs)
+    {
+        for (int c=0; c<pairs.getNumberOfChunks(); c++)
+        {
+            addAll(pairs.getY1Chunk(c), pairs.getY2Chunk(c), pairs.getChunkLength(c));
+        }
+    }
+
+    /**
+     * This method counts the subkeys suggested by all pairs of a pair file.
+     * The pairs are read from the mapped file one batch at a time.
+     *
+     * @param reader PairFileReader for the file holding the pairs
+     */
+    public void addAll(PairFileReader reader)
+    {
+        addAll(reader, null);
+    }
+
+    /**
+     * This method counts the subkeys suggested by the pairs of a pair file
+     * that pass a PairFilter. The pairs are read from the mapped file one
+     * batch at a time.
+     *
+     * @param reader PairFileReader for the file holding the pairs
+     * @param filter PairFilter deciding which pairs to count, or null to count
+     * all of them
+     */
+    public void addAll(PairFileReader reader, PairFilter filter)
+    {
+        long[] batch = new long[counts.length];
+        long pairs = reader.getPairCount();
+        long counted = 0;
+
+        for (long i=0; i<pairs; i++)
+        {
+            long y1 = reader.getY1(i);
+            long y2 = reader.getY2(i);
+
+            if (filter == null || filter.accept(y1, y2))
+            {
+                count(y1, y2, batch);
+                counted++;
+            }
+
+            if ((i & (PairStore.CHUNK_SIZE - 1)) == PairStore.CHUNK_SIZE - 1)
+            {
+                merge(batch, counted);
+                batch = new long[counts.length];
+                counted = 0;
+            }
+        }
+
+        merge(batch, counted);
+    }
+
+    /**
+     * This method counts the subkeys suggested by all remaining pairs of an
+     * Iterator of Tuples.
+     *
+     * @param tuples Iterator of Tuples holding the pairs
+     */
+    public void addAll(Iterator<Tuple> tuples)
+    {
+        long[] batch = new long[counts.length];
+        long pairs = 0;
+
+        while (tuples.hasNext())
+        {
+            Tuple tuple = tuples.next();
+            count(tuple.getY1(), tuple.getY2(), batch);
+            pairs++;
+        }
+
+        merge(batch, pairs);
+    }
+
+    /**
+     * This method counts the subkeys suggested by all remaining pairs of a
+     * Spliterator of Tuples.
+     *
+     * @param tuples Spliterator of Tuples holding the pairs
+     */
+    public void addAll(Spliterator<Tuple> tuples)
+    {
+        final long[] batch = new long[counts.length];
+        final long[] pairs = new long[1];
+
+        tuples.forEachRemaining(new Consumer<Tuple>() {
+            public void accept(Tuple tuple)
+            {
+                count(tuple.getY1(), tuple.getY2(), batch);
+                pairs[0]++;
+            }
+        });
+
+        merge(batch, pairs[0]);
+    }
+
+    /**
+     * This method adds the counters of another KeyCounter for the same
+     * characteristic to this one.
+     *
+     * @param other KeyCounter whose counters are added
+     */
+    public void merge(KeyCounter other)
+    {
+        long[] otherCounts;
+        long otherPairCount;
+
+        synchronized (other)
+        {
+            otherCounts = other.counts.clone();
+            otherPairCount = other.pairCount;
+        }
+
+        merge(otherCounts, otherPairCount);
+    }
+
+    /**
+     * This method adds a batch of counters, counted with count, and the number
+     * of pairs in the batch.
+     */
+    synchronized void merge(long[] batch, long pairs)
+    {
+        for (int i=0; i<counts.length; i++)
+        {
+            counts[i] += batch[i];
+        }
+        pairCount += pairs;
+
+        reportPairs(pairs + unreportedPairs);
+        unreportedPairs = 0;
+    }
+
+    private static void reportPairs(long pairs)
+    {
+        AttackMetrics metrics = AttackMetrics.getInstance();
+        if (metrics != null)
+        {
+            metrics.addCountedPairs(pairs);
+        }
+    }
+
+    /**
+     * This method returns the inverse of the permutation P of a value from
+     * INVERSE_P_TABLE. It is shared with PairFilter.
+     */
+    static int inverseP(int value)
+    {
+        return INVERSE_P_TABLE[value >>> 24] ^ INVERSE_P_TABLE[256 | ((value >>> 16) & 0xff)] ^
+                INVERSE_P_TABLE[512 | ((value >>> 8) & 0xff)] ^ INVERSE_P_TABLE[768 | (value & 0xff)];
+    }
+
+    /**
+     * This method counts the subkeys suggested by one pair into a counter
+     * array of the same size as the counters of this KeyCounter, without
+     * touching the counters themselves.
+     */
+    void count(long y1, long y2, long[] counter)
+    {
+        int r1 = (int)y1;
+        int r2 = (int)y2;
+
+        //Determine the output XOR of the last round of SBoxes
+        int lPrime = (int)(y1 >>> 32) ^ (int)(y2 >>> 32) ^ expectedXor;
+        int sBoxOutput = inverseP(lPrime);
+
+        for (int s=0; s<sboxes.length; s++)
+        {
+            int k = sboxes[s];
+
+            //The expanded input of SBox k is six bits of R starting one bit
+            //before its four bits
+            int e1Input = Integer.rotateRight(r1, 31 - 4*k) & 0x3f;
+            int e2Input = Integer.rotateRight(r2, 31 - 4*k) & 0x3f;
+            int outputXor = (sBoxOutput >>> (32 - 4*k)) & 0xf;
+
+            long mask = DifferenceTables.getSolutionMask(k, e1Input ^ e2Input, outputXor);
+
+            while (mask != 0)
+            {
+                counter[s*64 + (Long.numberOfTrailingZeros(mask) ^ e1Input)]++;
+                mask &= mask - 1;
+            }
+        }
+    }
+
+    /**
+     * This method returns the number of pairs counted so far.
+     */
+    public synchronized long getPairCount()
+    {
+        return pairCount;
+    }
+
+    /**
+     * This method returns a copy of the 64 counters of one of the counted
+     * SBoxes.
+     *
+     * @param index int value specifying the position of the SBox in the array
+     * given to the constructor
+     */
+    public synchronized long[] getCounts(int index)
+    {
+        long[] retval = new long[64];
+
+        System.arraycopy(counts, index * 64, retval, 0, 64);
+
+        return retval;
+    }
+
+    /**
+     * This method returns the subkey counted most often for each of the
+     * counted SBoxes, in the order given to the constructor. If several
+     * subkeys share the highest count the lowest of them is returned.
+     */
+    public synchronized int[] getBestSubkeys()
+    {
+        int[] retval = new int[sboxes.length];
+
+        for (int s=0; s<sboxes.length; s++)
+        {
+            long maxVal = -1;
+
+            for (int j=0; j<64; j++)
+            {
+                if (counts[s * 64 + j] > maxVal)
+                {
+                    retval[s] = j;
+                    maxVal = counts[s * 64 + j];
+                }
+            }
+        }
+
+        return retval;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * KeyCountingEvent.java
+ *
+ * Created on October 17, 2026, 9:15 AM
+ *
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This JDK Flight Recorder event covers the counting of the subkeys suggested
+ * by the pairs of one characteristic. When the pairs of all characteristics
+ * are counted in one pass, there is one event for each characteristic, all
+ * covering the whole pass.
+ *
+ * @author Kelly McLaughlin
+ */
+@Name("DesCryptanalysis.KeyCounting")
+@Label("Key Counting")
+@Category({ "DES Cryptanalysis", "Attack" })
+@Description("Counting of the subkeys suggested by the pairs of a characteristic")
+public class KeyCountingEvent extends Event {
+    @Label("Characteristic")
+    public String characteristic;
+
+    @Label("Pairs")
+    public long pairs;
+
+    @Label("Counted SBoxes")
+    public int countedSboxes;
+
+    @Label("Key Space Size")
+    @Description("Number of subkeys of the counted SBoxes, 2^(6 * counted SBoxes)")
+    public long keySpaceSize;
+}
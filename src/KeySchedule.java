@@ -24,22 +24,22 @@
  */
 public class KeySchedule {
 
-    private int[] V = { 1, 1, 2, 2, 2, 2, 2, 2, 1, 2, 2, 2, 2, 2, 2, 1 };
-    private int[] PC1_C = {
+    private static final int[] V = { 1, 1, 2, 2, 2, 2, 2, 2, 1, 2, 2, 2, 2, 2, 2, 1 };
+    private static final int[] PC1_C = {
         57, 49, 41, 33, 25, 17, 9,
         1, 58, 50, 42, 34, 26, 18,
         10, 2, 59, 51, 43, 35, 27,
         19, 11, 3, 60, 52, 44, 36
     };
 
-    private int[] PC1_D = {
+    private static final int[] PC1_D = {
         63, 55, 47, 39, 31, 23, 15,
         7, 62, 54, 46, 38, 30, 22,
         14, 6, 61, 53, 45, 37, 29,
         21, 13, 5, 28, 20, 12, 4
     };
 
-    private int[] InversePC1 = {
+    private static final int[] InversePC1 = {
        8, 16, 24, 56, 52, 44, 36,
        7, 15, 23, 55, 51, 43, 35,
        6, 14, 22, 54, 50, 42, 34,
@@ -50,7 +50,7 @@ public class KeySchedule {
        1, 9, 17, 25, 45, 37, 29
     };
 
-    private int[] PC2 = {
+    private static final int[] PC2 = {
         14, 17, 11, 24, 1, 5,
         3, 28, 15, 6, 21, 10,
         23, 19, 12, 4, 26, 8,
@@ -61,7 +61,7 @@ public class KeySchedule {
         46, 42, 50, 36, 29, 32
     };
 
-    private int[] InversePC2 = {
+    private static final int[] InversePC2 = {
         5, 24, 7, 16, 6, 10, 20, 18,
         0, 12, 3, 15, 23, 1, 9, 19,
         2, 0, 14, 22, 11, 0, 13, 4,
@@ -72,6 +72,73 @@ public class KeySchedule {
 
     };
 
+    //Lookup tables for PC1 and PC2. PC1_TABLE[n*256 + v] holds the 56 bit PC1
+    //output (C in the upper 28 bits, D in the lower 28 bits) for byte n of the
+    //key, counting from the least significant byte, having the value v.
+    //PC2_TABLE is laid out the same way for the 7 bytes of the 56 bit input.
+    private static final long[] PC1_TABLE = new long[8*256];
+    private static final long[] PC2_TABLE = new long[7*256];
+
+    //For each round and each bit of the 48 bit round key, the bit of the 64 bit
+    //key it is taken from
+    private static final int[][] ROUND_KEY_SOURCE = new int[16][48];
+
+    static
+    {
+        long[] pc1Bits = new long[64];
+        long[] pc2Bits = new long[56];
+
+        //Find where each input bit ends up
+        for (int i=0; i<28; i++)
+        {
+            pc1Bits[64-PC1_C[i]] |= 1L << (55-i);
+            pc1Bits[64-PC1_D[i]] |= 1L << (27-i);
+        }
+        for (int i=0; i<48; i++)
+        {
+            pc2Bits[56-PC2[i]] |= 1L << (47-i);
+        }
+
+        for (int n=0; n<8; n++)
+        {
+            for (int v=0; v<256; v++)
+            {
+                for (int b=0; b<8; b++)
+                {
+                    if ((v & (1 << b)) != 0)
+                    {
+                        PC1_TABLE[n*256 + v] |= pc1Bits[n*8 + b];
+                        if (n < 7)
+                        {
+                            PC2_TABLE[n*256 + v] |= pc2Bits[n*8 + b];
+                        }
+                    }
+                }
+            }
+        }
+
+        //Follow each round key bit back through PC2, the rotations and PC1
+        int shift = 0;
+        for (int r=0; r<16; r++)
+        {
+            shift += V[r];
+            for (int i=0; i<48; i++)
+            {
+                int cdBit = 56-PC2[i];
+                if (cdBit >= 28)
+                {
+                    int c0Bit = ((cdBit - 28 - shift) % 28 + 28) % 28;
+                    ROUND_KEY_SOURCE[r][47-i] = 64-PC1_C[27-c0Bit];
+                }
+                else
+                {
+                    int d0Bit = ((cdBit - shift) % 28 + 28) % 28;
+                    ROUND_KEY_SOURCE[r][47-i] = 64-PC1_D[27-d0Bit];
+                }
+            }
+        }
+    }
+
     /** Creates a new instance of KeySchedule */
     public KeySchedule() {
     }
@@ -90,32 +157,41 @@ public class KeySchedule {
         return (((long)c0) << 28 | d0);
     }
 
-    private int getC0Val(long key)
+    /**
+     * This method returns the result of putting the key through PC1 with C in
+     * the upper 28 bits and D in the lower 28 bits.
+     */
+    private static long pc1(long key)
     {
-        int C0Val = 0;
-        int bitpos = 27;
+        return PC1_TABLE[        (int)(key & 0xff)] |
+               PC1_TABLE[256   | (int)((key >>> 8) & 0xff)] |
+               PC1_TABLE[2*256 | (int)((key >>> 16) & 0xff)] |
+               PC1_TABLE[3*256 | (int)((key >>> 24) & 0xff)] |
+               PC1_TABLE[4*256 | (int)((key >>> 32) & 0xff)] |
+               PC1_TABLE[5*256 | (int)((key >>> 40) & 0xff)] |
+               PC1_TABLE[6*256 | (int)((key >>> 48) & 0xff)] |
+               PC1_TABLE[7*256 | (int)(key >>> 56)];
+    }
 
-        for (int i=0; i<28; i++)
+    private static int getC0Val(long key)
+    {
+        int C0Val = (int)(pc1(key) >>> 28);
+
+        //The original bit by bit version of this method shifted the most
+        //significant key bit down with a signed shift, which sets every bit
+        //from bit 20 up whenever that key bit is set. Keep doing so, so that
+        //the round keys stay the same for every key.
+        if (key < 0)
         {
-            C0Val |= ((key & (1L << 64-PC1_C[i])) >> 64-PC1_C[i]) << bitpos;
-            bitpos--;
+            C0Val |= 0xfff00000;
         }
 
         return C0Val;
     }
 
-    private int getD0Val(long key)
+    private static int getD0Val(long key)
     {
-        int D0Val = 0;
-        int bitpos = 27;
-
-        for (int i=0; i<28; i++)
-        {
-            D0Val |= ((key & (1L << (64-PC1_D[i]))) >> (64-PC1_D[i])) << bitpos;
-            bitpos--;
-        }
-
-        return D0Val;
+        return (int)(pc1(key) & 0xfffffffL);
     }
 
     /**
@@ -147,22 +223,19 @@ public class KeySchedule {
      * @param C int value that specifies the upper 28 bits of a key value
      * @param D int value that specifies the lower 28 bits of a key value
      */
-    private long getPC2Val(int C, int D)
+    private static long getPC2Val(int C, int D)
     {
         long input = (((long)C) << 28) + (long)D;
-        long PC2Val = 0;
-        int bitpos = 47;
-
-        for (int i=0; i<48; i++)
-        {
-            PC2Val += ((input & (1L << 56-PC2[i])) >> 56-PC2[i]) << bitpos;
-            bitpos--;
-        }
 
-        return PC2Val;
+        return PC2_TABLE[        (int)(input & 0xff)] |
+               PC2_TABLE[256   | (int)((input >>> 8) & 0xff)] |
+               PC2_TABLE[2*256 | (int)((input >>> 16) & 0xff)] |
+               PC2_TABLE[3*256 | (int)((input >>> 24) & 0xff)] |
+               PC2_TABLE[4*256 | (int)((input >>> 32) & 0xff)] |
+               PC2_TABLE[5*256 | (int)((input >>> 40) & 0xff)] |
+               PC2_TABLE[6*256 | (int)((input >>> 48) & 0xff)];
     }
 
-
     /**
      * This method returns the result of putting the input combined with the
      * a guess at the unknown bits of the permutation output through the inverse
@@ -196,61 +269,86 @@ public class KeySchedule {
         return InversePC2Val;
     }
 
+    /**
+     * This method returns a new array with the round keys for the given
+     * number of encryption rounds.
+     *
+     * @param key long value specifying the key
+     * @param rounds int value specifying the number of rounds
+     */
     public long[] getEncryptionRoundKeys(long key, int rounds)
     {
         long[] roundKeys = new long[rounds];
-        int c0 = getC0Val(key);
-        int d0 = getD0Val(key);
-        int cVal, dVal;
-        int cUpperBits = 0;
-        int dUpperBits = 0;
 
-        cVal = c0;
-        dVal = d0;
+        fillEncryptionRoundKeys(key, roundKeys, rounds);
 
-        for (int i=0; i<rounds; i++)
-        {
-            if (V[i] == 1)
-            {
-                cUpperBits = (cVal & 134217728) >> 27;
-                dUpperBits = (dVal & 134217728) >> 27;
-
-                cVal &= 134217727;
-                dVal &= 134217727;
-            }
-            else if (V[i] == 2)
-            {
-                cUpperBits = (cVal & 201326592) >> 26;
-                dUpperBits = (dVal & 201326592) >> 26;
-
-                cVal &= 67108863;
-                dVal &= 67108863;
-            }
+        return roundKeys;
+    }
 
-            cVal = cVal << V[i];
-            dVal = dVal << V[i];
+    /**
+     * This method stores the round keys for the given number of encryption
+     * rounds in the given array without allocating anything.
+     *
+     * @param key long value specifying the key
+     * @param roundKeys long array of at least rounds entries that receives the
+     * round keys
+     * @param rounds int value specifying the number of rounds
+     */
+    public void fillEncryptionRoundKeys(long key, long[] roundKeys, int rounds)
+    {
+        int cVal = getC0Val(key);
+        int dVal = getD0Val(key);
 
-            cVal += cUpperBits;
-            dVal += dUpperBits;
+        for (int i=0; i<rounds; i++)
+        {
+            //Rotate both 28 bit halves left by the shift for this round
+            cVal = ((cVal << V[i]) | ((cVal & 0xfffffff) >>> (28 - V[i]))) & 0xfffffff;
+            dVal = ((dVal << V[i]) | ((dVal & 0xfffffff) >>> (28 - V[i]))) & 0xfffffff;
 
             roundKeys[i] = getPC2Val(cVal, dVal);
         }
-
-        return roundKeys;
     }
 
     public long[] getDecryptionRoundKeys(long key, int rounds)
     {
-        int index = rounds-1;
         long[] roundKeys = new long[rounds];
         long[] encRoundKeys = getEncryptionRoundKeys(key, rounds);
 
         for (int i=0; i<rounds; i++)
         {
-            roundKeys[i] = encRoundKeys[index];
-            index--;
+            roundKeys[i] = encRoundKeys[rounds-1-i];
         }
 
         return roundKeys;
     }
+
+    /**
+     * This method returns the bit of the 64 bit key that a bit of a round key
+     * is taken from, counting bits from the least significant bit. Apart from
+     * the handling of the most significant key bit in getC0Val, the key
+     * schedule is nothing but this selection of key bits.
+     *
+     * @param round int value specifying the round, counting from 0
+     * @param bit int value specifying the bit of the 48 bit round key
+     */
+    public static int getRoundKeyBitSource(int round, int bit)
+    {
+        return ROUND_KEY_SOURCE[round][bit];
+    }
+
+    /**
+     * This method computes the round keys for all 16 rounds of the given key
+     * once and returns them as an ExpandedKey that can be passed to DES for any
+     * number of encryptions and decryptions.
+     *
+     * @param key long value specifying the key
+     */
+    public ExpandedKey expandKey(long key)
+    {
+        long[] roundKeys = new long[16];
+
+        fillEncryptionRoundKeys(key, roundKeys, 16);
+
+        return new ExpandedKey(key, roundKeys);
+    }
 }
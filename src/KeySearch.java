@@ -0,0 +1,306 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * KeySearch.java
+ *
+ * Created on October 16, 2026, 11:02 PM
+ *
+ */
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class performs the exhaustive search over the candidate keys of a
+ * KeyCandidateEnumerator on all available cores. The candidates are split into
+ * ranges across a ForkJoin pool and every task stops as soon as any task finds
+ * the key.
+ *
+ * Each candidate is first checked against one plaintext/ciphertext pair by
+ * meeting in the middle: the right side after the first round is computed
+ * forwards from the plaintext and backwards from the ciphertext and the two are
+ * compared. This skips the last two rounds of a full decryption, and the first
+ * backward round only depends on the last round key, which stays the same for
+ * a whole block of candidates, so it is computed once per block. A candidate
+ * that passes is then confirmed with full decryptions of the remaining pairs to
+ * rule out false positives.
+ *
+ * @author Kelly McLaughlin
+ */
+public class KeySearch {
+    //Number of candidates below which a task searches its range itself rather
+    //than splitting further
+    private static final long LEAF_SIZE = 1L << 12;
+
+    private KeyCandidateEnumerator enumerator;
+    private int rounds;
+    private long[] plaintexts;
+    private long[] ciphertexts;
+    private int confirmations;
+    private ForkJoinPool pool;
+    private DES des;
+    private AtomicBoolean keyFound;
+    private AtomicLong key;
+    private AtomicLong candidatesTested;
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a new instance of KeySearch that runs on the common ForkJoin
+     * pool.
+     *
+     * @param enumerator KeyCandidateEnumerator specifying the candidates
+     * @param rounds int value specifying the number of encryption rounds
+     * @param plaintexts long array specifying known plaintexts
+     * @param ciphertexts long array specifying the ciphertext of each plaintext
+     */
+    public KeySearch(KeyCandidateEnumerator enumerator, int rounds, long[] plaintexts, long[] ciphertexts)
+    {
+        this(enumerator, rounds, plaintexts, ciphertexts, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new instance of KeySearch that runs on the given ForkJoin pool.
+     *
+     * @param enumerator KeyCandidateEnumerator specifying the candidates
+     * @param rounds int value specifying the number of encryption rounds
+     * @param plaintexts long array specifying known plaintexts
+     * @param ciphertexts long array specifying the ciphertext of each plaintext
+     * @param pool ForkJoinPool to run the search on
+     */
+    public KeySearch(KeyCandidateEnumerator enumerator, int rounds, long[] plaintexts, long[] ciphertexts, ForkJoinPool pool)
+    {
+        this.enumerator = enumerator;
+        this.rounds = rounds;
+        this.plaintexts = plaintexts;
+        this.ciphertexts = ciphertexts;
+        this.pool = pool;
+        confirmations = plaintexts.length - 1;
+        des = new DES();
+        keyFound = new AtomicBoolean(false);
+        key = new AtomicLong(0L);
+        candidatesTested = new AtomicLong(0L);
+    }
+
+    /**
+     * This method sets the number of additional pairs a candidate has to
+     * decrypt correctly before it is accepted, from 0 to one less than the
+     * number of pairs given to the constructor. By default all pairs are used.
+     *
+     * @param confirmations int value specifying the number of confirmation
+     * pairs
+     * @throws IllegalArgumentException if there are not that many pairs
+     * besides the first
+     */
+    public void setConfirmations(int confirmations)
+    {
+        if (confirmations < 0 || confirmations > plaintexts.length - 1)
+        {
+            throw new IllegalArgumentException(confirmations + " confirmation pairs requested, expected 0 to " +
+                    (plaintexts.length - 1));
+        }
+
+        this.confirmations = confirmations;
+    }
+
+    /**
+     * This method searches all candidates and returns the key that was found,
+     * or zero if no candidate decrypts every pair correctly.
+     */
+    public long search()
+    {
+        keyFound.set(false);
+        key.set(0L);
+        candidatesTested.set(0L);
+
+        KeySearchEvent event = new KeySearchEvent();
+
+        event.begin();
+        pool.invoke(new SearchTask(0L, enumerator.getNumberOfCandidates()));
+
+        if (event.shouldCommit())
+        {
+            event.rounds = rounds;
+            event.guessedBits = enumerator.getNumberOfGuessBits();
+            event.keySpaceSize = enumerator.getNumberOfCandidates();
+            event.candidatesTested = candidatesTested.get();
+            event.keyFound = keyFound.get();
+            event.commit();
+        }
+
+        return cancelled ? 0L : key.get();
+    }
+
+    /**
+     * This method stops the running search, which then returns zero, and
+     * makes any later search return zero at once. It may be called from any
+     * thread.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    /**
+     * This method returns true if the search was cancelled.
+     */
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * This method returns the number of candidates tested by the last search.
+     */
+    public long getCandidatesTested()
+    {
+        return candidatesTested.get();
+    }
+
+    /**
+     * This method searches the candidates from start up to (not including)
+     * end on the calling thread.
+     */
+    private void searchRange(long start, long end)
+    {
+        ExpandedKey candidate = enumerator.createCandidate();
+        long[] roundKeys = candidate.getRoundKeys();
+        long blockMask = (1L << enumerator.getNumberOfDroppedBits()) - 1;
+
+        int l0 = (int)(plaintexts[0] >>> 32);
+        int r0 = (int)plaintexts[0];
+        int cl = (int)(ciphertexts[0] >>> 32);
+        int cr = (int)ciphertexts[0];
+        int rSecondLast = 0;
+        long tested = 0;
+        DesBatchEvent batch = new DesBatchEvent();
+
+        batch.begin();
+        enumerator.setCandidate(start, candidate);
+
+        for (long index=start; index<end; index++)
+        {
+            if (index != start)
+            {
+                enumerator.nextCandidate(index, candidate);
+            }
+
+            if ((index & blockMask) == 0 || index == start)
+            {
+                if (keyFound.get() || cancelled)
+                {
+                    break;
+                }
+
+                //The ciphertext holds the right side after the second to last
+                //round and the left side of the last round. Undo the last round.
+                rSecondLast = cl ^ DES.f(cr, roundKeys[rounds-1]);
+            }
+            tested++;
+
+            if (rounds >= 3)
+            {
+                //Work backwards to the right side after the first round with
+                //R(j-1) = R(j+1) ^ f(R(j), K(j+1))
+                int high = cr;
+                int low = rSecondLast;
+                for (int j=rounds-2; j>=2; j--)
+                {
+                    int next = high ^ DES.f(low, roundKeys[j]);
+                    high = low;
+                    low = next;
+                }
+
+                if (low != (l0 ^ DES.f(r0, roundKeys[0])))
+                {
+                    continue;
+                }
+            }
+
+            if (isConfirmed(candidate))
+            {
+                if (keyFound.compareAndSet(false, true))
+                {
+                    key.set(candidate.getKey());
+                }
+                break;
+            }
+        }
+
+        candidatesTested.addAndGet(tested);
+
+        AttackMetrics metrics = AttackMetrics.getInstance();
+        if (metrics != null)
+        {
+            metrics.addCandidatesTested(tested);
+        }
+
+        if (batch.shouldCommit())
+        {
+            batch.operation = "trial decrypt";
+            batch.blocks = tested;
+            batch.keys = tested;
+            batch.rounds = rounds;
+            batch.commit();
+        }
+    }
+
+    private boolean isConfirmed(ExpandedKey candidate)
+    {
+        for (int i=0; i<=confirmations; i++)
+        {
+            if (des.decrypt(ciphertexts[i], candidate, rounds) != plaintexts[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private long start;
+        private long end;
+
+        SearchTask(long start, long end)
+        {
+            this.start = start;
+            this.end = end;
+        }
+
+        protected void compute()
+        {
+            if (keyFound.get() || cancelled)
+            {
+                return;
+            }
+
+            if (end - start <= LEAF_SIZE)
+            {
+                searchRange(start, end);
+                return;
+            }
+
+            long middle = start + (end - start) / 2;
+            SearchTask left = new SearchTask(start, middle);
+            SearchTask right = new SearchTask(middle, end);
+
+            left.fork();
+            right.compute();
+            left.join();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * KeySearchEvent.java
+ *
+ * Created on October 17, 2026, 9:18 AM
+ *
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This JDK Flight Recorder event covers the search of the key bits that the
+ * characteristics do not suggest by KeySearch.
+ *
+ * @author Kelly McLaughlin
+ */
+@Name("DesCryptanalysis.KeySearch")
+@Label("Key Search")
+@Category({ "DES Cryptanalysis", "Attack" })
+@Description("Search of the remaining key bits")
+public class KeySearchEvent extends Event {
+    @Label("Rounds")
+    public int rounds;
+
+    @Label("Guessed Bits")
+    public int guessedBits;
+
+    @Label("Key Space Size")
+    @Description("Number of candidate keys to search")
+    public long keySpaceSize;
+
+    @Label("Candidates Tested")
+    public long candidatesTested;
+
+    @Label("Key Found")
+    public boolean keyFound;
+}
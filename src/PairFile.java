@@ -0,0 +1,87 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * PairFile.java
+ *
+ * Created on October 17, 2026, 12:15 AM
+ *
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the binary file format for plaintext/ciphertext pairs
+ * used by PairFileWriter and PairFileReader. All values are big endian.
+ *
+ * The file starts with a 32 byte header:
+ *
+ *   offset  0  int   magic number 0x44455350 ("DESP")
+ *   offset  4  int   format version
+ *   offset  8  long  characteristic, the XOR of the plaintexts of each pair
+ *   offset 16  int   number of encryption rounds
+ *   offset 20  int   reserved, zero
+ *   offset 24  long  number of pairs
+ *
+ * followed by one 32 byte record per pair holding x1, x2, y1 and y2 as longs,
+ * in the same order as a line of the text format.
+ *
+ * @author Kelly McLaughlin
+ */
+public class PairFile {
+    public static final int MAGIC = 0x44455350;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 32;
+
+    private PairFile() {
+    }
+
+    /**
+     * This method writes a header to the start of a buffer.
+     *
+     * @param buffer ByteBuffer of at least HEADER_SIZE bytes
+     * @param characteristic long value specifying the XOR of the plaintexts of
+     * each pair
+     * @param rounds int value specifying the number of encryption rounds
+     * @param pairCount long value specifying the number of pairs
+     */
+    static void putHeader(ByteBuffer buffer, long characteristic, int rounds, long pairCount)
+    {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, characteristic);
+        buffer.putInt(16, rounds);
+        buffer.putInt(20, 0);
+        buffer.putLong(24, pairCount);
+    }
+
+    /**
+     * This method checks the magic number and version of a header read into a
+     * buffer.
+     *
+     * @param buffer ByteBuffer holding the header at its start
+     */
+    static void checkHeader(ByteBuffer buffer) throws IOException
+    {
+        if (buffer.getInt(0) != MAGIC)
+        {
+            throw new IOException("Not a pair file");
+        }
+
+        if (buffer.getInt(4) != VERSION)
+        {
+            throw new IOException("Unsupported pair file version " + buffer.getInt(4));
+        }
+    }
+}
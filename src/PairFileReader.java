@@ -0,0 +1,187 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * PairFileReader.java
+ *
+ * Created on October 17, 2026, 12:34 AM
+ *
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class reads a file in the PairFile format by mapping it into memory.
+ * The pairs are read straight from the mapped pages without any parsing or
+ * copying, so files much larger than the heap can be analyzed. A single
+ * mapping is limited to 2GB, so the records are mapped in regions of 2^25
+ * pairs.
+ *
+ * Reading is thread-safe once the reader has been created.
+ *
+ * @author Kelly McLaughlin
+ */
+public class PairFileReader implements Closeable {
+    private static final int REGION_BITS = 25;
+    private static final long REGION_MASK = (1L << REGION_BITS) - 1;
+
+    private FileChannel channel;
+    private MappedByteBuffer[] regions;
+    private long characteristic;
+    private int rounds;
+    private long pairCount;
+
+    /**
+     * Creates a new instance of PairFileReader
+     *
+     * @param path Path specifying the file to read
+     */
+    public PairFileReader(Path path) throws IOException
+    {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try
+        {
+            ByteBuffer header = ByteBuffer.allocate(PairFile.HEADER_SIZE);
+            while (header.hasRemaining())
+            {
+                if (channel.read(header, header.position()) < 0)
+                {
+                    throw new IOException("Not a pair file");
+                }
+            }
+            PairFile.checkHeader(header);
+
+            characteristic = header.getLong(8);
+            rounds = header.getInt(16);
+            pairCount = header.getLong(24);
+
+            if (pairCount < 0 || channel.size() < PairFile.HEADER_SIZE + pairCount * PairFile.RECORD_SIZE)
+            {
+                throw new IOException("Pair file is truncated");
+            }
+
+            regions = new MappedByteBuffer[(int)((pairCount + REGION_MASK) >>> REGION_BITS)];
+            for (int r=0; r<regions.length; r++)
+            {
+                long first = ((long)r) << REGION_BITS;
+                long count = Math.min(REGION_MASK + 1, pairCount - first);
+
+                regions[r] = channel.map(FileChannel.MapMode.READ_ONLY, PairFile.HEADER_SIZE + first * PairFile.RECORD_SIZE, count * PairFile.RECORD_SIZE);
+            }
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Getter for the XOR of the plaintexts of each pair
+     */
+    public long getCharacteristic()
+    {
+        return characteristic;
+    }
+
+    /**
+     * Getter for the number of encryption rounds
+     */
+    public int getRounds()
+    {
+        return rounds;
+    }
+
+    /**
+     * Getter for the number of pairs in the file
+     */
+    public long getPairCount()
+    {
+        return pairCount;
+    }
+
+    /**
+     * Getter for the first plaintext value of a pair
+     *
+     * @param index long value specifying the pair
+     */
+    public long getX1(long index)
+    {
+        return getValue(index, 0);
+    }
+
+    /**
+     * Getter for the second plaintext value of a pair
+     *
+     * @param index long value specifying the pair
+     */
+    public long getX2(long index)
+    {
+        return getValue(index, 8);
+    }
+
+    /**
+     * Getter for the ciphertext value of x1 of a pair
+     *
+     * @param index long value specifying the pair
+     */
+    public long getY1(long index)
+    {
+        return getValue(index, 16);
+    }
+
+    /**
+     * Getter for the ciphertext value of x2 of a pair
+     *
+     * @param index long value specifying the pair
+     */
+    public long getY2(long index)
+    {
+        return getValue(index, 24);
+    }
+
+    private long getValue(long index, int offset)
+    {
+        return regions[(int)(index >>> REGION_BITS)].getLong((int)(index & REGION_MASK) * PairFile.RECORD_SIZE + offset);
+    }
+
+    /**
+     * This method copies all pairs of the file into a PairStore.
+     */
+    public PairStore toPairStore()
+    {
+        PairStore pairs = new PairStore();
+
+        for (long i=0; i<pairCount; i++)
+        {
+            pairs.add(getX1(i), getX2(i), getY1(i), getY2(i));
+        }
+
+        return pairs;
+    }
+
+    /**
+     * This method closes the file. The mapped regions are released once they
+     * are no longer referenced.
+     */
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+}
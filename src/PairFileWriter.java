@@ -0,0 +1,155 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * PairFileWriter.java
+ *
+ * Created on October 17, 2026, 12:20 AM
+ *
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class writes plaintext/ciphertext pairs to a file in the PairFile
+ * format. Pairs are collected in a direct buffer and written to a FileChannel
+ * in large blocks. The pair count in the header is filled in when the writer is
+ * closed, so the number of pairs does not need to be known in advance.
+ *
+ * This class is not thread-safe.
+ *
+ * @author Kelly McLaughlin
+ */
+public class PairFileWriter implements Closeable {
+    //Number of records collected before they are written to the channel
+    private static final int BUFFER_RECORDS = 1 << 12;
+
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private long characteristic;
+    private int rounds;
+    private long pairCount;
+
+    /**
+     * Creates a new instance of PairFileWriter. An existing file is replaced.
+     *
+     * @param path Path specifying the file to write
+     * @param characteristic long value specifying the XOR of the plaintexts of
+     * each pair
+     * @param rounds int value specifying the number of encryption rounds
+     */
+    public PairFileWriter(Path path, long characteristic, int rounds) throws IOException
+    {
+        this.characteristic = characteristic;
+        this.rounds = rounds;
+        pairCount = 0;
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        channel.position(PairFile.HEADER_SIZE);
+        buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * PairFile.RECORD_SIZE);
+    }
+
+    /**
+     * This method adds a pair to the file.
+     *
+     * @param x1 long value specifying the first plaintext value
+     * @param x2 long value specifying the second plaintext value
+     * @param y1 long value specifying the ciphertext value of x1
+     * @param y2 long value specifying the ciphertext value of x2
+     */
+    public void add(long x1, long x2, long y1, long y2) throws IOException
+    {
+        if (!buffer.hasRemaining())
+        {
+            flush();
+        }
+
+        buffer.putLong(x1);
+        buffer.putLong(x2);
+        buffer.putLong(y1);
+        buffer.putLong(y2);
+        pairCount++;
+    }
+
+    /**
+     * This method adds all pairs of a PairStore to the file.
+     *
+     * @param pairs PairStore holding the pairs to add
+     */
+    public void addAll(PairStore pairs) throws IOException
+    {
+        for (int c=0; c<pairs.getNumberOfChunks(); c++)
+        {
+            int length = pairs.getChunkLength(c);
+            long[] x1 = pairs.getX1Chunk(c);
+            long[] x2 = pairs.getX2Chunk(c);
+            long[] y1 = pairs.getY1Chunk(c);
+            long[] y2 = pairs.getY2Chunk(c);
+
+            for (int i=0; i<length; i++)
+            {
+                add(x1[i], x2[i], y1[i], y2[i]);
+            }
+        }
+    }
+
+    /**
+     * This method returns the number of pairs added so far.
+     */
+    public long getPairCount()
+    {
+        return pairCount;
+    }
+
+    private void flush() throws IOException
+    {
+        buffer.flip();
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * This method writes any buffered pairs and the header and closes the
+     * file.
+     */
+    public void close() throws IOException
+    {
+        if (!channel.isOpen())
+        {
+            return;
+        }
+
+        try
+        {
+            flush();
+
+            ByteBuffer header = ByteBuffer.allocate(PairFile.HEADER_SIZE);
+            PairFile.putHeader(header, characteristic, rounds, pairCount);
+            while (header.hasRemaining())
+            {
+                channel.write(header, header.position());
+            }
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+}
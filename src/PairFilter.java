@@ -0,0 +1,101 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * PairFilter.java
+ *
+ * Created on October 17, 2026, 1:52 AM
+ *
+ */
+
+/**
+ * This class discards wrong pairs for a characteristic by looking only at the
+ * ciphertexts. For a right pair, the SBoxes whose subkeys are counted see the
+ * input XOR given by the right half XOR of the ciphertexts and produce the
+ * output XOR given by the left half XOR together with the left half XOR
+ * expected from the characteristic. A pair is discarded if any of these
+ * SBoxes cannot map its input XOR to its output XOR. In particular, an SBox
+ * with an input XOR of zero must have an output XOR of zero.
+ *
+ * Every right pair passes the filter, so counting only the pairs that pass
+ * keeps all of the right pairs while removing most of the wrong ones. This
+ * allows the attack to select its pairs without access to the round outputs
+ * of the encryption.
+ *
+ * @author Kelly McLaughlin
+ */
+public class PairFilter {
+    private int expectedXor;
+    private int[] sboxes;
+
+    /**
+     * Creates a new instance of PairFilter
+     *
+     * @param expectedXor int value specifying the left half XOR of the
+     * ciphertexts expected for a right pair, ignoring the last round
+     * @param sboxes int array specifying the SBoxes, numbered from 1, whose
+     * subkeys are counted
+     */
+    public PairFilter(int expectedXor, int[] sboxes)
+    {
+        this.expectedXor = expectedXor;
+        this.sboxes = sboxes.clone();
+    }
+
+    /**
+     * This method returns true if a pair may be a right pair.
+     *
+     * @param y1 long value specifying the ciphertext of the first plaintext
+     * @param y2 long value specifying the ciphertext of the second plaintext
+     */
+    public boolean accept(long y1, long y2)
+    {
+        int rPrime = (int)y1 ^ (int)y2;
+        int lPrime = (int)(y1 >>> 32) ^ (int)(y2 >>> 32) ^ expectedXor;
+        //Inverse of the permutation P from the table of KeyCounter
+        int sBoxOutput = KeyCounter.inverseP(lPrime);
+
+        for (int s=0; s<sboxes.length; s++)
+        {
+            int k = sboxes[s];
+            int inputXor = Integer.rotateRight(rPrime, 31 - 4*k) & 0x3f;
+            int outputXor = (sBoxOutput >>> (32 - 4*k)) & 0xf;
+
+            if ((DifferenceTables.getPossibleOutputXors(k, inputXor) & (1 << outputXor)) == 0)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * This method returns the pairs of a PairStore that pass the filter.
+     *
+     * @param pairs PairStore holding the pairs to filter
+     */
+    public PairStore filter(PairStore pairs)
+    {
+        PairStore retval = new PairStore();
+
+        for (int i=0; i<pairs.size(); i++)
+        {
+            if (accept(pairs.getY1(i), pairs.getY2(i)))
+            {
+                retval.add(pairs.getX1(i), pairs.getX2(i), pairs.getY1(i), pairs.getY2(i));
+            }
+        }
+
+        return retval;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * PairGenerationEvent.java
+ *
+ * Created on October 17, 2026, 9:12 AM
+ *
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This JDK Flight Recorder event covers one call to generate or count of
+ * ParallelPairGenerator or StructurePairGenerator, from the first encryption
+ * to the last pair collected.
+ *
+ * @author Kelly McLaughlin
+ */
+@Name("DesCryptanalysis.PairGeneration")
+@Label("Pair Generation")
+@Category({ "DES Cryptanalysis", "Attack" })
+@Description("Generation and filtering of candidate pairs")
+public class PairGenerationEvent extends Event {
+    @Label("Generator")
+    public String generator;
+
+    @Label("Characteristics")
+    @Description("Names of the characteristics the pairs are generated for")
+    public String characteristics;
+
+    @Label("Rounds")
+    public int rounds;
+
+    @Label("Candidate Pairs")
+    @Description("Number of candidate pairs generated for each characteristic")
+    public long candidatePairs;
+
+    @Label("Accepted Pairs")
+    @Description("Number of pairs kept, over all characteristics")
+    public long acceptedPairs;
+
+    @Label("Encryptions")
+    public long encryptions;
+}
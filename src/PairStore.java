@@ -0,0 +1,274 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * PairStore.java
+ *
+ * Created on October 16, 2026, 11:40 PM
+ *
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class holds a set of plaintext/ciphertext pairs as four parallel
+ * columns of longs (x1, x2, y1 and y2, named as in Tuple) rather than as a
+ * list of Tuple objects. The columns grow in fixed size chunks, so adding
+ * pairs never copies the pairs already stored, and a scan over one column
+ * reads memory sequentially.
+ *
+ * A store holds at most Integer.MAX_VALUE pairs, and adding more throws an
+ * IllegalStateException rather than wrapping the count. Larger inputs are
+ * counted one store at a time, as determineKey does when streaming.
+ *
+ * @author Kelly McLaughlin
+ */
+public class PairStore {
+    public static final int CHUNK_BITS = 16;
+    public static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    public static final int MAXIMUM_SIZE = Integer.MAX_VALUE;
+
+    private long[][] x1;
+    private long[][] x2;
+    private long[][] y1;
+    private long[][] y2;
+    private int size;
+
+    /** Creates a new instance of PairStore */
+    public PairStore() {
+        x1 = new long[1][];
+        x2 = new long[1][];
+        y1 = new long[1][];
+        y2 = new long[1][];
+        size = 0;
+    }
+
+    /**
+     * Creates a new instance of PairStore holding the pairs of a List of
+     * Tuples.
+     *
+     * @param tuples List of Tuples to copy
+     */
+    public PairStore(List<?> tuples)
+    {
+        this();
+
+        for (int i=0; i<tuples.size(); i++)
+        {
+            Tuple tuple = (Tuple)tuples.get(i);
+            add(tuple.getX1(), tuple.getX2(), tuple.getY1(), tuple.getY2());
+        }
+    }
+
+    /**
+     * This method adds a pair to the end of the store.
+     *
+     * @param x1 long value specifying the first plaintext value
+     * @param x2 long value specifying the second plaintext value
+     * @param y1 long value specifying the ciphertext value of x1
+     * @param y2 long value specifying the ciphertext value of x2
+     * @throws IllegalStateException if the store already holds MAXIMUM_SIZE
+     * pairs
+     */
+    public void add(long x1, long x2, long y1, long y2)
+    {
+        if (size == MAXIMUM_SIZE)
+        {
+            throw new IllegalStateException("A PairStore holds at most " + MAXIMUM_SIZE + " pairs");
+        }
+
+        int chunk = size >>> CHUNK_BITS;
+        int offset = size & CHUNK_MASK;
+
+        if (offset == 0)
+        {
+            addChunk(chunk);
+        }
+
+        this.x1[chunk][offset] = x1;
+        this.x2[chunk][offset] = x2;
+        this.y1[chunk][offset] = y1;
+        this.y2[chunk][offset] = y2;
+        size++;
+    }
+
+    /**
+     * This method adds all pairs of another store to the end of this store.
+     *
+     * @param other PairStore whose pairs are added
+     * @throws IllegalStateException if the pairs do not fit in MAXIMUM_SIZE
+     */
+    public void addAll(PairStore other)
+    {
+        if (other.size > MAXIMUM_SIZE - size)
+        {
+            throw new IllegalStateException("A PairStore holds at most " + MAXIMUM_SIZE + " pairs");
+        }
+
+        for (int c=0; c<other.getNumberOfChunks(); c++)
+        {
+            int length = other.getChunkLength(c);
+            long[] ox1 = other.x1[c];
+            long[] ox2 = other.x2[c];
+            long[] oy1 = other.y1[c];
+            long[] oy2 = other.y2[c];
+
+            for (int i=0; i<length; i++)
+            {
+                add(ox1[i], ox2[i], oy1[i], oy2[i]);
+            }
+        }
+    }
+
+    private void addChunk(int chunk)
+    {
+        if (chunk == x1.length)
+        {
+            int length = x1.length * 2;
+            x1 = Arrays.copyOf(x1, length);
+            x2 = Arrays.copyOf(x2, length);
+            y1 = Arrays.copyOf(y1, length);
+            y2 = Arrays.copyOf(y2, length);
+        }
+
+        x1[chunk] = new long[CHUNK_SIZE];
+        x2[chunk] = new long[CHUNK_SIZE];
+        y1[chunk] = new long[CHUNK_SIZE];
+        y2[chunk] = new long[CHUNK_SIZE];
+    }
+
+    /**
+     * This method returns the number of pairs in the store.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Getter for the first plaintext value of a pair
+     *
+     * @param index int value specifying the pair
+     */
+    public long getX1(int index)
+    {
+        return x1[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    /**
+     * Getter for the second plaintext value of a pair
+     *
+     * @param index int value specifying the pair
+     */
+    public long getX2(int index)
+    {
+        return x2[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    /**
+     * Getter for the ciphertext value of x1 of a pair
+     *
+     * @param index int value specifying the pair
+     */
+    public long getY1(int index)
+    {
+        return y1[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    /**
+     * Getter for the ciphertext value of x2 of a pair
+     *
+     * @param index int value specifying the pair
+     */
+    public long getY2(int index)
+    {
+        return y2[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    /**
+     * This method returns the number of chunks in use.
+     */
+    public int getNumberOfChunks()
+    {
+        return (int)(((long)size + CHUNK_MASK) >>> CHUNK_BITS);
+    }
+
+    /**
+     * This method returns the number of pairs held in a chunk.
+     *
+     * @param chunk int value specifying the chunk
+     */
+    public int getChunkLength(int chunk)
+    {
+        return Math.min(CHUNK_SIZE, size - (chunk << CHUNK_BITS));
+    }
+
+    /**
+     * This method returns the x1 column of a chunk without copying it, for
+     * sequential scans. The array must not be modified.
+     *
+     * @param chunk int value specifying the chunk
+     */
+    public long[] getX1Chunk(int chunk)
+    {
+        return x1[chunk];
+    }
+
+    /**
+     * This method returns the x2 column of a chunk without copying it.
+     *
+     * @param chunk int value specifying the chunk
+     */
+    public long[] getX2Chunk(int chunk)
+    {
+        return x2[chunk];
+    }
+
+    /**
+     * This method returns the y1 column of a chunk without copying it.
+     *
+     * @param chunk int value specifying the chunk
+     */
+    public long[] getY1Chunk(int chunk)
+    {
+        return y1[chunk];
+    }
+
+    /**
+     * This method returns the y2 column of a chunk without copying it.
+     *
+     * @param chunk int value specifying the chunk
+     */
+    public long[] getY2Chunk(int chunk)
+    {
+        return y2[chunk];
+    }
+
+    /**
+     * This method returns the pairs as an ArrayList of Tuples for code that
+     * still works with Tuples.
+     */
+    public ArrayList<Tuple> toTuples()
+    {
+        ArrayList<Tuple> tuples = new ArrayList<Tuple>(size);
+
+        for (int i=0; i<size; i++)
+        {
+            tuples.add(new Tuple(getX1(i), getX2(i), getY1(i), getY2(i)));
+        }
+
+        return tuples;
+    }
+}
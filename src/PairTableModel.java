@@ -0,0 +1,156 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * PairTableModel.java
+ *
+ * Created on October 17, 2026, 11:20 AM
+ *
+ */
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * This class presents the pairs of one PairStore per characteristic as rows of
+ * a JTable. Nothing is formatted in advance: the table asks only for the cells
+ * of the rows it shows, and each cell is read from the PairStore when it is
+ * asked for. Tens of thousands of pairs therefore cost no more to show than a
+ * screenful, unlike appending them as lines to a JTextArea.
+ *
+ * The rows of the first characteristic come first, followed by those of the
+ * second and so on. toText returns rows in the text format read by
+ * DesCryptanalysis.determineKey, for copying pairs to the
+ * DesCryptanalysisApplet.
+ *
+ * @author Kelly McLaughlin
+ */
+public class PairTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] COLUMN_NAMES = { "Characteristic", "Plaintext 1", "Plaintext 2", "Ciphertext 1", "Ciphertext 2" };
+
+    private PairStore[] pairs;
+    private String[] names;
+    private int[] offsets;
+
+    /** Creates a new instance of PairTableModel without pairs */
+    public PairTableModel() {
+        setPairs(new PairStore[0], new String[0]);
+    }
+
+    /**
+     * This method replaces the pairs shown. It must be called on the event
+     * dispatch thread.
+     *
+     * @param pairs PairStore array holding the pairs of each characteristic
+     * @param names String array specifying the name of each characteristic
+     */
+    public void setPairs(PairStore[] pairs, String[] names)
+    {
+        this.pairs = pairs.clone();
+        this.names = names.clone();
+
+        //The first row of each characteristic, with one extra entry for the
+        //number of rows
+        offsets = new int[pairs.length + 1];
+        for (int c=0; c<pairs.length; c++)
+        {
+            offsets[c+1] = offsets[c] + pairs[c].size();
+        }
+
+        fireTableDataChanged();
+    }
+
+    /**
+     * This method returns the index of the characteristic of a row.
+     */
+    private int characteristicOf(int row)
+    {
+        int c = 0;
+
+        while (row >= offsets[c+1])
+        {
+            c++;
+        }
+
+        return c;
+    }
+
+    public int getRowCount()
+    {
+        return offsets[offsets.length - 1];
+    }
+
+    public int getColumnCount()
+    {
+        return COLUMN_NAMES.length;
+    }
+
+    public String getColumnName(int column)
+    {
+        return COLUMN_NAMES[column];
+    }
+
+    public Class<?> getColumnClass(int column)
+    {
+        return (column == 0) ? String.class : Long.class;
+    }
+
+    public Object getValueAt(int row, int column)
+    {
+        int c = characteristicOf(row);
+        int i = row - offsets[c];
+
+        switch (column)
+        {
+            case 0:
+                return names[c];
+            case 1:
+                return pairs[c].getX1(i);
+            case 2:
+                return pairs[c].getX2(i);
+            case 3:
+                return pairs[c].getY1(i);
+            default:
+                return pairs[c].getY2(i);
+        }
+    }
+
+    /**
+     * This method returns rows as lines of the form x1;x2;y1;y2, with a line
+     * of dashes between the rows of different characteristics.
+     *
+     * @param rows int array specifying the rows in ascending order
+     */
+    public String toText(int[] rows)
+    {
+        StringBuilder text = new StringBuilder(rows.length * 84);
+        int previous = -1;
+
+        for (int r=0; r<rows.length; r++)
+        {
+            int c = characteristicOf(rows[r]);
+            int i = rows[r] - offsets[c];
+
+            if (previous >= 0 && c != previous)
+            {
+                text.append("--------------------\n");
+            }
+            previous = c;
+
+            text.append(pairs[c].getX1(i)).append(';').append(pairs[c].getX2(i)).append(';');
+            text.append(pairs[c].getY1(i)).append(';').append(pairs[c].getY2(i)).append('\n');
+        }
+
+        return text.toString();
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * ParallelPairGenerator.java
+ *
+ * Created on October 16, 2026, 9:40 PM
+ *
+ */
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class generates plaintext pairs for a characteristic on all available
+ * cores and keeps the "right pairs". The requested number of candidate pairs is
+ * split recursively across a ForkJoin pool. Each leaf task draws its plaintexts
+ * from its own SplittableRandom, split off from the parent's generator before
+ * the task is forked, and reads the round outputs of its encryptions from its
+ * own trace buffers, so all tasks share one DES instance. The right pairs found
+ * by the tasks are merged into a single PairStore.
+ *
+ * Right pairs are normally recognized from the f function outputs of the
+ * rounds covered by the characteristic. A generator created with a PairFilter
+ * instead keeps the pairs that pass the filter, which only looks at the
+ * ciphertexts, as an attacker without access to the round outputs would have
+ * to.
+ *
+ * Since the random generators are split in a fixed pattern, the same seed
+ * always produces the same pairs regardless of the number of threads.
+ *
+ * @author Kelly McLaughlin
+ */
+public class ParallelPairGenerator {
+    //Number of candidate pairs below which a task generates its pairs itself
+    //rather than splitting further
+    private static final long LEAF_SIZE = 1L << 14;
+
+    private long key;
+    private int rounds;
+    private Characteristic characteristic;
+    private PairFilter filter;
+    private ForkJoinPool pool;
+    private DES des;
+
+    /**
+     * Creates a new instance of ParallelPairGenerator that runs on the common
+     * ForkJoin pool.
+     *
+     * @param key long value specifying the key to use to encrypt the plaintexts
+     * @param rounds int value specifying the number of encryption rounds
+     * @param characteristic Characteristic specifying the XOR of the plaintexts
+     * of each pair and the round outputs of a right pair
+     */
+    public ParallelPairGenerator(long key, int rounds, Characteristic characteristic)
+    {
+        this(key, rounds, characteristic, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new instance of ParallelPairGenerator that keeps the pairs
+     * accepted by a ciphertext-only filter and runs on the common ForkJoin
+     * pool.
+     *
+     * @param key long value specifying the key to use to encrypt the plaintexts
+     * @param rounds int value specifying the number of encryption rounds
+     * @param characteristic Characteristic specifying the XOR of the plaintexts
+     * of each pair
+     * @param filter PairFilter deciding from the ciphertexts which pairs to
+     * keep
+     */
+    public ParallelPairGenerator(long key, int rounds, Characteristic characteristic, PairFilter filter)
+    {
+        this(key, rounds, characteristic, filter, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new instance of ParallelPairGenerator that runs on the given
+     * ForkJoin pool.
+     *
+     * @param key long value specifying the key to use to encrypt the plaintexts
+     * @param rounds int value specifying the number of encryption rounds
+     * @param characteristic Characteristic specifying the XOR of the plaintexts
+     * of each pair and the round outputs of a right pair
+     * @param filter PairFilter deciding from the ciphertexts which pairs to
+     * keep, or null to keep the right pairs of the characteristic
+     * @param pool ForkJoinPool to run the generation on
+     */
+    public ParallelPairGenerator(long key, int rounds, Characteristic characteristic, PairFilter filter, ForkJoinPool pool)
+    {
+        this.key = key;
+        this.rounds = rounds;
+        this.characteristic = characteristic;
+        this.filter = filter;
+        this.pool = pool;
+        des = new DES();
+    }
+
+    /**
+     * This method generates the given number of candidate pairs and returns
+     * the right pairs among them in a PairStore.
+     *
+     * @param numberOfPairs long value specifying the number of candidate pairs
+     * to generate and filter
+     * @param seed long value specifying the seed for the random plaintexts
+     */
+    public PairStore generate(long numberOfPairs, long seed)
+    {
+        PairGenerationEvent event = new PairGenerationEvent();
+
+        event.begin();
+        PairStore pairs = pool.invoke(new GeneratorTask(numberOfPairs, new SplittableRandom(seed), null));
+        commitEvent(event, numberOfPairs, pairs.size());
+
+        return pairs;
+    }
+
+    /**
+     * This method generates the given number of candidate pairs and adds the
+     * right pairs among them to a KeyCounter as soon as each task has found
+     * them, rather than collecting them. The pairs are the same as those
+     * returned by generate for the same seed.
+     *
+     * @param numberOfPairs long value specifying the number of candidate pairs
+     * to generate and filter
+     * @param seed long value specifying the seed for the random plaintexts
+     * @param counter KeyCounter to add the right pairs to
+     */
+    public void count(long numberOfPairs, long seed, KeyCounter counter)
+    {
+        PairGenerationEvent event = new PairGenerationEvent();
+        long countedBefore = event.isEnabled() ? counter.getPairCount() : 0L;
+
+        event.begin();
+        pool.invoke(new GeneratorTask(numberOfPairs, new SplittableRandom(seed), counter));
+        if (event.isEnabled())
+        {
+            commitEvent(event, numberOfPairs, counter.getPairCount() - countedBefore);
+        }
+    }
+
+    private void commitEvent(PairGenerationEvent event, long numberOfPairs, long acceptedPairs)
+    {
+        if (event.shouldCommit())
+        {
+            event.generator = "ParallelPairGenerator";
+            event.characteristics = characteristic.getName();
+            event.rounds = rounds;
+            event.candidatePairs = numberOfPairs;
+            event.acceptedPairs = acceptedPairs;
+            event.encryptions = 2 * numberOfPairs;
+            event.commit();
+        }
+    }
+
+    /**
+     * This method generates and filters candidate pairs on the calling thread.
+     */
+    private PairStore generatePairs(long numberOfPairs, SplittableRandom rng)
+    {
+        PairStore pairs = new PairStore();
+        ExpandedKey expandedKey = new KeySchedule().expandKey(key);
+        int[] x1FOutputs = new int[rounds];
+        int[] x2FOutputs = new int[rounds];
+        long inputXor = characteristic.getInputXor();
+        long x1, x2, y1, y2;
+        DesBatchEvent batch = new DesBatchEvent();
+
+        batch.begin();
+
+        for (long i=0; i<numberOfPairs; i++)
+        {
+            x1 = rng.nextLong();
+            x2 = x1 ^ inputXor;
+
+            if (filter != null)
+            {
+                y1 = des.encrypt(x1, expandedKey, rounds, null);
+                y2 = des.encrypt(x2, expandedKey, rounds, null);
+
+                if (filter.accept(y1, y2))
+                {
+                    pairs.add(x1, x2, y1, y2);
+                }
+            }
+            else
+            {
+                y1 = des.encrypt(x1, expandedKey, rounds, x1FOutputs);
+                y2 = des.encrypt(x2, expandedKey, rounds, x2FOutputs);
+
+                if (characteristic.isRightPair(x1FOutputs, x2FOutputs))
+                {
+                    pairs.add(x1, x2, y1, y2);
+                }
+            }
+        }
+
+        AttackMetrics metrics = AttackMetrics.getInstance();
+        if (metrics != null)
+        {
+            metrics.addGeneratedPairs(characteristic, numberOfPairs, pairs.size());
+        }
+
+        if (batch.shouldCommit())
+        {
+            batch.operation = "encrypt";
+            batch.blocks = 2 * numberOfPairs;
+            batch.keys = 1;
+            batch.rounds = rounds;
+            batch.commit();
+        }
+
+        return pairs;
+    }
+
+    private class GeneratorTask extends RecursiveTask<PairStore> {
+        private static final long serialVersionUID = 1L;
+
+        private long numberOfPairs;
+        private SplittableRandom rng;
+        private KeyCounter counter;
+
+        GeneratorTask(long numberOfPairs, SplittableRandom rng, KeyCounter counter)
+        {
+            this.numberOfPairs = numberOfPairs;
+            this.rng = rng;
+            this.counter = counter;
+        }
+
+        protected PairStore compute()
+        {
+            if (numberOfPairs <= LEAF_SIZE)
+            {
+                PairStore pairs = generatePairs(numberOfPairs, rng);
+
+                //When counting, the pairs are not passed up to the parent
+                if (counter != null)
+                {
+                    counter.addAll(pairs);
+                    pairs = new PairStore();
+                }
+
+                return pairs;
+            }
+
+            long half = numberOfPairs / 2;
+            GeneratorTask left = new GeneratorTask(half, rng.split(), counter);
+            GeneratorTask right = new GeneratorTask(numberOfPairs - half, rng, counter);
+
+            left.fork();
+            PairStore rightPairs = right.compute();
+            PairStore leftPairs = left.join();
+
+            leftPairs.addAll(rightPairs);
+
+            return leftPairs;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * StructurePairGenerator.java
+ *
+ * Created on October 17, 2026, 4:20 AM
+ *
+ */
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class generates plaintext pairs for several characteristics at once
+ * from structures of plaintexts, and keeps the "right pairs" of each. A
+ * structure for n characteristics is a random plaintext XORed with each of the
+ * 2^n combinations of the input XORs of the characteristics. Every plaintext
+ * of a structure has a partner in the structure for every characteristic, so
+ * the 2^n encryptions of a structure give 2^(n-1) pairs for each of the n
+ * characteristics. Compared to encrypting two fresh plaintexts per pair, this
+ * divides the number of encryptions needed for the same number of pairs by n.
+ * With the two characteristics of the 6 round attack, a structure is the
+ * quartet P, P^CHARACTERISTIC_ONE, P^CHARACTERISTIC_TWO and P^both, which
+ * gives two pairs for each characteristic from four encryptions.
+ *
+ * As in ParallelPairGenerator, the structures are split recursively across a
+ * ForkJoin pool, each leaf task draws its plaintexts from its own
+ * SplittableRandom and right pairs are recognized from the f function outputs
+ * of the encryptions, or by a PairFilter for each characteristic if filters
+ * are given. The same seed always produces the same pairs regardless of the
+ * number of threads. Since the filters only need the ciphertexts, filtered
+ * generation encrypts its structures in batches with BitslicedDES.
+ *
+ * @author Kelly McLaughlin
+ */
+public class StructurePairGenerator {
+    //Number of structures below which a task generates its pairs itself
+    //rather than splitting further
+    private static final long LEAF_SIZE = 1L << 13;
+
+    //Largest number of characteristics a structure can combine
+    private static final int MAXIMUM_CHARACTERISTICS = 16;
+
+    //Number of plaintexts encrypted together, made up of whole structures
+    //unless a structure is larger
+    private static final int BATCH_SIZE = 16 * BitslicedDES.LANES;
+
+    private long key;
+    private int rounds;
+    private Characteristic[] characteristics;
+    private PairFilter[] filters;
+    private ForkJoinPool pool;
+    private DES des;
+    private long[] offsets;
+
+    /**
+     * Creates a new instance of StructurePairGenerator that runs on the common
+     * ForkJoin pool.
+     *
+     * @param key long value specifying the key to use to encrypt the plaintexts
+     * @param rounds int value specifying the number of encryption rounds
+     * @param characteristics Characteristic array specifying the XOR of the
+     * plaintexts of each pair and the round outputs of a right pair for each
+     * characteristic
+     * @throws IllegalArgumentException if the input XORs of the characteristics
+     * are not linearly independent
+     */
+    public StructurePairGenerator(long key, int rounds, Characteristic[] characteristics)
+    {
+        this(key, rounds, characteristics, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new instance of StructurePairGenerator that runs on the given
+     * ForkJoin pool.
+     *
+     * @param key long value specifying the key to use to encrypt the plaintexts
+     * @param rounds int value specifying the number of encryption rounds
+     * @param characteristics Characteristic array specifying the XOR of the
+     * plaintexts of each pair and the round outputs of a right pair for each
+     * characteristic
+     * @param filters PairFilter array deciding from the ciphertexts which pairs
+     * of each characteristic to keep, or null to keep the right pairs of the
+     * characteristics
+     * @param pool ForkJoinPool to run the generation on
+     * @throws IllegalArgumentException if the input XORs of the characteristics
+     * are not linearly independent
+     */
+    public StructurePairGenerator(long key, int rounds, Characteristic[] characteristics, PairFilter[] filters, ForkJoinPool pool)
+    {
+        if (characteristics.length == 0 || characteristics.length > MAXIMUM_CHARACTERISTICS)
+        {
+            throw new IllegalArgumentException("A structure combines 1 to " + MAXIMUM_CHARACTERISTICS + " characteristics, " +
+                    characteristics.length + " given");
+        }
+        if (filters != null && filters.length != characteristics.length)
+        {
+            throw new IllegalArgumentException(filters.length + " filters given for " + characteristics.length + " characteristics");
+        }
+
+        this.key = key;
+        this.rounds = rounds;
+        this.characteristics = characteristics.clone();
+        this.filters = (filters != null) ? filters.clone() : null;
+        this.pool = pool;
+        des = new DES();
+
+        //The XOR of each plaintext of a structure with the first one, with
+        //bit c of the index selecting the input XOR of characteristic c
+        offsets = new long[1 << characteristics.length];
+        for (int s=1; s<offsets.length; s++)
+        {
+            offsets[s] = offsets[s & (s-1)] ^ characteristics[Integer.numberOfTrailingZeros(s)].getInputXor();
+            if (offsets[s] == 0L)
+            {
+                throw new IllegalArgumentException("The input XORs of the characteristics are not linearly independent");
+            }
+        }
+    }
+
+    /**
+     * This method returns the number of pairs each structure gives for each
+     * characteristic.
+     */
+    public int getPairsPerStructure()
+    {
+        return offsets.length / 2;
+    }
+
+    /**
+     * This method returns the number of plaintexts encrypted for each
+     * structure.
+     */
+    public int getStructureSize()
+    {
+        return offsets.length;
+    }
+
+    /**
+     * This method generates enough structures for the given number of
+     * candidate pairs per characteristic and returns the right pairs of each
+     * characteristic in a PairStore, in the order of the characteristics.
+     *
+     * @param numberOfPairs long value specifying the number of candidate pairs
+     * to generate and filter for each characteristic, rounded up to a whole
+     * number of structures
+     * @param seed long value specifying the seed for the random plaintexts
+     */
+    public PairStore[] generate(long numberOfPairs, long seed)
+    {
+        long numberOfStructures = (numberOfPairs + getPairsPerStructure() - 1) / getPairsPerStructure();
+        PairGenerationEvent event = new PairGenerationEvent();
+
+        event.begin();
+        PairStore[] pairs = pool.invoke(new GeneratorTask(numberOfStructures, new SplittableRandom(seed)));
+
+        if (event.shouldCommit())
+        {
+            StringBuilder names = new StringBuilder();
+            long acceptedPairs = 0;
+
+            for (int c=0; c<characteristics.length; c++)
+            {
+                names.append((c > 0) ? ", " : "").append(characteristics[c].getName());
+                acceptedPairs += pairs[c].size();
+            }
+
+            event.generator = "StructurePairGenerator";
+            event.characteristics = names.toString();
+            event.rounds = rounds;
+            event.candidatePairs = numberOfStructures * getPairsPerStructure();
+            event.acceptedPairs = acceptedPairs;
+            event.encryptions = numberOfStructures * getStructureSize();
+            event.commit();
+        }
+
+        return pairs;
+    }
+
+    /**
+     * This method generates structures and filters their pairs on the calling
+     * thread.
+     */
+    private PairStore[] generatePairs(long numberOfStructures, SplittableRandom rng)
+    {
+        PairStore[] pairs = new PairStore[characteristics.length];
+        ExpandedKey expandedKey = new KeySchedule().expandKey(key);
+        BitslicedDES bitsliced = (filters != null) ? new BitslicedDES() : null;
+        int structuresPerBatch = Math.max(1, BATCH_SIZE / offsets.length);
+        int batchSize = structuresPerBatch * offsets.length;
+        long[] plaintexts = new long[batchSize];
+        long[] ciphertexts = new long[batchSize];
+        int[][] fOutputs = (filters == null) ? new int[batchSize][rounds] : null;
+        DesBatchEvent batch = new DesBatchEvent();
+
+        batch.begin();
+
+        for (int c=0; c<characteristics.length; c++)
+        {
+            pairs[c] = new PairStore();
+        }
+
+        for (long i=0; i<numberOfStructures; i+=structuresPerBatch)
+        {
+            int blocks = (int)Math.min(structuresPerBatch, numberOfStructures - i) * offsets.length;
+
+            for (int base=0; base<blocks; base+=offsets.length)
+            {
+                long x = rng.nextLong();
+
+                for (int s=0; s<offsets.length; s++)
+                {
+                    plaintexts[base + s] = x ^ offsets[s];
+                }
+            }
+
+            if (bitsliced != null)
+            {
+                bitsliced.encrypt(plaintexts, ciphertexts, blocks, key, rounds);
+            }
+            else
+            {
+                for (int n=0; n<blocks; n++)
+                {
+                    ciphertexts[n] = des.encrypt(plaintexts[n], expandedKey, rounds, fOutputs[n]);
+                }
+            }
+
+            //Each pair is visited once, from the plaintext without the input
+            //XOR of the characteristic to the one with it
+            for (int base=0; base<blocks; base+=offsets.length)
+            {
+                for (int c=0; c<characteristics.length; c++)
+                {
+                    int bit = 1 << c;
+
+                    for (int s=base; s<base+offsets.length; s++)
+                    {
+                        if (((s - base) & bit) != 0)
+                        {
+                            continue;
+                        }
+
+                        boolean keep = (filters != null) ? filters[c].accept(ciphertexts[s], ciphertexts[s | bit]) :
+                                characteristics[c].isRightPair(fOutputs[s], fOutputs[s | bit]);
+
+                        if (keep)
+                        {
+                            pairs[c].add(plaintexts[s], plaintexts[s | bit], ciphertexts[s], ciphertexts[s | bit]);
+                        }
+                    }
+                }
+            }
+        }
+
+        AttackMetrics metrics = AttackMetrics.getInstance();
+        if (metrics != null)
+        {
+            for (int c=0; c<characteristics.length; c++)
+            {
+                metrics.addGeneratedPairs(characteristics[c], numberOfStructures * getPairsPerStructure(), pairs[c].size());
+            }
+        }
+
+        if (batch.shouldCommit())
+        {
+            batch.operation = "encrypt";
+            batch.blocks = numberOfStructures * getStructureSize();
+            batch.keys = 1;
+            batch.rounds = rounds;
+            batch.commit();
+        }
+
+        return pairs;
+    }
+
+    private class GeneratorTask extends RecursiveTask<PairStore[]> {
+        private static final long serialVersionUID = 1L;
+
+        private long numberOfStructures;
+        private SplittableRandom rng;
+
+        GeneratorTask(long numberOfStructures, SplittableRandom rng)
+        {
+            this.numberOfStructures = numberOfStructures;
+            this.rng = rng;
+        }
+
+        protected PairStore[] compute()
+        {
+            if (numberOfStructures <= LEAF_SIZE)
+            {
+                return generatePairs(numberOfStructures, rng);
+            }
+
+            long half = numberOfStructures / 2;
+            GeneratorTask left = new GeneratorTask(half, rng.split());
+            GeneratorTask right = new GeneratorTask(numberOfStructures - half, rng);
+
+            left.fork();
+            PairStore[] rightPairs = right.compute();
+            PairStore[] leftPairs = left.join();
+
+            for (int c=0; c<leftPairs.length; c++)
+            {
+                leftPairs[c].addAll(rightPairs[c]);
+            }
+
+            return leftPairs;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * TupleParsingEvent.java
+ *
+ * Created on October 17, 2026, 9:10 AM
+ *
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This JDK Flight Recorder event covers the parsing of the
+ * plaintext/ciphertext lines entered in the user interface into a PairStore
+ * for each characteristic by createTuples and createPairStores.
+ *
+ * @author Kelly McLaughlin
+ */
+@Name("DesCryptanalysis.TupleParsing")
+@Label("Tuple Parsing")
+@Category({ "DES Cryptanalysis", "Attack" })
+@Description("Parsing of plaintext/ciphertext lines into pairs")
+public class TupleParsingEvent extends Event {
+    @Label("Lines")
+    public long lines;
+
+    @Label("Characteristic One Pairs")
+    public long charOnePairs;
+
+    @Label("Characteristic Two Pairs")
+    public long charTwoPairs;
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * VectorCountingKernel.java
+ *
+ * Created on October 17, 2026, 5:10 AM
+ *
+ */
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This class counts the subkeys suggested by pairs with the incubating Java
+ * Vector API. Pairs are processed in batches of one vector of int lanes, 8 on
+ * AVX2 and 16 on AVX-512 hosts. For a whole batch at once, the left half XOR
+ * of the ciphertexts is combined with the expected XOR and passed through the
+ * inverse of P with four gathers from KeyCounter's byte tables, and for each
+ * counted SBox the expansion E selects the six input bits of both right
+ * halves. This gives the first SBox input, the input XOR and the output XOR
+ * of each pair, which select its solution mask from DifferenceTables. The
+ * subkeys in each mask are then counted one lane at a time, as counting them
+ * in parallel would have lanes updating the same counter.
+ *
+ * The class can only be compiled and loaded with the jdk.incubator.vector
+ * module, so KeyCounter loads it by name and falls back to counting pairs
+ * itself when it is missing. See the compile-vector target of the build file.
+ *
+ * @author Kelly McLaughlin
+ */
+public class VectorCountingKernel implements CountingKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /** Creates a new instance of VectorCountingKernel */
+    public VectorCountingKernel() {
+    }
+
+    public void count(int expectedXor, int[] sboxes, long[] y1, long[] y2, int count, long[] counter)
+    {
+        int lanes = SPECIES.length();
+        int[] l1 = new int[lanes];
+        int[] l2 = new int[lanes];
+        int[] r1 = new int[lanes];
+        int[] r2 = new int[lanes];
+        int[] index = new int[lanes];
+        int[] e1Inputs = new int[lanes];
+
+        for (int i=0; i<count; i+=lanes)
+        {
+            int n = Math.min(lanes, count - i);
+
+            //Split the ciphertexts into halves. The lanes past the end of the
+            //last batch keep stale values and are not counted.
+            for (int j=0; j<n; j++)
+            {
+                l1[j] = (int)(y1[i+j] >>> 32);
+                l2[j] = (int)(y2[i+j] >>> 32);
+                r1[j] = (int)y1[i+j];
+                r2[j] = (int)y2[i+j];
+            }
+
+            //Determine the output XOR of the last round of SBoxes
+            IntVector lPrime = IntVector.fromArray(SPECIES, l1, 0).lanewise(VectorOperators.XOR, IntVector.fromArray(SPECIES, l2, 0))
+                    .lanewise(VectorOperators.XOR, expectedXor);
+            IntVector sBoxOutput = null;
+
+            for (int b=0; b<4; b++)
+            {
+                lPrime.lanewise(VectorOperators.LSHR, 24 - 8*b).lanewise(VectorOperators.AND, 0xff).lanewise(VectorOperators.OR, 256*b)
+                        .intoArray(index, 0);
+
+                IntVector part = IntVector.fromArray(SPECIES, KeyCounter.INVERSE_P_TABLE, 0, index, 0);
+                sBoxOutput = (sBoxOutput == null) ? part : sBoxOutput.lanewise(VectorOperators.XOR, part);
+            }
+
+            IntVector vr1 = IntVector.fromArray(SPECIES, r1, 0);
+            IntVector vr2 = IntVector.fromArray(SPECIES, r2, 0);
+
+            for (int s=0; s<sboxes.length; s++)
+            {
+                int k = sboxes[s];
+                int rotation = (31 - 4*k) & 31;
+
+                IntVector e1Input = vr1.lanewise(VectorOperators.ROR, rotation).lanewise(VectorOperators.AND, 0x3f);
+                IntVector e2Input = vr2.lanewise(VectorOperators.ROR, rotation).lanewise(VectorOperators.AND, 0x3f);
+                IntVector outputXor = sBoxOutput.lanewise(VectorOperators.LSHR, 32 - 4*k).lanewise(VectorOperators.AND, 0xf);
+
+                e1Input.intoArray(e1Inputs, 0);
+                e1Input.lanewise(VectorOperators.XOR, e2Input).lanewise(VectorOperators.LSHL, 4).lanewise(VectorOperators.OR, outputXor)
+                        .intoArray(index, 0);
+
+                for (int j=0; j<n; j++)
+                {
+                    long mask = DifferenceTables.getSolutionMask(k, index[j] >>> 4, index[j] & 0xf);
+
+                    while (mask != 0)
+                    {
+                        counter[s*64 + (Long.numberOfTrailingZeros(mask) ^ e1Inputs[j])]++;
+                        mask &= mask - 1;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,507 @@
+/*
+ * This file is provided to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * BitslicedSboxGenerator.java
+ *
+ * Created on October 16, 2026, 11:40 PM
+ *
+ */
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * This class generates the SBox circuits used by BitslicedDES and writes them
+ * out as the source of the BitslicedSboxes class, to the file named by the
+ * first argument. It is a development tool and not part of the distribution;
+ * the source is regenerated with
+ *
+ *     ant generate-sboxes
+ *
+ * Each SBox is split on two of its inputs. The output bits for each value of
+ * those two inputs are written in algebraic normal form over the other four
+ * inputs, XORs occurring in several output bits are shared by repeatedly
+ * pairing the two terms found together most often, and the four parts are
+ * recombined with either a multiplexer or the algebraic normal form over the
+ * two split inputs. Every split is tried and the circuit with the fewest gates
+ * is kept. Each circuit is evaluated on all 64 inputs against the SBox tables
+ * before it is written.
+ *
+ * @author Kelly McLaughlin
+ */
+public class BitslicedSboxGenerator {
+
+    //Signals that stand for the constants. Signals 0-5 are the SBox inputs
+    //and signal 6+i is the output of gate i.
+    private static final int ONE = -1;
+    private static final int ZERO = -2;
+
+    //Marks a product of inputs that has not been built yet
+    private static final int UNBUILT = -3;
+
+    private ArrayList<int[]> gates;
+    private HashMap<Long, Integer> gateIndex;
+    private int[] outputs;
+
+    private BitslicedSboxGenerator()
+    {
+        gates = new ArrayList<int[]>();
+        gateIndex = new HashMap<Long, Integer>();
+        outputs = new int[4];
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 1)
+        {
+            System.err.println("Usage: java BitslicedSboxGenerator output-file");
+            System.exit(2);
+        }
+
+        try (PrintStream out = new PrintStream(new FileOutputStream(args[0]), false, "US-ASCII"))
+        {
+            write(out);
+        }
+    }
+
+    private static void write(PrintStream out)
+    {
+        out.print("/*\r\n");
+        out.print(" * This file is provided to you under the Apache License, Version 2.0 (the\r\n");
+        out.print(" * \"License\"); you may not use this file except in compliance with the License.\r\n");
+        out.print(" * You may obtain a copy of the License at\r\n");
+        out.print(" *\r\n");
+        out.print(" * http://www.apache.org/licenses/LICENSE-2.0\r\n");
+        out.print(" *\r\n");
+        out.print(" * Unless required by applicable law or agreed to in writing, software\r\n");
+        out.print(" * distributed under the License is distributed on an \"AS IS\" BASIS, WITHOUT\r\n");
+        out.print(" * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the\r\n");
+        out.print(" * License for the specific language governing permissions and limitations under\r\n");
+        out.print(" * the License.\r\n");
+        out.print(" *\r\n");
+        out.print(" * BitslicedSboxes.java\r\n");
+        out.print(" *\r\n");
+        out.print(" * Generated by BitslicedSboxGenerator. Do not edit.\r\n");
+        out.print(" *\r\n");
+        out.print(" */\r\n");
+        out.print("\r\n");
+        out.print("/**\r\n");
+        out.print(" * This class holds the bitsliced SBoxes used by BitslicedDES as straight\r\n");
+        out.print(" * line AND/XOR circuits. Method sk evaluates SBox k on the six input slices,\r\n");
+        out.print(" * where xi holds bit i of the SBox input, and XORs output bit j into slice oj\r\n");
+        out.print(" * of b.\r\n");
+        out.print(" *\r\n");
+        out.print(" * @author Kelly McLaughlin\r\n");
+        out.print(" */\r\n");
+        out.print("final class BitslicedSboxes {\r\n");
+
+        for (int k=1; k<=8; k++)
+        {
+            BitslicedSboxGenerator circuit = generate(k);
+            int[] order = circuit.schedule();
+
+            out.print("\r\n");
+            out.print("    //" + circuit.gates.size() + " gates\r\n");
+            out.print("    static void s" + k + "(long x0, long x1, long x2, long x3, long x4, long x5,\r\n");
+            out.print("            long[] b, int o0, int o1, int o2, int o3)\r\n");
+            out.print("    {\r\n");
+            for (int signal : order)
+            {
+                if (signal < 0)
+                {
+                    int j = -1 - signal;
+                    out.print("        b[o" + j + "] ^= " + name(circuit.outputs[j]) + ";\r\n");
+                    continue;
+                }
+
+                int[] gate = circuit.gates.get(signal - 6);
+                String value;
+                if (gate[1] == ONE)
+                {
+                    value = "~" + name(gate[2]);
+                }
+                else
+                {
+                    value = name(gate[1]) + " " + (char)gate[0] + " " + name(gate[2]);
+                }
+                out.print("        long " + name(signal) + " = " + value + ";\r\n");
+            }
+            out.print("    }\r\n");
+        }
+
+        out.print("}\r\n");
+    }
+
+    private static String name(int signal)
+    {
+        if (signal == ONE)
+        {
+            return "-1L";
+        }
+        if (signal == ZERO)
+        {
+            return "0L";
+        }
+        return (signal < 6 ? "x" : "t") + signal;
+    }
+
+    /**
+     * Returns the order to write the gates in. Each output is computed depth
+     * first and stored as soon as it is known, which keeps few values live at
+     * once. Output j is stored at the position holding -1-j.
+     */
+    private int[] schedule()
+    {
+        int[] order = new int[gates.size() + 4];
+        boolean[] done = new boolean[6 + gates.size()];
+        int n = 0;
+
+        for (int j=0; j<4; j++)
+        {
+            n = visit(outputs[j], done, order, n);
+            order[n++] = -1 - j;
+        }
+
+        return order;
+    }
+
+    private int visit(int signal, boolean[] done, int[] order, int n)
+    {
+        if (signal < 6 || done[signal])
+        {
+            return n;
+        }
+
+        int[] gate = gates.get(signal - 6);
+        n = visit(gate[1], done, order, n);
+        n = visit(gate[2], done, order, n);
+        done[signal] = true;
+        order[n++] = signal;
+        return n;
+    }
+
+    /**
+     * Returns the smallest circuit found for the specified SBox after checking
+     * it against the SBox tables.
+     */
+    private static BitslicedSboxGenerator generate(int k)
+    {
+        BitslicedSboxGenerator best = null;
+
+        for (int p=0; p<6; p++)
+        {
+            for (int q=p+1; q<6; q++)
+            {
+                for (int form=0; form<4; form++)
+                {
+                    BitslicedSboxGenerator circuit = new BitslicedSboxGenerator();
+                    if ((form & 2) == 0)
+                    {
+                        circuit.build(k, p, q, (form & 1) != 0);
+                    }
+                    else
+                    {
+                        circuit.build(k, q, p, (form & 1) != 0);
+                    }
+                    if (best == null || circuit.gates.size() < best.gates.size())
+                    {
+                        best = circuit;
+                    }
+                }
+            }
+        }
+
+        for (int j=0; j<4; j++)
+        {
+            long expected = 0L;
+            for (int x=0; x<64; x++)
+            {
+                if ((SBox.getSboxValue(x, k) & (1 << j)) != 0)
+                {
+                    expected |= 1L << x;
+                }
+            }
+            if (best.evaluate(j) != expected)
+            {
+                throw new IllegalStateException("The circuit for bit " + j + " of SBox " + k + " is wrong");
+            }
+        }
+
+        return best;
+    }
+
+    private void build(int k, int p, int q, boolean mux)
+    {
+        int[] middle = new int[4];
+        for (int i=0, n=0; i<6; i++)
+        {
+            if (i != p && i != q)
+            {
+                middle[n++] = i;
+            }
+        }
+
+        //The algebraic normal form over the middle inputs of each output bit
+        //for each value c of the split inputs, with p in bit 0 of c. In the
+        //algebraic form these become the coefficients of 1, p, q and pq.
+        int[][] anf = new int[4][4];
+        for (int j=0; j<4; j++)
+        {
+            for (int c=0; c<4; c++)
+            {
+                int table = 0;
+                for (int m=0; m<16; m++)
+                {
+                    int x = ((c & 1) << p) | ((c >> 1) << q);
+                    for (int i=0; i<4; i++)
+                    {
+                        x |= ((m >> i) & 1) << middle[i];
+                    }
+                    if ((SBox.getSboxValue(x, k) & (1 << j)) != 0)
+                    {
+                        table |= 1 << m;
+                    }
+                }
+                for (int i=0; i<4; i++)
+                {
+                    for (int m=0; m<16; m++)
+                    {
+                        if ((m & (1 << i)) != 0 && (table & (1 << (m ^ (1 << i)))) != 0)
+                        {
+                            table ^= 1 << m;
+                        }
+                    }
+                }
+                anf[j][c] = table;
+            }
+
+            if (!mux)
+            {
+                anf[j][3] ^= anf[j][0] ^ anf[j][1] ^ anf[j][2];
+                anf[j][1] ^= anf[j][0];
+                anf[j][2] ^= anf[j][0];
+            }
+        }
+
+        int[] products = new int[16];
+        products[0] = ONE;
+        for (int m=1; m<16; m++)
+        {
+            products[m] = (m & (m-1)) == 0 ? middle[Integer.numberOfTrailingZeros(m)] : UNBUILT;
+        }
+
+        List<List<Integer>> rows = new ArrayList<List<Integer>>();
+        for (int j=0; j<4; j++)
+        {
+            for (int c=0; c<4; c++)
+            {
+                List<Integer> row = new ArrayList<Integer>();
+                for (int m=0; m<16; m++)
+                {
+                    if ((anf[j][c] & (1 << m)) != 0)
+                    {
+                        row.add(product(products, middle, m));
+                    }
+                }
+                rows.add(row);
+            }
+        }
+
+        shareXors(rows);
+
+        int[][] value = new int[4][4];
+        for (int j=0; j<4; j++)
+        {
+            for (int c=0; c<4; c++)
+            {
+                int v = ZERO;
+                for (int s : rows.get(4*j + c))
+                {
+                    v = xor(v, s);
+                }
+                value[j][c] = v;
+            }
+        }
+
+        for (int j=0; j<4; j++)
+        {
+            int[] f = value[j];
+            if (mux)
+            {
+                int low = xor(f[0], and(q, xor(f[0], f[2])));
+                int high = xor(f[1], and(q, xor(f[1], f[3])));
+                outputs[j] = xor(low, and(p, xor(low, high)));
+            }
+            else
+            {
+                outputs[j] = xor(xor(f[0], and(q, f[2])), and(p, xor(f[1], and(q, f[3]))));
+            }
+        }
+    }
+
+    /**
+     * Replaces the pair of signals occurring together in the most rows with
+     * their XOR until no pair occurs in more than one row.
+     */
+    private void shareXors(List<List<Integer>> rows)
+    {
+        while (true)
+        {
+            HashMap<Long, Integer> counts = new HashMap<Long, Integer>();
+            long best = 0L;
+            int bestCount = 1;
+
+            for (List<Integer> row : rows)
+            {
+                for (int a=0; a<row.size(); a++)
+                {
+                    for (int b=a+1; b<row.size(); b++)
+                    {
+                        long pair = pair(row.get(a), row.get(b));
+                        Integer count = counts.get(pair);
+                        int n = count == null ? 1 : count + 1;
+                        counts.put(pair, n);
+                        if (n > bestCount || (n == bestCount && n > 1 && pair < best))
+                        {
+                            best = pair;
+                            bestCount = n;
+                        }
+                    }
+                }
+            }
+
+            if (bestCount < 2)
+            {
+                return;
+            }
+
+            Integer s = (int)(best >>> 32) - 3;
+            Integer t = (int)best - 3;
+            int st = xor(s, t);
+            for (List<Integer> row : rows)
+            {
+                if (row.contains(s) && row.contains(t))
+                {
+                    row.remove(s);
+                    row.remove(t);
+                    row.add(st);
+                }
+            }
+        }
+    }
+
+    private static long pair(int s, int t)
+    {
+        return ((long)(Math.min(s, t) + 3) << 32) | (Math.max(s, t) + 3);
+    }
+
+    private int product(int[] products, int[] middle, int m)
+    {
+        if (products[m] == UNBUILT)
+        {
+            products[m] = and(product(products, middle, m & (m-1)), middle[Integer.numberOfTrailingZeros(m)]);
+        }
+        return products[m];
+    }
+
+    private int xor(int a, int b)
+    {
+        if (a == ZERO)
+        {
+            return b;
+        }
+        if (b == ZERO)
+        {
+            return a;
+        }
+        return gate('^', a, b);
+    }
+
+    private int and(int a, int b)
+    {
+        if (a == ZERO || b == ZERO)
+        {
+            return ZERO;
+        }
+        if (a == ONE)
+        {
+            return b;
+        }
+        if (b == ONE)
+        {
+            return a;
+        }
+        return gate('&', a, b);
+    }
+
+    private int gate(int op, int a, int b)
+    {
+        long id = ((long)op << 48) | pair(a, b);
+        Integer existing = gateIndex.get(id);
+        if (existing != null)
+        {
+            return existing;
+        }
+
+        gates.add(new int[] { op, Math.min(a, b), Math.max(a, b) });
+        gateIndex.put(id, 5 + gates.size());
+        return 5 + gates.size();
+    }
+
+    /**
+     * Returns output bit j of the circuit on all 64 inputs at once, with the
+     * output for input x in bit x.
+     */
+    private long evaluate(int j)
+    {
+        long[] values = new long[6 + gates.size()];
+
+        for (int i=0; i<6; i++)
+        {
+            for (int x=0; x<64; x++)
+            {
+                if ((x & (1 << i)) != 0)
+                {
+                    values[i] |= 1L << x;
+                }
+            }
+        }
+
+        for (int i=0; i<gates.size(); i++)
+        {
+            int[] gate = gates.get(i);
+            long a = value(values, gate[1]);
+            long b = value(values, gate[2]);
+            values[6 + i] = gate[0] == '&' ? a & b : a ^ b;
+        }
+
+        return value(values, outputs[j]);
+    }
+
+    private static long value(long[] values, int signal)
+    {
+        if (signal == ONE)
+        {
+            return -1L;
+        }
+        if (signal == ZERO)
+        {
+            return 0L;
+        }
+        return values[signal];
+    }
+}